@@ -36,38 +36,51 @@ import io.siddhi.core.util.transport.OptionHolder;
 import io.siddhi.extension.io.file.listeners.FileSystemListener;
 import io.siddhi.extension.io.file.metrics.SourceMetrics;
 import io.siddhi.extension.io.file.metrics.StreamStatus;
+import io.siddhi.extension.io.file.processors.BatchingEventListener;
+import io.siddhi.extension.io.file.processors.ChunkPool;
+import io.siddhi.extension.io.file.processors.FilePostProcessor;
 import io.siddhi.extension.io.file.processors.FileProcessor;
+import io.siddhi.extension.io.file.processors.FileTailer;
+import io.siddhi.extension.io.file.processors.FileTailerPool;
+import io.siddhi.extension.io.file.processors.NativeFileReader;
+import io.siddhi.extension.io.file.processors.ParallelLineReader;
+import io.siddhi.extension.io.file.processors.TimestampSeeker;
 import io.siddhi.extension.io.file.util.Constants;
 import io.siddhi.extension.io.file.util.FileSourceConfiguration;
 import io.siddhi.extension.io.file.util.FileSourceServiceProvider;
+import io.siddhi.extension.io.file.util.ProcessedFileRegistry;
+import io.siddhi.extension.io.file.util.TailingCheckpointStore;
+import io.siddhi.extension.io.file.util.Util;
 import io.siddhi.extension.io.file.util.VFSClientConnectorCallback;
 import io.siddhi.extension.util.Utils;
 import io.siddhi.query.api.annotation.Annotation;
 import io.siddhi.query.api.annotation.Element;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
 import org.apache.log4j.Logger;
 import org.quartz.JobKey;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
-import org.wso2.carbon.messaging.ServerConnector;
 import org.wso2.carbon.messaging.exceptions.ClientConnectorException;
-import org.wso2.carbon.messaging.exceptions.ServerConnectorException;
 import org.wso2.carbon.si.metrics.core.internal.MetricsDataHolder;
 import org.wso2.transport.file.connector.sender.VFSClientConnector;
-import org.wso2.transport.file.connector.server.FileServerConnector;
-import org.wso2.transport.file.connector.server.FileServerConnectorProvider;
 import org.wso2.transport.remotefilesystem.RemoteFileSystemConnectorFactory;
 import org.wso2.transport.remotefilesystem.exception.RemoteFileSystemConnectorException;
 import org.wso2.transport.remotefilesystem.server.connector.contract.RemoteFileSystemServerConnector;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
@@ -131,8 +144,12 @@ import static org.quartz.CronExpression.isValidExpression;
                                         "- TEXT.FULL : to read a text file completely at once.\n" +
                                         "- BINARY.FULL : to read a binary file completely at once.\n" +
                                         "- BINARY.CHUNKED : to read a binary file chunk by chunk.\n" +
+                                        "- TEXT.CHUNKED : to read a text file chunk by chunk, where each chunk " +
+                                        "ends at a record boundary.\n" +
                                         "- LINE : to read a text file line by line.\n" +
-                                        "- REGEX : to read a text file and extract data using a regex.\n",
+                                        "- REGEX : to read a text file and extract data using a regex.\n" +
+                                        "- DELIMITED : to read a text file and extract the records enclosed by " +
+                                        "literal delimiters.\n",
                         type = {DataType.STRING},
                         optional = true,
                         defaultValue = "line"
@@ -144,7 +161,7 @@ import static org.quartz.CronExpression.isValidExpression;
                                 "If this parameter is set to 'true', the file/the first file of the directory " +
                                 "is tailed. \n" +
                                 "Do not set the parameter to 'true' and enable tailing if the mode is 'binary.full'," +
-                                " 'text.full' or 'binary.chunked'.\n",
+                                " 'text.full', 'binary.chunked', 'text.chunked' or 'delimited'.\n",
                         type = {DataType.BOOL},
                         optional = true,
                         defaultValue = "true"
@@ -236,15 +253,77 @@ import static org.quartz.CronExpression.isValidExpression;
                         defaultValue = "None"
                 ),
 
+                @Parameter(
+                        name = "begin.delimiter",
+                        description = "" +
+                                "This parameter is applicable only if the value for the 'mode' parameter is " +
+                                "'DELIMITED'. The literal text that marks the beginning of a record. Unlike " +
+                                "'begin.regex', it is matched as is against the raw content of the file.\n",
+                        type = {DataType.STRING},
+                        optional = true,
+                        defaultValue = "None"
+                ),
+
+                @Parameter(
+                        name = "end.delimiter",
+                        description = "" +
+                                "This parameter is applicable only if the value for the 'mode' parameter is " +
+                                "'DELIMITED' or 'TEXT.CHUNKED'. The literal text that marks the end of a record. " +
+                                "Unlike 'end.regex', it is matched as is against the raw content of the file. In " +
+                                "'TEXT.CHUNKED' mode, a new line is taken as the end of a record if it is not " +
+                                "provided.\n",
+                        type = {DataType.STRING},
+                        optional = true,
+                        defaultValue = "None"
+                ),
+
                 @Parameter(
                         name = "file.polling.interval",
                         description = "" +
-                                "The time interval (in milliseconds) of a polling cycle for a file.\n",
+                                "The time interval (in milliseconds) of a polling cycle for a file. A tailed " +
+                                "file in the local file system is read as soon as it is modified, hence it is " +
+                                "only polled at this interval in case a modification is not notified. Any other " +
+                                "tailed file is polled starting at this interval, which then adapts to the growth " +
+                                "of the file within 'min.file.polling.interval' and 'max.file.polling.interval'.\n",
                         type = {DataType.STRING},
                         optional = true,
                         defaultValue = "1000"
                 ),
 
+                @Parameter(
+                        name = "min.file.polling.interval",
+                        description = "" +
+                                "The lower bound (in milliseconds) of the polling interval of a tailed file which " +
+                                "is polled. While the file keeps growing, the polling interval is shortened down " +
+                                "to this value.\n",
+                        type = {DataType.STRING},
+                        optional = true,
+                        defaultValue = "<file.polling.interval>"
+                ),
+
+                @Parameter(
+                        name = "max.file.polling.interval",
+                        description = "" +
+                                "The upper bound (in milliseconds) of the polling interval of a tailed file which " +
+                                "is polled. While nothing is appended to the file, the polling interval is " +
+                                "doubled on every poll up to this value.\n",
+                        type = {DataType.STRING},
+                        optional = true,
+                        defaultValue = "<file.polling.interval>"
+                ),
+
+                @Parameter(
+                        name = "max.lines.per.poll",
+                        description = "" +
+                                "The maximum number of lines read from a tailed file which is polled, in a single " +
+                                "poll. A poll starts by reading 10 lines, and the number is doubled up to this " +
+                                "value as long as every poll reads as many lines as allowed. '-1' imposes no " +
+                                "limit.\n",
+                        type = {DataType.INT},
+                        optional = true,
+                        defaultValue = "-1"
+                ),
+
                 @Parameter(
                         name = "dir.polling.interval",
                         description = "The time period (in milliseconds) of a polling cycle for a directory.\n",
@@ -255,8 +334,8 @@ import static org.quartz.CronExpression.isValidExpression;
 
                 @Parameter(
                         name = "timeout",
-                        description = "The maximum time duration (in milliseconds) that the system should wait until" +
-                                " a file is processed.\n",
+                        description = "Deprecated and ignored. A file is moved or deleted as soon as it is read, " +
+                                "without waiting for an acknowledgement.\n",
                         type = {DataType.STRING},
                         optional = true,
                         defaultValue = "5000"
@@ -309,7 +388,11 @@ import static org.quartz.CronExpression.isValidExpression;
                 ),
                 @Parameter(
                         name = "buffer.size",
-                        description = "This parameter used to get the buffer size for binary.chunked mode.",
+                        description = "This parameter used to get the buffer size for binary.chunked mode. In " +
+                                "text.chunked mode, it is the maximum number of bytes of a chunk. A chunk is cut " +
+                                "right after the last 'end.delimiter' within it, hence a record is never split " +
+                                "across chunks. A record longer than the buffer size is emitted as a chunk of " +
+                                "its own.",
                         optional = true,
                         type = {DataType.STRING},
                         defaultValue = "65536"
@@ -340,6 +423,317 @@ import static org.quartz.CronExpression.isValidExpression;
                         type = DataType.STRING,
                         optional = true,
                         defaultValue = "<Empty_String>"
+                ),
+                @Parameter(
+                        name = "read.parallelism",
+                        description = "The number of workers used to read a single file. When it is greater than " +
+                                "1, a local file read in 'line' mode without tailing is split into ranges aligned " +
+                                "to line boundaries, and the ranges are read in parallel. Files in other file " +
+                                "systems are read sequentially. This cannot be used with 'read.only.header', " +
+                                "'read.only.trailer' or 'skip.trailer'.",
+                        optional = true,
+                        type = {DataType.INT},
+                        defaultValue = "1"
+                ),
+                @Parameter(
+                        name = "tailing.parallelism",
+                        description = "The number of workers shared by all the files tailed by the source. Each " +
+                                "tailed file keeps its own file pointer, and the workers take turns between the " +
+                                "files which have new content, reading a bounded number of lines of a file in a " +
+                                "turn, so that a fast growing file does not hold back the others. The lines of a " +
+                                "file are always delivered in order.",
+                        optional = true,
+                        type = {DataType.INT},
+                        defaultValue = "1"
+                ),
+                @Parameter(
+                        name = "dir.parallelism",
+                        description = "The number of files of the 'dir.uri' which are read and moved or deleted " +
+                                "at once, when tailing is disabled. Each file is read by a single worker, hence " +
+                                "the events of a file are always delivered in order, while the events of different " +
+                                "files are interleaved unless 'dir.parallelism.ordered' is 'true'. The source " +
+                                "continues with the next poll of the directory once all the files of a poll are " +
+                                "processed.",
+                        optional = true,
+                        type = {DataType.INT},
+                        defaultValue = "1"
+                ),
+                @Parameter(
+                        name = "dir.parallelism.ordered",
+                        description = "If this parameter is set to 'true', the events of the files read in parallel " +
+                                "are held until those of the files listed before them are delivered, so that the " +
+                                "events are delivered file by file in the order of the files, as in the sequential " +
+                                "read. The events of a file are still delivered before it is moved or deleted.",
+                        optional = true,
+                        type = {DataType.BOOL},
+                        defaultValue = "false"
+                ),
+                @Parameter(
+                        name = "dir.parallelism.max.bytes",
+                        description = "The maximum total size in bytes of the files which are processed at once " +
+                                "when 'dir.parallelism' is greater than 1, which also bounds the memory taken to " +
+                                "hold the events of the files when 'dir.parallelism.ordered' is 'true'. A file " +
+                                "larger than this is processed alone. If this is set to '-1', only the number of " +
+                                "files is bounded.",
+                        optional = true,
+                        type = {DataType.LONG},
+                        defaultValue = "-1"
+                ),
+                @Parameter(
+                        name = "start.position",
+                        description = "The position to start tailing a file from, if the file has not been tailed " +
+                                "before, i.e. there is no file pointer for it in a restored snapshot or the " +
+                                "'tailing.checkpoint.file'. This applies only to the files found when the source " +
+                                "starts tailing for the first time, while the files created later, such as the new " +
+                                "files of a rotated log, are always tailed from their beginning. The possible values " +
+                                "are, 'beginning' to tail the file from its beginning, 'end' to tail only the lines " +
+                                "appended to the file, 'last:<N>' to tail the file from its last N lines, and a " +
+                                "byte offset to tail the file from.",
+                        optional = true,
+                        type = {DataType.STRING},
+                        defaultValue = "beginning"
+                ),
+                @Parameter(
+                        name = "start.timestamp",
+                        description = "The timestamp of the first line to be read from a time ordered file, in the " +
+                                "'timestamp.format'. The first line whose timestamp is not before this timestamp is " +
+                                "found by a binary search over the byte offsets of the file, and the file is read " +
+                                "from that line. This is applicable only in 'line' mode, to the files which are " +
+                                "tailed as per 'start.position', and to the uncompressed local files which are read " +
+                                "without tailing. This cannot be provided together with 'start.position'.",
+                        optional = true,
+                        type = {DataType.STRING},
+                        defaultValue = "<empty_string>"
+                ),
+                @Parameter(
+                        name = "timestamp.regex",
+                        description = "The regex to find the timestamp of a line, when 'start.timestamp' is " +
+                                "provided. If the regex has groups, the first group is taken as the timestamp. The " +
+                                "lines without a timestamp are skipped when searching the file.",
+                        optional = true,
+                        type = {DataType.STRING},
+                        defaultValue = "^(\\d{4}-\\d{2}-\\d{2}[ T]\\d{2}:\\d{2}:\\d{2})"
+                ),
+                @Parameter(
+                        name = "timestamp.format",
+                        description = "The format of the timestamps of the lines and the 'start.timestamp', as a " +
+                                "pattern of java.time.format.DateTimeFormatter. The timestamps without a time zone " +
+                                "are taken to be in the time zone of the system.",
+                        optional = true,
+                        type = {DataType.STRING},
+                        defaultValue = "yyyy-MM-dd HH:mm:ss"
+                ),
+                @Parameter(
+                        name = "start.line",
+                        description = "The one based number of the first line to be read from the files which are " +
+                                "not tailed, counting the empty lines too. This is applicable only in 'line' mode, " +
+                                "to the uncompressed local files which are read by the native reader or in " +
+                                "parallel. The line is found through the line offset index if 'line.index.enabled' " +
+                                "is 'true', or by reading the lines before it otherwise. This cannot be provided " +
+                                "together with 'start.timestamp' or 'header.present'.",
+                        optional = true,
+                        type = {DataType.LONG},
+                        defaultValue = "1"
+                ),
+                @Parameter(
+                        name = "line.index.enabled",
+                        description = "If this parameter is set to 'true', a sparse index of the byte offsets of " +
+                                "the lines is persisted for each file which is not tailed, so that the later reads " +
+                                "of the file find the 'start.line' and split the file into the ranges of " +
+                                "'read.parallelism' without reading the file again. The index is reused while the " +
+                                "file is unchanged, grown when the file is appended, and built again when the file " +
+                                "is otherwise modified. This is applicable only in 'line' mode, to the uncompressed " +
+                                "local files which are read by the native reader or in parallel, and hence is " +
+                                "useful for files which are kept after being read.",
+                        optional = true,
+                        type = {DataType.BOOL},
+                        defaultValue = "false"
+                ),
+                @Parameter(
+                        name = "line.index.interval",
+                        description = "The number of lines between the lines whose offsets are held in the line " +
+                                "offset index. A smaller interval finds a line by reading less lines, while taking " +
+                                "more memory and disk space for the index.",
+                        optional = true,
+                        type = {DataType.INT},
+                        defaultValue = "1000"
+                ),
+                @Parameter(
+                        name = "line.index.dir",
+                        description = "The local directory in which the line offset index files are kept. If this " +
+                                "is not provided, the index of a file is kept next to it in a hidden file with the " +
+                                "'.lineidx' extension. This should be provided when 'dir.uri' is used, so that the " +
+                                "index files are not read as the files of the directory.",
+                        optional = true,
+                        type = {DataType.STRING},
+                        defaultValue = "<empty_string>"
+                ),
+                @Parameter(
+                        name = "processed.file.registry.size",
+                        description = "The number of processed files of the 'dir.uri' which are remembered, so " +
+                                "that they are not processed again while they are kept in the directory. Once " +
+                                "more files are processed, the files processed first are forgotten, and hence " +
+                                "processed again if they are still in the directory. This should be larger than " +
+                                "the number of files kept in the directory. If this is set to '-1', all the " +
+                                "processed files are remembered.",
+                        optional = true,
+                        type = {DataType.INT},
+                        defaultValue = "-1"
+                ),
+                @Parameter(
+                        name = "processed.file.watermark",
+                        description = "If this parameter is set to 'true', only the greatest name of the processed " +
+                                "files of each directory of the 'dir.uri' is remembered, and the files whose names " +
+                                "are not greater than it are not processed. As the files are processed in the " +
+                                "ascending order of their names, this is applicable when the files are named in " +
+                                "the order of their arrival, such as with a timestamp, and only if tailing is " +
+                                "disabled.",
+                        optional = true,
+                        type = {DataType.BOOL},
+                        defaultValue = "false"
+                ),
+                @Parameter(
+                        name = "tailing.checkpoint.file",
+                        description = "Path of a local file to checkpoint the file pointers of the tailed files " +
+                                "to. If this parameter is provided, tailing continues from the checkpointed file " +
+                                "pointers when the Siddhi app is restarted, without depending on the persistence of " +
+                                "the Siddhi app. The checkpointed file pointers also take precedence over those of " +
+                                "a restored snapshot. This parameter is applicable only if tailing is enabled.",
+                        optional = true,
+                        type = {DataType.STRING},
+                        defaultValue = "<empty_string>"
+                ),
+                @Parameter(
+                        name = "tailing.checkpoint.interval",
+                        description = "The interval in milliseconds at which the file pointers are checkpointed " +
+                                "to the 'tailing.checkpoint.file'.",
+                        optional = true,
+                        type = {DataType.LONG},
+                        defaultValue = "1000"
+                ),
+                @Parameter(
+                        name = "tailing.checkpoint.event.count",
+                        description = "The number of tailed lines after which the file pointers are checkpointed " +
+                                "to the 'tailing.checkpoint.file', in addition to the checkpoints taken on the " +
+                                "'tailing.checkpoint.interval'. If this is set to '-1', the file pointers are only " +
+                                "checkpointed on the interval.",
+                        optional = true,
+                        type = {DataType.INT},
+                        defaultValue = "-1"
+                ),
+                @Parameter(
+                        name = "read.parallelism.ordered",
+                        description = "This parameter is applicable only if 'read.parallelism' is greater than 1. " +
+                                "If this parameter is set to 'true', the lines are delivered in the order they " +
+                                "appear in the file. If it is set to 'false', the lines are delivered as soon as " +
+                                "they are read, in any order.",
+                        optional = true,
+                        type = {DataType.BOOL},
+                        defaultValue = "true"
+                ),
+                @Parameter(
+                        name = "native.reader.enabled",
+                        description = "If this parameter is set to 'true', files in the local file system which " +
+                                "are not tailed are read directly through memory mapped windows of the file, and " +
+                                "the content is split into events without being copied into intermediate " +
+                                "messages. Files in other file systems, and files with the '.bin' extension read " +
+                                "in 'line' mode, are always read through the VFS client. Tailed files in the " +
+                                "local file system are read as soon as they are modified, as notified by the " +
+                                "watch service of the file system, instead of being polled. If this parameter is " +
+                                "set to 'false', all the files are read through the VFS client and tailed files " +
+                                "are polled. This is enabled by default. The events read by the native reader, and " +
+                                "their transport properties such as 'trp:eof', are the same as those read through " +
+                                "the VFS client.",
+                        optional = true,
+                        type = {DataType.BOOL},
+                        defaultValue = "true"
+                ),
+                @Parameter(
+                        name = "compression",
+                        description = "Compression of the files read when tailing is disabled. The content of the " +
+                                "files is decompressed while it is read, hence compressed files do not have to be " +
+                                "extracted to disk before they are read. Accepted values are 'none', 'gzip', " +
+                                "'bzip2', 'xz', 'zstd' and 'auto'. If 'auto' is provided, the compression of each " +
+                                "file is detected from its extension ('.gz', '.bz2', '.xz' or '.zst') or else from " +
+                                "its leading bytes, and files which are not compressed are read as they are. " +
+                                "Reading 'xz' and 'zstd' files requires the 'org.tukaani:xz' and " +
+                                "'com.github.luben:zstd-jni' libraries respectively to be available at runtime.",
+                        optional = true,
+                        type = {DataType.STRING},
+                        defaultValue = "none"
+                ),
+                @Parameter(
+                        name = "max.record.length",
+                        description = "The maximum number of bytes of a record in 'line', 'regex' and 'delimited' " +
+                                "modes. In 'regex' mode the length is measured in decoded characters. Records " +
+                                "exceeding this length are handled according to 'oversized.record.policy'. When " +
+                                "a file is read by the native reader, the content of an oversized record is not " +
+                                "kept in memory while the rest of the record is read. If this is not greater than " +
+                                "0, the length of the records is not limited.",
+                        optional = true,
+                        type = {DataType.INT},
+                        defaultValue = "-1"
+                ),
+                @Parameter(
+                        name = "max.file.size.in.memory",
+                        description = "The maximum number of bytes of a file in 'text.full' and 'binary.full' " +
+                                "modes. The content of files exceeding this size is handled according to " +
+                                "'oversized.record.policy'. When a file is read by the native reader, the content " +
+                                "beyond this size is not kept in memory. If this is not greater than 0, the size " +
+                                "of the files is not limited.",
+                        optional = true,
+                        type = {DataType.LONG},
+                        defaultValue = "-1"
+                ),
+                @Parameter(
+                        name = "oversized.record.policy",
+                        description = "The action taken on records exceeding 'max.record.length' and on files " +
+                                "exceeding 'max.file.size.in.memory'. Accepted values are 'truncate', 'skip' and " +
+                                "'spill'.\n" +
+                                "truncate: The record is emitted with only its first 'max.record.length' bytes " +
+                                "(or the first 'max.file.size.in.memory' bytes of the file).\n" +
+                                "skip: The record is dropped, logged and counted as an error.\n" +
+                                "spill: The record is written to a temporary file instead of being emitted. The " +
+                                "record is logged with the path of the temporary file and counted as an error.",
+                        optional = true,
+                        type = {DataType.STRING},
+                        defaultValue = "skip"
+                ),
+                @Parameter(
+                        name = "chunk.pool.size",
+                        description = "This parameter is applicable only if the mode is 'binary.chunked' and " +
+                                "'batch.size' is greater than 1. The number of chunk arrays pooled and reused for " +
+                                "the chunks of files read by the native reader. The size of each chunk is given by " +
+                                "'buffer.size'. A chunk is returned to the pool once the batch holding it is passed " +
+                                "on to the mapper. Hence this should only be used with mappers which do not keep " +
+                                "the received arrays, such as mappers converting the chunks into attributes. When " +
+                                "all the chunks are in use a chunk is allocated outside the pool, which is reported " +
+                                "by the 'chunk_pool_exhausted_count' metric. If this is 0, a chunk is allocated " +
+                                "for every chunk read.",
+                        optional = true,
+                        type = {DataType.INT},
+                        defaultValue = "0"
+                ),
+                @Parameter(
+                        name = "batch.size",
+                        description = "The maximum number of events passed to the mapper at once. When it is " +
+                                "greater than 1, the payloads of consecutive events having the same transport " +
+                                "properties are passed to the mapper as a single array of payloads. Hence this " +
+                                "should only be used with mappers which accept arrays of payloads.",
+                        optional = true,
+                        type = {DataType.INT},
+                        defaultValue = "1"
+                ),
+                @Parameter(
+                        name = "batch.linger.ms",
+                        description = "This parameter is applicable only if 'batch.size' is greater than 1. The " +
+                                "maximum time in milliseconds an incomplete batch is held before it is passed to " +
+                                "the mapper. Incomplete batches are also passed on at the end of each file. If " +
+                                "this is set to 0, incomplete batches are only passed on at the end of each file, " +
+                                "hence it should be greater than 0 when tailing is enabled.",
+                        optional = true,
+                        type = {DataType.LONG},
+                        defaultValue = "100"
                 )
         },
         examples = {
@@ -412,7 +806,7 @@ public class FileSource extends Source<FileSource.FileSourceState> {
     private FileSourceConfiguration fileSourceConfiguration;
     private RemoteFileSystemConnectorFactory fileSystemConnectorFactory;
     private FileSourceServiceProvider fileSourceServiceProvider;
-    private String filePointer = "0";
+    private Map<String, Long> filePointerMap = new HashMap<>();
     private String[] requiredProperties;
     private boolean isTailingEnabled = true;
     private SiddhiAppContext siddhiAppContext;
@@ -425,15 +819,19 @@ public class FileSource extends Source<FileSource.FileSourceState> {
     private String tailing;
     private String beginRegex;
     private String endRegex;
+    private String beginDelimiter;
+    private String endDelimiter;
     private List<String> tailedFileURIMap;
     private String uri;
     private String dirUri;
     private String fileUri;
     private String dirPollingInterval;
     private String filePollingInterval;
+    private long minFilePollingInterval;
+    private long maxFilePollingInterval;
+    private int maxLinesPerPoll;
     private String fileReadWaitTimeout;
-    private long timeout = 5000;
-    private boolean fileServerConnectorStarted = false;
+    private boolean fileTailerStarted = false;
     private ScheduledFuture scheduledFuture;
     private FileSourcePoller fileSourcePoller;
     private ConnectionCallback connectionCallback;
@@ -446,6 +844,39 @@ public class FileSource extends Source<FileSource.FileSourceState> {
     private String fileSystemOptions;
     private String readOnlyTrailer;
     private String skipTrailer;
+    private int readParallelism;
+    private int tailingParallelism;
+    private int dirParallelism;
+    private boolean dirParallelismOrdered;
+    private long dirParallelismMaxBytes;
+    private String tailingCheckpointFile;
+    private long tailingCheckpointInterval;
+    private int tailingCheckpointEventCount;
+    private TailingCheckpointStore tailingCheckpointStore;
+    private ScheduledFuture<?> tailingCheckpointFuture;
+    private String startPosition;
+    private long tailingStartOffset;
+    private int tailingStartLines = -1;
+    private boolean startPositionFilesCollected;
+    private String startTimestamp;
+    private TimestampSeeker timestampSeeker;
+    private long startLine;
+    private boolean lineIndexEnabled;
+    private int lineIndexInterval;
+    private String lineIndexDir;
+    private int processedFileRegistrySize;
+    private boolean processedFileWatermark;
+    private ProcessedFileRegistry processedFileRegistry;
+    private boolean readInOrder;
+    private boolean nativeReaderEnabled;
+    private String compression;
+    private int maxRecordLength;
+    private long maxFileSizeInMemory;
+    private String oversizedRecordPolicy;
+    private int batchSize;
+    private int chunkPoolSize;
+    private ChunkPool chunkPool;
+    private long batchLingerTime;
 
     @Override
     protected ServiceDeploymentInfo exposeServiceDeploymentInfo() {
@@ -522,7 +953,8 @@ public class FileSource extends Source<FileSource.FileSourceState> {
         });
 
         if (Constants.TEXT_FULL.equalsIgnoreCase(mode) || Constants.BINARY_FULL.equalsIgnoreCase(mode) ||
-                Constants.BINARY_CHUNKED.equalsIgnoreCase(mode)) {
+                Constants.BINARY_CHUNKED.equalsIgnoreCase(mode) || Constants.DELIMITED.equalsIgnoreCase(mode) ||
+                Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
             tailing = optionHolder.validateAndGetStaticValue(Constants.TAILING, Constants.FALSE);
         } else {
             tailing = optionHolder.validateAndGetStaticValue(Constants.TAILING, Constants.TRUE);
@@ -575,20 +1007,163 @@ public class FileSource extends Source<FileSource.FileSourceState> {
                 "1000");
         filePollingInterval = optionHolder.validateAndGetStaticValue(Constants.FILE_POLLING_INTERVAL,
                 "1000");
+        String minFilePollingIntervalValue = optionHolder.validateAndGetStaticValue(
+                Constants.MIN_FILE_POLLING_INTERVAL, filePollingInterval);
+        String maxFilePollingIntervalValue = optionHolder.validateAndGetStaticValue(
+                Constants.MAX_FILE_POLLING_INTERVAL, filePollingInterval);
+        String maxLinesPerPollValue = optionHolder.validateAndGetStaticValue(Constants.MAX_LINES_PER_POLL_IN_TAILING,
+                Constants.UNLIMITED_LINES_PER_POLL);
+        try {
+            Long.parseLong(filePollingInterval);
+            minFilePollingInterval = Long.parseLong(minFilePollingIntervalValue);
+            maxFilePollingInterval = Long.parseLong(maxFilePollingIntervalValue);
+            maxLinesPerPoll = Integer.parseInt(maxLinesPerPollValue);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Values provided for file.polling.interval, " + filePollingInterval +
+                    ", min.file.polling.interval, " + minFilePollingIntervalValue + ", max.file.polling.interval, " +
+                    maxFilePollingIntervalValue + " and max.lines.per.poll, " + maxLinesPerPollValue +
+                    " should be numeric.", e);
+        }
 
+        /* the timeout is ignored, yet it is still checked to be numeric as it was before */
         String timeoutValue = optionHolder.validateAndGetStaticValue(Constants.TIMEOUT, "5000");
         try {
-            timeout = Long.parseLong(timeoutValue);
+            Long.parseLong(timeoutValue);
         } catch (NumberFormatException e) {
             throw new SiddhiAppRuntimeException("Value provided for timeout, " + timeoutValue + " is invalid.", e);
         }
         beginRegex = optionHolder.validateAndGetStaticValue(Constants.BEGIN_REGEX, null);
         endRegex = optionHolder.validateAndGetStaticValue(Constants.END_REGEX, null);
+        beginDelimiter = optionHolder.validateAndGetStaticValue(Constants.BEGIN_DELIMITER, null);
+        endDelimiter = optionHolder.validateAndGetStaticValue(Constants.END_DELIMITER, null);
         fileReadWaitTimeout = optionHolder.validateAndGetStaticValue(Constants.FILE_READ_WAIT_TIMEOUT, "1000");
         headerPresent = optionHolder.validateAndGetStaticValue(Constants.HEADER_PRESENT, "false");
         bufferSizeInBinaryChunked = optionHolder.validateAndGetStaticValue(Constants.BUFFER_SIZE_IN_BINARY_CHUNKED,
                 "65536");
         fileNamePattern = optionHolder.validateAndGetStaticValue(Constants.FILE_NAME_PATTERN, null);
+        String readParallelismValue = optionHolder.validateAndGetStaticValue(Constants.READ_PARALLELISM, "1");
+        try {
+            readParallelism = Integer.parseInt(readParallelismValue);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Value provided for read.parallelism, " + readParallelismValue +
+                    " is invalid.", e);
+        }
+        String tailingParallelismValue = optionHolder.validateAndGetStaticValue(Constants.TAILING_PARALLELISM, "1");
+        try {
+            tailingParallelism = Integer.parseInt(tailingParallelismValue);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Value provided for tailing.parallelism, " +
+                    tailingParallelismValue + " is invalid.", e);
+        }
+        String dirParallelismValue = optionHolder.validateAndGetStaticValue(Constants.DIR_PARALLELISM, "1");
+        String dirParallelismMaxBytesValue = optionHolder.validateAndGetStaticValue(
+                Constants.DIR_PARALLELISM_MAX_BYTES, "-1");
+        try {
+            dirParallelism = Integer.parseInt(dirParallelismValue);
+            dirParallelismMaxBytes = Long.parseLong(dirParallelismMaxBytesValue);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Values provided for dir.parallelism, " + dirParallelismValue +
+                    " and dir.parallelism.max.bytes, " + dirParallelismMaxBytesValue + " should be numeric.", e);
+        }
+        dirParallelismOrdered = Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(
+                Constants.DIR_PARALLELISM_ORDERED, Constants.FALSE));
+        startPosition = optionHolder.validateAndGetStaticValue(Constants.START_POSITION_IN_TAILING,
+                Constants.BEGINNING).toLowerCase(Locale.ENGLISH);
+        try {
+            if (Constants.END.equals(startPosition)) {
+                tailingStartLines = 0;
+            } else if (startPosition.startsWith(Constants.LAST_LINES_PREFIX)) {
+                tailingStartLines = Integer.parseInt(startPosition.substring(Constants.LAST_LINES_PREFIX.length()));
+            } else if (!Constants.BEGINNING.equals(startPosition)) {
+                tailingStartOffset = Long.parseLong(startPosition);
+            }
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Value provided for start.position, " + startPosition +
+                    " is invalid.", e);
+        }
+        startTimestamp = optionHolder.validateAndGetStaticValue(Constants.START_TIMESTAMP, null);
+        String timestampRegex = optionHolder.validateAndGetStaticValue(Constants.TIMESTAMP_REGEX,
+                Constants.DEFAULT_TIMESTAMP_REGEX);
+        String timestampFormat = optionHolder.validateAndGetStaticValue(Constants.TIMESTAMP_FORMAT,
+                Constants.DEFAULT_TIMESTAMP_FORMAT);
+        if (startTimestamp != null) {
+            try {
+                timestampSeeker = new TimestampSeeker(timestampRegex, timestampFormat, startTimestamp);
+            } catch (IllegalArgumentException e) {
+                throw new SiddhiAppCreationException("Values provided for start.timestamp, " + startTimestamp +
+                        ", timestamp.regex, " + timestampRegex + " and timestamp.format, " + timestampFormat +
+                        " are invalid.", e);
+            }
+        }
+        String startLineValue = optionHolder.validateAndGetStaticValue(Constants.START_LINE, "1");
+        String lineIndexIntervalValue = optionHolder.validateAndGetStaticValue(Constants.LINE_INDEX_INTERVAL,
+                "1000");
+        try {
+            startLine = Long.parseLong(startLineValue);
+            lineIndexInterval = Integer.parseInt(lineIndexIntervalValue);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Values provided for start.line, " + startLineValue +
+                    " and line.index.interval, " + lineIndexIntervalValue + " should be numeric.", e);
+        }
+        lineIndexEnabled = Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(Constants.LINE_INDEX_ENABLED,
+                Constants.FALSE));
+        lineIndexDir = optionHolder.validateAndGetStaticValue(Constants.LINE_INDEX_DIR, null);
+        String processedFileRegistrySizeValue = optionHolder.validateAndGetStaticValue(
+                Constants.PROCESSED_FILE_REGISTRY_SIZE, "-1");
+        try {
+            processedFileRegistrySize = Integer.parseInt(processedFileRegistrySizeValue);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Value provided for processed.file.registry.size, " +
+                    processedFileRegistrySizeValue + " is invalid.", e);
+        }
+        processedFileWatermark = Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(
+                Constants.PROCESSED_FILE_WATERMARK, Constants.FALSE));
+        tailingCheckpointFile = optionHolder.validateAndGetStaticValue(Constants.TAILING_CHECKPOINT_FILE, null);
+        String tailingCheckpointIntervalValue = optionHolder.validateAndGetStaticValue(
+                Constants.TAILING_CHECKPOINT_INTERVAL, "1000");
+        String tailingCheckpointEventCountValue = optionHolder.validateAndGetStaticValue(
+                Constants.TAILING_CHECKPOINT_EVENT_COUNT, "-1");
+        try {
+            tailingCheckpointInterval = Long.parseLong(tailingCheckpointIntervalValue);
+            tailingCheckpointEventCount = Integer.parseInt(tailingCheckpointEventCountValue);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Values provided for tailing.checkpoint.interval, " +
+                    tailingCheckpointIntervalValue + " and tailing.checkpoint.event.count, " +
+                    tailingCheckpointEventCountValue + " should be numeric.", e);
+        }
+        readInOrder = Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(Constants.READ_PARALLELISM_ORDERED,
+                Constants.TRUE));
+        nativeReaderEnabled = Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(
+                Constants.NATIVE_READER_ENABLED, Constants.TRUE));
+        compression = optionHolder.validateAndGetStaticValue(Constants.COMPRESSION, Constants.NONE).toLowerCase();
+        String maxRecordLengthValue = optionHolder.validateAndGetStaticValue(Constants.MAX_RECORD_LENGTH, "-1");
+        String maxFileSizeInMemoryValue = optionHolder.validateAndGetStaticValue(Constants.MAX_FILE_SIZE_IN_MEMORY,
+                "-1");
+        try {
+            maxRecordLength = Integer.parseInt(maxRecordLengthValue);
+            maxFileSizeInMemory = Long.parseLong(maxFileSizeInMemoryValue);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Values provided for max.record.length, " + maxRecordLengthValue +
+                    " and max.file.size.in.memory, " + maxFileSizeInMemoryValue + " should be numeric.", e);
+        }
+        oversizedRecordPolicy = optionHolder.validateAndGetStaticValue(Constants.OVERSIZED_RECORD_POLICY,
+                Constants.SKIP).toLowerCase();
+        String chunkPoolSizeValue = optionHolder.validateAndGetStaticValue(Constants.CHUNK_POOL_SIZE, "0");
+        try {
+            chunkPoolSize = Integer.parseInt(chunkPoolSizeValue);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Value provided for chunk.pool.size, " + chunkPoolSizeValue +
+                    " is invalid.", e);
+        }
+        String batchSizeValue = optionHolder.validateAndGetStaticValue(Constants.BATCH_SIZE, "1");
+        String batchLingerTimeValue = optionHolder.validateAndGetStaticValue(Constants.BATCH_LINGER_MS, "100");
+        try {
+            batchSize = Integer.parseInt(batchSizeValue);
+            batchLingerTime = Long.parseLong(batchLingerTimeValue);
+        } catch (NumberFormatException e) {
+            throw new SiddhiAppCreationException("Values provided for batch.size, " + batchSizeValue +
+                    " and batch.linger.ms, " + batchLingerTimeValue + " should be numeric.", e);
+        }
 
         if (optionHolder.isOptionExists(Constants.CRON_EXPRESSION)) {
             cronExpression = optionHolder.validateAndGetStaticValue(Constants.CRON_EXPRESSION, null);
@@ -599,9 +1174,28 @@ public class FileSource extends Source<FileSource.FileSourceState> {
             cronExpression = null;
         }
         validateParameters();
+        processedFileRegistry = new ProcessedFileRegistry(processedFileRegistrySize, processedFileWatermark);
+        if (tailingCheckpointFile != null) {
+            tailingCheckpointStore = new TailingCheckpointStore(Paths.get(tailingCheckpointFile),
+                    tailingCheckpointEventCount, fileSourceConfiguration::getFilePointerMap,
+                    siddhiAppContext.getExecutorService());
+            try {
+                filePointerMap = loadTailingCheckpoint(filePointerMap);
+            } catch (IOException e) {
+                throw new SiddhiAppCreationException("Failed to load the file pointers of the tailed files from '" +
+                        tailingCheckpointFile + "' in 'file' source of the siddhi app '" +
+                        siddhiAppContext.getName() + "'.", e);
+            }
+        }
+        chunkPool = chunkPoolSize > 0 ?
+                new ChunkPool(Integer.parseInt(bufferSizeInBinaryChunked), chunkPoolSize) : null;
+        if (batchSize > 1) {
+            this.sourceEventListener = new BatchingEventListener(sourceEventListener, batchSize, batchLingerTime,
+                    siddhiAppContext.getScheduledExecutorService(), chunkPool);
+        }
         createInitialSourceConf();
         updateSourceConf();
-        getPattern();
+        compileBeginAndEndPatterns();
         if (MetricsDataHolder.getInstance().getMetricService() != null &&
                 MetricsDataHolder.getInstance().getMetricManagementService().isEnabled()) {
             try {
@@ -609,6 +1203,9 @@ public class FileSource extends Source<FileSource.FileSourceState> {
                         Constants.PROMETHEUS_REPORTER_NAME)) {
                     metrics = new SourceMetrics(siddhiAppContext.getName(), Utils.capitalizeFirstLetter(mode),
                             sourceEventListener.getStreamDefinition().getId());
+                    if (chunkPool != null) {
+                        chunkPool.setMetrics(metrics);
+                    }
                 }
             } catch (IllegalArgumentException e) {
                 log.debug("Prometheus reporter is not running. Hence file metrics will not be initialized.");
@@ -636,21 +1233,37 @@ public class FileSource extends Source<FileSource.FileSourceState> {
     @Override
     public void disconnect() {
         try {
-            if (isTailingEnabled && fileSourceConfiguration.getFileServerConnector() != null) {
-                fileSourceConfiguration.getFileServerConnector().stop();
-                fileSourceConfiguration.setFileServerConnector(null);
+            fileSourceConfiguration.getFileTailers().values().forEach(FileTailer::close);
+            fileSourceConfiguration.getFileTailers().clear();
+            this.fileTailerStarted = false;
+            if (tailingCheckpointStore != null) {
+                if (tailingCheckpointFuture != null) {
+                    tailingCheckpointFuture.cancel(false);
+                    tailingCheckpointFuture = null;
+                }
+                tailingCheckpointStore.flush();
+                /* the source continues from the checkpointed file pointers when it is connected again */
+                filePointerMap = new HashMap<>(fileSourceConfiguration.getFilePointerMap());
+            }
+            FileTailerPool fileTailerPool = fileSourceConfiguration.getFileTailerPool();
+            if (fileTailerPool != null) {
+                fileTailerPool.shutdown();
+                fileSourceConfiguration.setFileTailerPool(null);
             }
             ExecutorService executorService = fileSourceConfiguration.getExecutorService();
             if (executorService != null && !executorService.isShutdown()) {
                 executorService.shutdown();
             }
+            ForkJoinPool readerPool = fileSourceConfiguration.getReaderPool();
+            if (readerPool != null) {
+                readerPool.shutdownNow();
+                fileSourceConfiguration.setReaderPool(null);
+            }
             Scheduler scheduler = fileSourceConfiguration.getScheduler();
             if (scheduler != null) {
                 scheduler.deleteJob(new JobKey(Constants.JOB_NAME, Constants.JOB_GROUP));
             }
-        } catch (ServerConnectorException e) {
-            throw new SiddhiAppRuntimeException("Failed to stop the file server when shutting down the siddhi app '" +
-                    siddhiAppContext.getName() + "' due to " + e.getMessage(), e);
+            BatchingEventListener.flush(sourceEventListener);
         } catch (SchedulerException e) {
             throw new SiddhiAppRuntimeException("Failed to delete the cron job of the siddhi app '" +
                     siddhiAppContext.getName() + "' due to " + e.getMessage(), e);
@@ -661,17 +1274,9 @@ public class FileSource extends Source<FileSource.FileSourceState> {
     }
 
     public void pause() {
-        try {
-            if (isTailingEnabled && fileSourceConfiguration.getFileServerConnector() != null) {
-                fileSourceConfiguration.getFileServerConnector().stop();
-                this.fileServerConnectorStarted = false;
-            }
-            if (dirUri != null && scheduledFuture != null) {
-                scheduledFuture.cancel(true);
-            }
-        } catch (ServerConnectorException e) {
-            throw new SiddhiAppRuntimeException("Failed to stop the file server when pausing the siddhi app '" +
-                    siddhiAppContext.getName() + "'.", e);
+        fileSourceConfiguration.getFileTailers().values().forEach(FileTailer::stop);
+        if (dirUri != null && scheduledFuture != null) {
+            scheduledFuture.cancel(true);
         }
     }
 
@@ -680,34 +1285,25 @@ public class FileSource extends Source<FileSource.FileSourceState> {
             this.scheduledFuture = siddhiAppContext.getScheduledExecutorService().
                     scheduleAtFixedRate(fileSourcePoller, 0, 1, TimeUnit.SECONDS);
         }
-        if (isTailingEnabled && fileSourceConfiguration.getFileServerConnector() != null) {
-            FileServerConnector fileServerConnector = fileSourceConfiguration.getFileServerConnector();
-            Runnable runnableServer = () -> {
-                try {
-                    fileServerConnector.start();
-                } catch (ServerConnectorException e) {
-                    log.error(String.format("For the siddhi app '" + siddhiAppContext.getName() +
-                            ",' failed to resume the server for file '%s'." +
-                            "Hence starting to process next file.", fileUri));
-                }
-            };
-            fileSourceConfiguration.getExecutorService().execute(runnableServer);
-            this.fileServerConnectorStarted = true;
-        }
+        fileSourceConfiguration.getFileTailers().values().forEach(FileTailer::start);
     }
 
     private void createInitialSourceConf() {
         fileSourceConfiguration.setUri(uri);
         fileSourceConfiguration.setBeginRegex(beginRegex);
         fileSourceConfiguration.setEndRegex(endRegex);
+        fileSourceConfiguration.setBeginDelimiter(beginDelimiter);
+        fileSourceConfiguration.setEndDelimiter(endDelimiter);
         fileSourceConfiguration.setMode(mode);
         fileSourceConfiguration.setTailingEnabled(Boolean.parseBoolean(tailing));
         fileSourceConfiguration.setFilePollingInterval(filePollingInterval);
+        fileSourceConfiguration.setMinFilePollingInterval(minFilePollingInterval);
+        fileSourceConfiguration.setMaxFilePollingInterval(maxFilePollingInterval);
+        fileSourceConfiguration.setMaxLinesPerPoll(maxLinesPerPoll);
         fileSourceConfiguration.setRequiredProperties(requiredProperties);
         fileSourceConfiguration.setActionAfterProcess(actionAfterProcess);
         fileSourceConfiguration.setActionAfterFailure(actionAfterFailure);
         fileSourceConfiguration.setMoveAfterProcess(moveAfterProcess);
-        fileSourceConfiguration.setTimeout(timeout);
         fileSourceConfiguration.setFileReadWaitTimeout(fileReadWaitTimeout);
         fileSourceConfiguration.setHeaderPresent(headerPresent);
         fileSourceConfiguration.setReadOnlyHeader(readOnlyHeader);
@@ -716,11 +1312,73 @@ public class FileSource extends Source<FileSource.FileSourceState> {
         fileSourceConfiguration.setBufferSize(bufferSizeInBinaryChunked);
         fileSourceConfiguration.setCronExpression(cronExpression);
         fileSourceConfiguration.setMoveIfExistMode(moveIfExistMode);
+        fileSourceConfiguration.setReadParallelism(readParallelism);
+        fileSourceConfiguration.setTailingParallelism(tailingParallelism);
+        fileSourceConfiguration.setDirParallelism(dirParallelism);
+        fileSourceConfiguration.setDirParallelismOrdered(dirParallelismOrdered);
+        fileSourceConfiguration.setDirParallelismMaxBytes(dirParallelismMaxBytes);
+        fileSourceConfiguration.setTailingStartOffset(tailingStartOffset);
+        fileSourceConfiguration.setTailingStartLines(tailingStartLines);
+        fileSourceConfiguration.setTimestampSeeker(timestampSeeker);
+        fileSourceConfiguration.setStartLine(startLine);
+        fileSourceConfiguration.setLineIndexEnabled(lineIndexEnabled);
+        fileSourceConfiguration.setLineIndexInterval(lineIndexInterval);
+        if (lineIndexDir != null) {
+            fileSourceConfiguration.setLineIndexDirectory(Paths.get(lineIndexDir));
+        }
+        fileSourceConfiguration.setReadInOrder(readInOrder);
+        fileSourceConfiguration.setNativeReaderEnabled(nativeReaderEnabled);
+        fileSourceConfiguration.setCompression(compression);
+        fileSourceConfiguration.setChunkPool(chunkPool);
+        fileSourceConfiguration.setMaxRecordLength(maxRecordLength);
+        fileSourceConfiguration.setMaxFileSizeInMemory(maxFileSizeInMemory);
+        fileSourceConfiguration.setOversizedRecordPolicy(oversizedRecordPolicy);
+        fileSourceConfiguration.setFileSystemOptions(fileSystemOptions);
+        fileSourceConfiguration.setProcessedFileRegistry(processedFileRegistry);
     }
 
     private void updateSourceConf() {
-        fileSourceConfiguration.setFilePointer(filePointer);
+        fileSourceConfiguration.setFilePointerMap(filePointerMap);
         fileSourceConfiguration.setTailedFileURIMap(tailedFileURIMap);
+        fileSourceConfiguration.setTailingCheckpointStore(tailingCheckpointStore);
+    }
+
+    /**
+     * Notes the files to be tailed from the start position, which are the files found when the source starts tailing
+     * for the first time. The files created later, as on rotations, are tailed from their beginning.
+     */
+    private void collectStartPositionFiles() throws ConnectionUnavailableException {
+        if (!isTailingEnabled || startPositionFilesCollected ||
+                (Constants.BEGINNING.equals(startPosition) && timestampSeeker == null)) {
+            return;
+        }
+        if (dirUri != null) {
+            FileObject listeningFileObject = Utils.getFileObject(dirUri, fileSystemOptions);
+            try {
+                for (FileObject fileObject : listeningFileObject.getChildren()) {
+                    fileSourceConfiguration.getStartPositionFileURIs().add(fileObject.getName().getURI());
+                }
+            } catch (FileSystemException e) {
+                throw new ConnectionUnavailableException("Failed to list the files of directory '" + dirUri +
+                        "' to tail them from the start position.", e);
+            }
+        } else {
+            fileSourceConfiguration.getStartPositionFileURIs().add(fileUri);
+        }
+        startPositionFilesCollected = true;
+    }
+
+    /**
+     * Overrides the given file pointers with those of the tailing checkpoint file.
+     *
+     * @param filePointerMap file pointers of the source
+     * @return the file pointers with the checkpointed file pointers
+     * @throws IOException if the tailing checkpoint file cannot be read
+     */
+    private Map<String, Long> loadTailingCheckpoint(Map<String, Long> filePointerMap) throws IOException {
+        Map<String, Long> checkpointedFilePointerMap = new HashMap<>(filePointerMap);
+        checkpointedFilePointerMap.putAll(tailingCheckpointStore.load());
+        return checkpointedFilePointerMap;
     }
 
     private Map<String, String> getFileSystemServerProperties() {
@@ -738,13 +1396,13 @@ public class FileSource extends Source<FileSource.FileSourceState> {
         map.put(Constants.FILE_SORT_ATTRIBUTE, Constants.NAME);
         map.put(Constants.FILE_SORT_ASCENDING, Constants.TRUE.toUpperCase(Locale.ENGLISH));
         map.put(Constants.CREATE_MOVE_DIR, Constants.TRUE.toUpperCase(Locale.ENGLISH));
-        map.put(Constants.ACK_TIME_OUT, "5000");
         map.put(Constants.FILE_READ_WAIT_TIMEOUT_KEY, fileReadWaitTimeout);
         map.put(Constants.BUFFER_SIZE_IN_BINARY_CHUNKED, bufferSizeInBinaryChunked);
         map.put(Constants.CRON_EXPRESSION, cronExpression);
         map.put(Constants.FILE_NAME_PATTERN_PROPERTY_NAME, fileNamePattern);
         if (Constants.BINARY_FULL.equalsIgnoreCase(mode) ||
-                Constants.TEXT_FULL.equalsIgnoreCase(mode) || Constants.BINARY_CHUNKED.equalsIgnoreCase(mode)) {
+                Constants.TEXT_FULL.equalsIgnoreCase(mode) || Constants.BINARY_CHUNKED.equalsIgnoreCase(mode) ||
+                Constants.DELIMITED.equalsIgnoreCase(mode) || Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
             map.put(Constants.READ_FILE_FROM_BEGINNING, Constants.TRUE.toUpperCase(Locale.ENGLISH));
         } else {
             map.put(Constants.READ_FILE_FROM_BEGINNING, Constants.FALSE.toUpperCase(Locale.ENGLISH));
@@ -760,14 +1418,16 @@ public class FileSource extends Source<FileSource.FileSourceState> {
 
     private void validateParameters() {
         if (Constants.TEXT_FULL.equalsIgnoreCase(mode) || Constants.BINARY_FULL.equalsIgnoreCase(mode) ||
-                Constants.BINARY_CHUNKED.equalsIgnoreCase(mode)) {
+                Constants.BINARY_CHUNKED.equalsIgnoreCase(mode) || Constants.DELIMITED.equalsIgnoreCase(mode) ||
+                Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
             if (isTailingEnabled) {
                 throw new SiddhiAppCreationException("In 'file' source of the siddhi app '" +
                         siddhiAppContext.getName() + "', tailing has been enabled by user or by default. " +
                         "But tailing can't be enabled in '" + mode + "' mode.");
             }
 
-            if (Constants.BINARY_FULL.equalsIgnoreCase(mode) || Constants.BINARY_CHUNKED.equalsIgnoreCase(mode)) {
+            if (Constants.BINARY_FULL.equalsIgnoreCase(mode) || Constants.BINARY_CHUNKED.equalsIgnoreCase(mode) ||
+                    Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
                 if (beginRegex != null && endRegex != null) {
                     throw new SiddhiAppCreationException("'begin.regex' and 'end.regex' can be only provided if the" +
                             " mode is 'regex'. But in 'file' source of the siddhi app '" +
@@ -776,6 +1436,181 @@ public class FileSource extends Source<FileSource.FileSourceState> {
             }
         }
 
+        if (Constants.DELIMITED.equalsIgnoreCase(mode)) {
+            if (beginDelimiter == null && endDelimiter == null) {
+                throw new SiddhiAppCreationException("Either 'begin.delimiter' or 'end.delimiter' should be provided " +
+                        "when the mode is 'delimited'. But none of them provided in 'file' source of the siddhi app '" +
+                        siddhiAppContext.getName() + "'.");
+            }
+            if (beginDelimiter != null && beginDelimiter.isEmpty() || endDelimiter != null && endDelimiter.isEmpty()) {
+                throw new SiddhiAppCreationException("'begin.delimiter' and 'end.delimiter' cannot be empty. But an " +
+                        "empty delimiter provided in 'file' source of the siddhi app '" +
+                        siddhiAppContext.getName() + "'.");
+            }
+        } else if (Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
+            if (beginDelimiter != null || endDelimiter != null && endDelimiter.isEmpty()) {
+                throw new SiddhiAppCreationException("Only a non empty 'end.delimiter' can be provided when the " +
+                        "mode is 'text.chunked'. But in 'file' source of the siddhi app '" +
+                        siddhiAppContext.getName() + "', provided 'begin.delimiter' is '" + beginDelimiter +
+                        "' and 'end.delimiter' is '" + endDelimiter + "'.");
+            }
+        } else if (beginDelimiter != null || endDelimiter != null) {
+            throw new SiddhiAppCreationException("'begin.delimiter' and 'end.delimiter' can be only provided if the" +
+                    " mode is 'delimited' or 'text.chunked'. But in 'file' source of the siddhi app '" +
+                    siddhiAppContext.getName() + "', provided mode is '" + mode + "'.");
+        }
+        if (Constants.BINARY_CHUNKED.equalsIgnoreCase(mode) || Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
+            int bufferSize;
+            try {
+                bufferSize = Integer.parseInt(bufferSizeInBinaryChunked);
+            } catch (NumberFormatException e) {
+                bufferSize = 0;
+            }
+            if (bufferSize < 1) {
+                throw new SiddhiAppCreationException("'buffer.size' should be a positive integer. But in 'file' " +
+                        "source of the siddhi app '" + siddhiAppContext.getName() + "', provided value is '" +
+                        bufferSizeInBinaryChunked + "'.");
+            }
+        }
+
+        if (readParallelism < 1) {
+            throw new SiddhiAppCreationException("'read.parallelism' should be a positive integer. But in 'file' " +
+                    "source of the siddhi app '" + siddhiAppContext.getName() + "', provided value is '" +
+                    readParallelism + "'.");
+        }
+        if (tailingParallelism < 1) {
+            throw new SiddhiAppCreationException("'tailing.parallelism' should be a positive integer. But in 'file' " +
+                    "source of the siddhi app '" + siddhiAppContext.getName() + "', provided value is '" +
+                    tailingParallelism + "'.");
+        }
+        if (dirParallelism < 1 || (dirParallelism > 1 && (dirUri == null || isTailingEnabled)) ||
+                dirParallelismMaxBytes == 0 || dirParallelismMaxBytes < -1) {
+            throw new SiddhiAppCreationException("'dir.parallelism' should be a positive integer, which can be " +
+                    "greater than 1 only if 'dir.uri' is provided and tailing is disabled, and " +
+                    "'dir.parallelism.max.bytes' should be positive or '-1'. But in 'file' source of the siddhi " +
+                    "app '" + siddhiAppContext.getName() + "', provided values are dir.parallelism '" +
+                    dirParallelism + "', dir.uri '" + dirUri + "', tailing '" + isTailingEnabled + "' and " +
+                    "dir.parallelism.max.bytes '" + dirParallelismMaxBytes + "'.");
+        }
+        if ((!Constants.BEGINNING.equals(startPosition) && !isTailingEnabled) || tailingStartOffset < 0 ||
+                tailingStartLines < -1) {
+            throw new SiddhiAppCreationException("'start.position' can be only provided if tailing is enabled, and " +
+                    "should be 'beginning', 'end', 'last:<number of lines>' or a byte offset. But in 'file' source " +
+                    "of the siddhi app '" + siddhiAppContext.getName() + "', provided values are tailing '" +
+                    isTailingEnabled + "' and '" + startPosition + "'.");
+        }
+        if (startTimestamp != null && (!Constants.LINE.equalsIgnoreCase(mode) ||
+                !Constants.BEGINNING.equals(startPosition) || Boolean.parseBoolean(headerPresent) ||
+                readParallelism > 1)) {
+            throw new SiddhiAppCreationException("'start.timestamp' can be only provided in 'line' mode, without " +
+                    "'start.position', 'header.present' or 'read.parallelism'. But in 'file' source of the siddhi " +
+                    "app '" + siddhiAppContext.getName() + "', provided values are mode '" + mode + "', " +
+                    "start.position '" + startPosition + "', header.present '" + headerPresent + "' and " +
+                    "read.parallelism '" + readParallelism + "'.");
+        }
+        if ((startLine != 1 || lineIndexEnabled) && (!Constants.LINE.equalsIgnoreCase(mode) || isTailingEnabled)) {
+            throw new SiddhiAppCreationException("'start.line' and 'line.index.enabled' can be only provided in " +
+                    "'line' mode, when tailing is disabled. But in 'file' source of the siddhi app '" +
+                    siddhiAppContext.getName() + "', provided values are mode '" + mode + "' and tailing '" +
+                    isTailingEnabled + "'.");
+        }
+        if (startLine < 1 || (startLine > 1 && (startTimestamp != null || Boolean.parseBoolean(headerPresent)))) {
+            throw new SiddhiAppCreationException("'start.line' should be a positive number, and cannot be " +
+                    "provided together with 'start.timestamp' or 'header.present'. But in 'file' source of the " +
+                    "siddhi app '" + siddhiAppContext.getName() + "', provided values are start.line '" + startLine +
+                    "', start.timestamp '" + startTimestamp + "' and header.present '" + headerPresent + "'.");
+        }
+        if (lineIndexEnabled && (lineIndexInterval < 1 || (dirUri != null && lineIndexDir == null))) {
+            throw new SiddhiAppCreationException("'line.index.interval' should be a positive integer, and " +
+                    "'line.index.dir' should be provided if 'dir.uri' is used. But in 'file' source of the siddhi " +
+                    "app '" + siddhiAppContext.getName() + "', provided values are line.index.interval '" +
+                    lineIndexInterval + "' and line.index.dir '" + lineIndexDir + "'.");
+        }
+        if (processedFileRegistrySize == 0 || processedFileRegistrySize < -1 ||
+                (processedFileWatermark && isTailingEnabled)) {
+            throw new SiddhiAppCreationException("'processed.file.registry.size' should be a positive integer or " +
+                    "'-1', and 'processed.file.watermark' can be only enabled if tailing is disabled. But in 'file' " +
+                    "source of the siddhi app '" + siddhiAppContext.getName() + "', provided values are " +
+                    "processed.file.registry.size '" + processedFileRegistrySize + "', processed.file.watermark '" +
+                    processedFileWatermark + "' and tailing '" + isTailingEnabled + "'.");
+        }
+        if (tailingCheckpointFile != null && (!isTailingEnabled || tailingCheckpointInterval < 1 ||
+                tailingCheckpointEventCount == 0 || tailingCheckpointEventCount < -1)) {
+            throw new SiddhiAppCreationException("'tailing.checkpoint.file' can be only provided if tailing is " +
+                    "enabled, with a positive 'tailing.checkpoint.interval' and a positive " +
+                    "'tailing.checkpoint.event.count' or '-1'. But in 'file' source of the siddhi app '" +
+                    siddhiAppContext.getName() + "', provided values are tailing '" + isTailingEnabled + "', '" +
+                    tailingCheckpointInterval + "' and '" + tailingCheckpointEventCount + "'.");
+        }
+        if (chunkPoolSize < 0 || (chunkPoolSize > 0 && !Constants.BINARY_CHUNKED.equalsIgnoreCase(mode))) {
+            throw new SiddhiAppCreationException("'chunk.pool.size' should not be negative and can be only " +
+                    "provided if the mode is 'binary.chunked'. But in 'file' source of the siddhi app '" +
+                    siddhiAppContext.getName() + "', provided mode is '" + mode + "' and 'chunk.pool.size' is '" +
+                    chunkPoolSize + "'.");
+        }
+        if (chunkPoolSize > 0 && batchSize < 2) {
+            /* the pooled chunks are only reused on the batching path, where a chunk is retained by the batch
+            holding it until the batch is passed on */
+            throw new SiddhiAppCreationException("'chunk.pool.size' can be only provided if 'batch.size' is greater " +
+                    "than 1. But in 'file' source of the siddhi app '" + siddhiAppContext.getName() +
+                    "', provided 'batch.size' is '" + batchSize + "'.");
+        }
+        if (minFilePollingInterval < 1 || minFilePollingInterval > maxFilePollingInterval) {
+            throw new SiddhiAppCreationException("'min.file.polling.interval' should be a positive integer which is " +
+                    "not greater than 'max.file.polling.interval'. But in 'file' source of the siddhi app '" +
+                    siddhiAppContext.getName() + "', provided values are '" + minFilePollingInterval + "' and '" +
+                    maxFilePollingInterval + "'.");
+        }
+        if (maxLinesPerPoll == 0 || maxLinesPerPoll < -1) {
+            throw new SiddhiAppCreationException("'max.lines.per.poll' should be a positive integer or '-1'. But in " +
+                    "'file' source of the siddhi app '" + siddhiAppContext.getName() + "', provided value is '" +
+                    maxLinesPerPoll + "'.");
+        }
+        if (batchSize < 1 || batchLingerTime < 0) {
+            throw new SiddhiAppCreationException("'batch.size' should be a positive integer and " +
+                    "'batch.linger.ms' should not be negative. But in 'file' source of the siddhi app '" +
+                    siddhiAppContext.getName() + "', provided values are '" + batchSize + "' and '" +
+                    batchLingerTime + "'.");
+        }
+        if (!Constants.TRUNCATE.equals(oversizedRecordPolicy) && !Constants.SKIP.equals(oversizedRecordPolicy) &&
+                !Constants.SPILL.equals(oversizedRecordPolicy)) {
+            throw new SiddhiAppCreationException("'oversized.record.policy' should be one of 'truncate', 'skip' or " +
+                    "'spill'. But in 'file' source of the siddhi app '" + siddhiAppContext.getName() + "', " +
+                    "provided value is '" + oversizedRecordPolicy + "'.");
+        }
+        if (!Constants.NONE.equals(compression)) {
+            if (!NativeFileReader.isSupportedCompression(compression)) {
+                throw new SiddhiAppCreationException("'compression' should be one of 'none', 'gzip', 'bzip2', " +
+                        "'xz', 'zstd' or 'auto'. But in 'file' source of the siddhi app '" +
+                        siddhiAppContext.getName() + "', provided value is '" + compression + "'.");
+            }
+            if (isTailingEnabled || readParallelism > 1) {
+                throw new SiddhiAppCreationException("'compression' can be only provided if tailing is disabled " +
+                        "and 'read.parallelism' is 1. But in 'file' source of the siddhi app '" +
+                        siddhiAppContext.getName() + "', tailing is '" + isTailingEnabled +
+                        "' and 'read.parallelism' is '" + readParallelism + "'.");
+            }
+            if (!NativeFileReader.isCompressionAvailable(compression)) {
+                throw new SiddhiAppCreationException("Libraries required to read '" + compression + "' " +
+                        "compressed files are not available. Hence stopping the siddhi app '" +
+                        siddhiAppContext.getName() + "'.");
+            }
+        }
+        if (readParallelism > 1) {
+            if (!Constants.LINE.equalsIgnoreCase(mode) || isTailingEnabled) {
+                throw new SiddhiAppCreationException("'read.parallelism' can be only greater than 1 if the mode is " +
+                        "'line' and tailing is disabled. But in 'file' source of the siddhi app '" +
+                        siddhiAppContext.getName() + "', provided mode is '" + mode + "' and tailing is '" +
+                        isTailingEnabled + "'.");
+            }
+            if (Boolean.parseBoolean(readOnlyHeader) || Boolean.parseBoolean(readOnlyTrailer) ||
+                    Boolean.parseBoolean(skipTrailer)) {
+                throw new SiddhiAppCreationException("'read.parallelism' cannot be greater than 1 when " +
+                        "'read.only.header', 'read.only.trailer' or 'skip.trailer' is 'true'. Hence stopping the " +
+                        "siddhi app '" + siddhiAppContext.getName() + "'.");
+            }
+        }
+
         if (isTailingEnabled && cronExpression != null) {
             throw new SiddhiAppCreationException("Tailing has been enabled by user or by default. " +
                     "'cron.expression' cannot be used when tailing is enabled. " +
@@ -827,6 +1662,20 @@ public class FileSource extends Source<FileSource.FileSourceState> {
         ExecutorService executorService = siddhiAppContext.getExecutorService();
         createInitialSourceConf();
         fileSourceConfiguration.setExecutorService(executorService);
+        if (readParallelism > 1 && (fileSourceConfiguration.getReaderPool() == null ||
+                fileSourceConfiguration.getReaderPool().isShutdown())) {
+            fileSourceConfiguration.setReaderPool(new ForkJoinPool(readParallelism));
+        }
+        if (isTailingEnabled && fileSourceConfiguration.getFileTailerPool() == null) {
+            fileSourceConfiguration.setFileTailerPool(new FileTailerPool(tailingParallelism, executorService,
+                    siddhiAppContext.getScheduledExecutorService()));
+        }
+        collectStartPositionFiles();
+        if (tailingCheckpointStore != null && tailingCheckpointFuture == null) {
+            tailingCheckpointFuture = siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(
+                    tailingCheckpointStore::flush, tailingCheckpointInterval, tailingCheckpointInterval,
+                    TimeUnit.MILLISECONDS);
+        }
         if (fileSourceConfiguration.getCronExpression() != null) {
             scheduleJob(fileSourceConfiguration, sourceEventListener, siddhiAppContext);
         } else {
@@ -859,10 +1708,10 @@ public class FileSource extends Source<FileSource.FileSourceState> {
                 } catch (RemoteFileSystemConnectorException e) {
                     throw new ConnectionUnavailableException("Connection to the file directory is lost.", e);
                 }
-            } else if (fileUri != null && !fileServerConnectorStarted) {
+            } else if (fileUri != null && !fileTailerStarted) {
                 Map<String, String> properties = new HashMap<>();
                 properties.put(Constants.ACTION, Constants.READ);
-                properties.put(Constants.MAX_LINES_PER_POLL, "10");
+                properties.put(Constants.MAX_LINES_PER_POLL, Constants.UNLIMITED_LINES_PER_POLL);
                 properties.put(Constants.POLLING_INTERVAL, filePollingInterval);
                 properties.put(Constants.HEADER_PRESENT, headerPresent);
                 properties.put(Constants.READ_ONLY_HEADER, readOnlyHeader);
@@ -877,39 +1726,24 @@ public class FileSource extends Source<FileSource.FileSourceState> {
                 if (moveAfterFailure != null) {
                     properties.put(Constants.MOVE_AFTER_FAILURE_KEY, moveAfterFailure);
                 }
+                fileSourceConfiguration.setCurrentlyReadingFileURI(fileUri);
                 if (metrics != null) {
-                    fileSourceConfiguration.setCurrentlyReadingFileURI(fileUri);
-                    metrics.setFilePath(fileUri);
                     metrics.getSourceFileStatusMap().putIfAbsent((Utils.getShortFilePath(fileUri)),
                             StreamStatus.CONNECTING);
-                    metrics.getStartedTimeMetric(System.currentTimeMillis());
+                    metrics.getStartedTimeMetric(fileUri, System.currentTimeMillis());
                 }
                 if (fileSourceConfiguration.isTailingEnabled()) {
                     if (fileSourceConfiguration.getTailedFileURIMap() == null) {
                         fileSourceConfiguration.setTailedFileURI(fileUri);
                     }
                     if (fileSourceConfiguration.getTailedFileURIMap().get(0).toString().equalsIgnoreCase(fileUri)) {
-                        properties.put(Constants.START_POSITION, fileSourceConfiguration.getFilePointer());
-                        properties.put(Constants.PATH, fileUri);
-                        FileServerConnectorProvider fileServerConnectorProvider =
-                                fileSourceServiceProvider.getFileServerConnectorProvider();
                         FileProcessor fileProcessor = new FileProcessor(sourceEventListener,
-                                fileSourceConfiguration, metrics);
-                        final ServerConnector fileServerConnector = fileServerConnectorProvider
-                                .createConnector("file-server-connector", properties);
-                        fileServerConnector.setMessageProcessor(fileProcessor);
-                        fileSourceConfiguration.setFileServerConnector((FileServerConnector) fileServerConnector);
-                        Runnable runnableServer = () -> {
-                            try {
-                                fileServerConnector.start();
-                            } catch (ServerConnectorException e) {
-                                log.error(String.format("For the siddhi app '" + siddhiAppContext.getName() +
-                                        ",' failed to start the server for file '%s'." +
-                                        "Hence starting to process next file.", fileUri));
-                            }
-                        };
-                        fileSourceConfiguration.getExecutorService().execute(runnableServer);
-                        this.fileServerConnectorStarted = true;
+                                fileSourceConfiguration, metrics, fileUri);
+                        FileTailer fileTailer = new FileTailer(fileUri, fileProcessor, fileSourceConfiguration,
+                                metrics);
+                        fileSourceConfiguration.getFileTailers().put(fileUri, fileTailer);
+                        fileTailer.start();
+                        this.fileTailerStarted = true;
                         if (metrics != null) {
                             metrics.getTailEnabledFilesMap().putIfAbsent(Utils.getShortFilePath(fileUri),
                                     System.currentTimeMillis());
@@ -917,8 +1751,7 @@ public class FileSource extends Source<FileSource.FileSourceState> {
                     }
                 } else {
                     properties.put(Constants.URI, fileUri);
-                    properties.put(Constants.ACK_TIME_OUT, "1000");
-                    properties.put(Constants.MODE, fileSourceConfiguration.getMode());
+                    properties.put(Constants.MODE, Util.getClientConnectorMode(fileSourceConfiguration.getMode()));
                     properties.put(Constants.HEADER_PRESENT, headerPresent);
                     properties.put(Constants.READ_ONLY_HEADER, readOnlyHeader);
                     properties.put(Constants.READ_ONLY_TRAILER, readOnlyTrailer);
@@ -930,44 +1763,35 @@ public class FileSource extends Source<FileSource.FileSourceState> {
                     try {
                         vfsClientConnector.init(null, null, schemeFileOptions);
                         FileProcessor fileProcessor = new FileProcessor(sourceEventListener, fileSourceConfiguration,
-                                metrics);
+                                metrics, fileUri);
                         vfsClientConnector.setMessageProcessor(fileProcessor);
                         VFSClientConnectorCallback vfsClientConnectorCallback = new VFSClientConnectorCallback();
+                        FilePostProcessor filePostProcessor = new FilePostProcessor(fileSourceConfiguration);
+                        Path localFilePath = readParallelism > 1 ? Utils.getLocalFilePath(fileUri) : null;
+                        boolean nativeRead = localFilePath == null &&
+                                NativeFileReader.canRead(fileSourceConfiguration, fileUri);
                         Runnable runnableClient = () -> {
                             try {
-                                vfsClientConnector.send(null, vfsClientConnectorCallback, properties);
-                                vfsClientConnectorCallback.waitTillDone(timeout, fileUri);
-                                if (actionAfterProcess != null) {
-                                    properties.put(Constants.URI, fileUri);
-                                    properties.put(Constants.ACTION, actionAfterProcess);
-                                    if (moveAfterProcess != null) {
-                                        properties.put(Constants.DESTINATION, moveAfterProcess);
-                                    }
+                                if (localFilePath != null) {
+                                    new ParallelLineReader(sourceEventListener, fileSourceConfiguration)
+                                            .read(localFilePath);
+                                } else if (nativeRead) {
+                                    new NativeFileReader(fileSourceConfiguration).read(fileUri, fileProcessor);
+                                } else {
+                                    /* the VFS client reads the file on this thread, before the file is moved */
                                     vfsClientConnector.send(null, vfsClientConnectorCallback, properties);
-                                    vfsClientConnectorCallback.waitTillDone(timeout, fileUri);
-                                    if (metrics != null) {
-                                        metrics.getSourceFileStatusMap().replace(Utils.getShortFilePath(fileUri),
-                                                StreamStatus.COMPLETED);
-                                        if (actionAfterProcess.equals(Constants.DELETE)) {
-                                            metrics.getFileDeleteMetrics().setSource(Utils.getShortFilePath(fileUri));
-                                            metrics.getFileDeleteMetrics().setTime(System.currentTimeMillis());
-                                            metrics.getFileDeleteMetrics().getDeleteMetric(1);
-                                        } else if (actionAfterProcess.equals(Constants.MOVE)) {
-                                            metrics.getFileMoveMetrics().setTime(System.currentTimeMillis());
-                                            metrics.getFileMoveMetrics().set_source(Utils.getShortFilePath(fileUri));
-                                            metrics.getFileMoveMetrics().setDestination(Utils.getShortFilePath(
-                                                    moveAfterProcess));
-                                            metrics.getFileMoveMetrics().getMoveMetric(1);
-                                        }
-                                        metrics.setReadPercentage(100, fileUri);
-                                        metrics.getCompletedTimeMetric(System.currentTimeMillis());
-                                    }
+                                    vfsClientConnectorCallback.checkRead(fileUri, fileSystemOptions);
                                 }
+                                postProcessFile(fileUri, filePostProcessor);
                             } catch (ClientConnectorException e) {
                                 log.error(String.format("Failure occurred in vfs-client while reading the file '%s' " +
                                         "through siddhi app '%s'.", fileUri, siddhiAppContext.getName()), e);
                             } catch (InterruptedException e) {
-                                log.error(String.format("Failed to get callback from vfs-client  for file '%s' " +
+                                Thread.currentThread().interrupt();
+                                log.error(String.format("Interrupted while reading the file '%s' " +
+                                        "through siddhi app '%s'.", fileUri, siddhiAppContext.getName()), e);
+                            } catch (IOException e) {
+                                log.error(String.format("Failure occurred while reading the file '%s' " +
                                         "through siddhi app '%s'.", fileUri, siddhiAppContext.getName()), e);
                             }
                         };
@@ -985,26 +1809,51 @@ public class FileSource extends Source<FileSource.FileSourceState> {
         }
     }
 
-    private void getPattern() {
+    /**
+     * Moves or deletes the file read, once it is read, through the {@link FilePostProcessor} which moves or deletes
+     * the files of the directories.
+     */
+    private void postProcessFile(String fileUri, FilePostProcessor filePostProcessor) {
+        CompletableFuture<Boolean> postProcessed;
+        if (Constants.DELETE.equalsIgnoreCase(actionAfterProcess)) {
+            postProcessed = filePostProcessor.delete(fileUri);
+        } else if (Constants.MOVE.equalsIgnoreCase(actionAfterProcess)) {
+            postProcessed = filePostProcessor.move(fileUri, moveAfterProcess);
+        } else {
+            postProcessed = CompletableFuture.completedFuture(true);
+        }
+        postProcessed.thenAccept(done -> {
+            if (metrics == null || !done) {
+                return;
+            }
+            metrics.getSourceFileStatusMap().replace(Utils.getShortFilePath(fileUri), StreamStatus.COMPLETED);
+            if (Constants.DELETE.equalsIgnoreCase(actionAfterProcess)) {
+                metrics.getFileDeleteMetrics().getDeleteMetric(Utils.getShortFilePath(fileUri),
+                        System.currentTimeMillis(), 1);
+            } else if (Constants.MOVE.equalsIgnoreCase(actionAfterProcess)) {
+                metrics.getFileMoveMetrics().getMoveMetric(Utils.getShortFilePath(fileUri),
+                        Utils.getShortFilePath(moveAfterProcess), System.currentTimeMillis(), 1);
+            }
+            metrics.setReadPercentage(100, fileUri);
+            metrics.getCompletedTimeMetric(fileUri, System.currentTimeMillis());
+        });
+    }
+
+    private void compileBeginAndEndPatterns() {
         String beginRegex = fileSourceConfiguration.getBeginRegex();
         String endRegex = fileSourceConfiguration.getEndRegex();
-        Pattern pattern;
         try {
-            if (beginRegex != null && endRegex != null) {
-                pattern = Pattern.compile(beginRegex + "((.|\n)*?)" + endRegex);
-            } else if (beginRegex != null) {
-                pattern = Pattern.compile(beginRegex + "((.|\n)*?)" + beginRegex);
-            } else if (endRegex != null) {
-                pattern = Pattern.compile("((.|\n)*?)(" + endRegex + ")");
-            } else {
-                pattern = Pattern.compile("(\n$)"); // this will not be reached
+            if (beginRegex != null) {
+                fileSourceConfiguration.setBeginPattern(Pattern.compile(beginRegex));
+            }
+            if (endRegex != null) {
+                fileSourceConfiguration.setEndPattern(Pattern.compile(endRegex));
             }
         } catch (PatternSyntaxException e) {
             throw new SiddhiAppCreationException("Cannot compile the regex '" + beginRegex +
                     "' and '" + endRegex + "'. Hence shutting down the siddhi app '" +
                     siddhiAppContext.getName() + "'.");
         }
-        fileSourceConfiguration.setPattern(pattern);
     }
 
     private void validateURL(String uri, String parameterName) {
@@ -1037,24 +1886,44 @@ public class FileSource extends Source<FileSource.FileSourceState> {
 
         @Override
         public Map<String, Object> snapshot() {
-            filePointer = FileSource.this.fileSourceConfiguration.getFilePointer();
-            state.put(Constants.FILE_POINTER, fileSourceConfiguration.getFilePointer());
+            filePointerMap = new HashMap<>(fileSourceConfiguration.getFilePointerMap());
+            state.put(Constants.FILE_POINTER_MAP, filePointerMap);
             state.put(Constants.TAILED_FILE, fileSourceConfiguration.getTailedFileURIMap());
-            state.put(Constants.TAILING_REGEX_STRING_BUILDER, fileSourceConfiguration.getTailingRegexStringBuilder());
-            state.put(Constants.PROCESSED_FILE_LIST, fileSourceConfiguration.getProcessedFileList());
+            state.put(Constants.PROCESSED_FILE_LIST, processedFileRegistry.snapshot());
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> map) {
-            filePointer = map.get(Constants.FILE_POINTER).toString();
             tailedFileURIMap = (List<String>) map.get(Constants.TAILED_FILE);
-            fileSourceConfiguration.setFilePointer(filePointer);
+            if (map.get(Constants.TAILING_REGEX_STRING_BUILDER) != null) {
+                /* the file pointers of the state of a version which persisted the pending content are after it */
+                log.warn("The content tailed in 'regex' mode which is not matched yet is not restored from the " +
+                        "state of a previous version, in 'file' source of the siddhi app '" +
+                        siddhiAppContext.getName() + "'.");
+            }
+            if (map.containsKey(Constants.FILE_POINTER_MAP)) {
+                filePointerMap = (Map<String, Long>) map.get(Constants.FILE_POINTER_MAP);
+            } else {
+                /* state of a version which tailed a single file, with a single file pointer */
+                filePointerMap = new HashMap<>();
+                if (tailedFileURIMap != null && !tailedFileURIMap.isEmpty()) {
+                    filePointerMap.put(tailedFileURIMap.get(0),
+                            Long.parseLong(map.get(Constants.FILE_POINTER).toString()));
+                }
+            }
+            if (tailingCheckpointStore != null) {
+                try {
+                    filePointerMap = loadTailingCheckpoint(filePointerMap);
+                } catch (IOException e) {
+                    throw new SiddhiAppRuntimeException("Failed to load the file pointers of the tailed files from '" +
+                            tailingCheckpointFile + "' in 'file' source of the siddhi app '" +
+                            siddhiAppContext.getName() + "'.", e);
+                }
+            }
+            fileSourceConfiguration.setFilePointerMap(filePointerMap);
             fileSourceConfiguration.setTailedFileURIMap(tailedFileURIMap);
-            fileSourceConfiguration.updateTailingRegexStringBuilder(
-                    (StringBuilder) map.get(Constants.TAILING_REGEX_STRING_BUILDER));
-            fileSourceConfiguration.setProcessedFileList(
-                        (List<String>) map.get(Constants.PROCESSED_FILE_LIST));
+            processedFileRegistry.restore(map.get(Constants.PROCESSED_FILE_LIST));
         }
     }
 }
@@ -20,6 +20,7 @@ package io.siddhi.extension.io.file.listeners;
 
 import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.stream.input.source.SourceEventListener;
+import io.siddhi.extension.io.file.processors.FilePostProcessor;
 import io.siddhi.extension.io.file.processors.FileProcessor;
 import io.siddhi.extension.io.file.util.Constants;
 import io.siddhi.extension.io.file.util.FileSourceConfiguration;
@@ -45,12 +46,14 @@ import org.wso2.transport.file.connector.sender.VFSClientConnector;
 import java.io.File;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static io.siddhi.extension.io.file.util.Util.constructPath;
 import static io.siddhi.extension.io.file.util.Util.generateProperties;
 import static io.siddhi.extension.io.file.util.Util.getFileName;
-import static io.siddhi.extension.io.file.util.Util.reProcessFileGenerateProperties;
 
 /**
  * FileCronExecutor is executed when the cron expression is given. If the current time satisfied by the cron
@@ -110,25 +113,34 @@ public class FileCronExecutor implements Job {
         SourceEventListener sourceEventListener = (SourceEventListener) dataMap.get(
                 Constants.SOURCE_EVENT_LISTENER);
         File listeningFileObject = new File(fileSourceConfiguration.getUri());
+        FilePostProcessor filePostProcessor = new FilePostProcessor(fileSourceConfiguration);
+        List<CompletableFuture<Boolean>> postProcessedFiles = new ArrayList<>();
         if (listeningFileObject.isDirectory()) {
             File[] listOfFiles = listeningFileObject.listFiles();
             if (listOfFiles != null) {
                 for (File file : listOfFiles) {
                     if (file.isFile()) {
-                        processFile(file.toURI().toString(), jobExecutionContext, sourceEventListener);
+                        postProcessedFiles.add(processFile(file.toURI().toString(), jobExecutionContext,
+                                sourceEventListener, filePostProcessor));
                     }
                 }
             }
         } else {
-            processFile(listeningFileObject.toURI().toString(), jobExecutionContext, sourceEventListener);
+            postProcessedFiles.add(processFile(listeningFileObject.toURI().toString(), jobExecutionContext,
+                    sourceEventListener, filePostProcessor));
         }
+        CompletableFuture.allOf(postProcessedFiles.toArray(new CompletableFuture[0])).join();
     }
 
     /**
-     * Action taken while processing a file
+     * Action taken while processing a file. The file is read on the calling thread, and is then submitted to be moved
+     * or deleted along with the other files read meanwhile, while the next file is read.
+     *
+     * @return the stage which completes with whether the file is moved or deleted
      */
-    public void processFile(String fileURI, JobExecutionContext jobExecutionContext,
-                            SourceEventListener sourceEventListener) {
+    public CompletableFuture<Boolean> processFile(String fileURI, JobExecutionContext jobExecutionContext,
+                                                  SourceEventListener sourceEventListener,
+                                                  FilePostProcessor filePostProcessor) {
         JobDataMap dataMap = jobExecutionContext.getJobDetail().getJobDataMap();
         FileSourceConfiguration fileSourceConfiguration = (FileSourceConfiguration) dataMap.get(
                 Constants.FILE_SOURCE_CONFIGURATION);
@@ -136,60 +148,60 @@ public class FileCronExecutor implements Job {
         VFSClientConnector vfsClientConnector = new VFSClientConnector();
         vfsClientConnector.setMessageProcessor(fileProcessor);
         Map<String, String> properties = generateProperties(fileSourceConfiguration, fileURI);
-        VFSClientConnectorCallback carbonCallback = new VFSClientConnectorCallback();
-        initialProcessFile(vfsClientConnector, carbonCallback, properties, fileURI,
-                fileSourceConfiguration, fileProcessor);
+        if (!initialProcessFile(vfsClientConnector, properties, fileURI, fileProcessor)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return reProcessFile(fileURI, fileSourceConfiguration, filePostProcessor);
     }
 
-    public void initialProcessFile(VFSClientConnector vfsClientConnector, VFSClientConnectorCallback carbonCallback,
-                                   Map<String, String> properties, String fileURI,
-                                   FileSourceConfiguration fileSourceConfiguration, FileProcessor fileProcessor) {
+    /**
+     * Reads a file. The VFS client reads the file on the calling thread, hence the file is read once this returns.
+     *
+     * @return true if the file is read
+     */
+    public boolean initialProcessFile(VFSClientConnector vfsClientConnector, Map<String, String> properties,
+                                      String fileURI, FileProcessor fileProcessor) {
         vfsClientConnector.setMessageProcessor(fileProcessor);
         BinaryCarbonMessage carbonMessage = new BinaryCarbonMessage(ByteBuffer.wrap(
                 fileURI.getBytes(StandardCharsets.UTF_8)), true);
         try {
-            vfsClientConnector.send(carbonMessage, carbonCallback, properties);
-            try {
-                carbonCallback.waitTillDone(fileSourceConfiguration.getTimeout(), fileURI);
-            } catch (InterruptedException e) {
-                log.error(String.format("Failed to get callback from vfs-client  for file '%s'.",
-                        fileURI), e);
-            }
-            reProcessFile(vfsClientConnector, carbonCallback, properties, fileURI, fileSourceConfiguration);
+            VFSClientConnectorCallback callback = new VFSClientConnectorCallback();
+            vfsClientConnector.send(carbonMessage, callback, properties);
+            /* the files of the cron expression are local files */
+            callback.checkRead(fileURI, null);
+            return true;
         } catch (ClientConnectorException e) {
             log.error(String.format("Failed to provide file '%s' for consuming.", fileURI), e);
+            return false;
         }
     }
 
     /**
-     * Method use to move file from one path to another if action.after.process is 'move'
+     * Method use to move file from one path to another if action.after.process is 'move', or to delete it if it is
+     * 'delete'
+     *
+     * @return the stage which completes with whether the file is moved or deleted
      */
-    public void reProcessFile(VFSClientConnector vfsClientConnector,
-                              VFSClientConnectorCallback vfsClientConnectorCallback,
-                              Map<String, String> properties, String fileUri,
-                              FileSourceConfiguration fileSourceConfiguration) {
-        BinaryCarbonMessage carbonMessage = new BinaryCarbonMessage(ByteBuffer.wrap(
-                fileUri.getBytes(StandardCharsets.UTF_8)), true);
+    public CompletableFuture<Boolean> reProcessFile(String fileUri, FileSourceConfiguration fileSourceConfiguration,
+                                                    FilePostProcessor filePostProcessor) {
+        String actionAfterProcess = fileSourceConfiguration.getActionAfterProcess();
+        if (Constants.DELETE.equalsIgnoreCase(actionAfterProcess)) {
+            return filePostProcessor.delete(fileUri);
+        } else if (!Constants.MOVE.equalsIgnoreCase(actionAfterProcess)) {
+            return CompletableFuture.completedFuture(false);
+        }
         String moveAfterProcess = fileSourceConfiguration.getMoveAfterProcess();
-        Map<String, String> reGeneratedProperties = reProcessFileGenerateProperties(fileSourceConfiguration, fileUri,
-                properties);
-        try {
-            File file = new File(fileSourceConfiguration.getUri());
-            if (file.isFile()) {
-                reGeneratedProperties.put(Constants.DESTINATION, moveAfterProcess);
-            } else {
-                String destination = constructPath(moveAfterProcess, getFileName(fileUri,
-                        fileSourceConfiguration.getProtocolForMoveAfterProcess()));
-                if (destination != null) {
-                    reGeneratedProperties.put(Constants.DESTINATION, destination);
-                }
-            }
-            vfsClientConnector.send(carbonMessage, vfsClientConnectorCallback, reGeneratedProperties);
-            vfsClientConnectorCallback.waitTillDone(fileSourceConfiguration.getTimeout(), fileUri);
-        } catch (ClientConnectorException e) {
-            log.error(String.format("Failure occurred in vfs-client while reading the file '%s '.", fileUri), e);
-        } catch (InterruptedException e) {
-            log.error(String.format("Failed to get callback from vfs-client for file '%s '.", fileUri), e);
+        String destination;
+        if (new File(fileSourceConfiguration.getUri()).isFile()) {
+            destination = moveAfterProcess;
+        } else {
+            destination = constructPath(moveAfterProcess, getFileName(fileUri,
+                    fileSourceConfiguration.getProtocolForMoveAfterProcess()));
+        }
+        if (destination == null) {
+            log.error(String.format("Failed to construct the path to move file '%s' to.", fileUri));
+            return CompletableFuture.completedFuture(false);
         }
+        return filePostProcessor.move(fileUri, destination);
     }
 }
@@ -21,36 +21,43 @@ package io.siddhi.extension.io.file.listeners;
 import io.siddhi.core.stream.input.source.SourceEventListener;
 import io.siddhi.extension.io.file.metrics.SourceMetrics;
 import io.siddhi.extension.io.file.metrics.StreamStatus;
+import io.siddhi.extension.io.file.processors.FileEventBuffer;
+import io.siddhi.extension.io.file.processors.FilePostProcessor;
 import io.siddhi.extension.io.file.processors.FileProcessor;
+import io.siddhi.extension.io.file.processors.FileTailer;
+import io.siddhi.extension.io.file.processors.NativeFileReader;
+import io.siddhi.extension.io.file.processors.ParallelLineReader;
 import io.siddhi.extension.io.file.util.Constants;
 import io.siddhi.extension.io.file.util.FileSourceConfiguration;
-import io.siddhi.extension.io.file.util.FileSourceServiceProvider;
 import io.siddhi.extension.io.file.util.VFSClientConnectorCallback;
 import io.siddhi.extension.util.Utils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.log4j.Logger;
 import org.wso2.carbon.messaging.BinaryCarbonMessage;
-import org.wso2.carbon.messaging.CarbonCallback;
 import org.wso2.carbon.messaging.CarbonMessage;
-import org.wso2.carbon.messaging.ServerConnector;
 import org.wso2.carbon.messaging.exceptions.ClientConnectorException;
-import org.wso2.carbon.messaging.exceptions.ServerConnectorException;
 import org.wso2.transport.file.connector.sender.VFSClientConnector;
-import org.wso2.transport.file.connector.server.FileServerConnector;
-import org.wso2.transport.file.connector.server.FileServerConnectorProvider;
 import org.wso2.transport.remotefilesystem.listener.RemoteFileSystemListener;
 import org.wso2.transport.remotefilesystem.message.RemoteFileSystemBaseMessage;
 import org.wso2.transport.remotefilesystem.message.RemoteFileSystemEvent;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import static io.siddhi.extension.io.file.util.Util.generateProperties;
-import static io.siddhi.extension.io.file.util.Util.reProcessFileGenerateProperties;
 
 /**
  * Test {@link RemoteFileSystemListener} implementation for testing purpose.
@@ -59,255 +66,326 @@ public class FileSystemListener implements RemoteFileSystemListener {
     private static final Logger log = Logger.getLogger(FileSystemListener.class);
     private SourceEventListener sourceEventListener;
     private FileSourceConfiguration fileSourceConfiguration;
-    private FileSourceServiceProvider fileSourceServiceProvider;
     private SourceMetrics metrics;
     private Map<String, Object> schemeFileOptions;
+    private final Deque<PendingFile> pendingFiles = new ArrayDeque<>();
+    private final InFlightLimit inFlightLimit;
+    private final FilePostProcessor filePostProcessor;
 
     public FileSystemListener(SourceEventListener sourceEventListener,
                               FileSourceConfiguration fileSourceConfiguration, SourceMetrics sourceMetrics,
                               Map<String, Object> schemeFileOptions) {
         this.sourceEventListener = sourceEventListener;
         this.fileSourceConfiguration = fileSourceConfiguration;
-        this.fileSourceServiceProvider = FileSourceServiceProvider.getInstance();
         this.metrics = sourceMetrics;
         this.schemeFileOptions = schemeFileOptions;
+        this.inFlightLimit = new InFlightLimit(fileSourceConfiguration.getDirParallelism(),
+                fileSourceConfiguration.getDirParallelismMaxBytes());
+        this.filePostProcessor = new FilePostProcessor(fileSourceConfiguration);
     }
 
     @Override
     public boolean onMessage(RemoteFileSystemBaseMessage remoteFileSystemBaseEvent) {
         if (remoteFileSystemBaseEvent instanceof RemoteFileSystemEvent) {
-            String mode = fileSourceConfiguration.getMode();
-            String actionAfterProcess = fileSourceConfiguration.getActionAfterProcess();
             RemoteFileSystemEvent remoteFileSystemEvent = (RemoteFileSystemEvent) remoteFileSystemBaseEvent;
+            if (fileSourceConfiguration.isTailingEnabled()) {
+                remoteFileSystemEvent.getDeletedFiles().forEach(this::evictTailedFile);
+            }
             for (int i = 0; i < remoteFileSystemEvent.getAddedFiles().size(); i++) {
                 String fileURI = remoteFileSystemEvent.getAddedFiles().get(i).getPath();
-                if (!fileSourceConfiguration.addFileToListIfAbsent(fileURI)) {
+                /* a file which was tailed before the source was reconnected or restored is tailed again */
+                boolean notTailedYet = fileSourceConfiguration.isTailingEnabled() &&
+                        !fileSourceConfiguration.getFileTailers().containsKey(fileURI);
+                if (!fileSourceConfiguration.getProcessedFileRegistry().addIfAbsent(fileURI) && !notTailedYet) {
                     continue;
                 }
-                VFSClientConnector vfsClientConnector;
-                FileProcessor fileProcessor;
-                fileSourceConfiguration.setCurrentlyReadingFileURI(fileURI);
-                String shortenFilePath = Utils.getShortFilePath(fileURI);
-                if (metrics != null) {
-                    metrics.getSourceFileStatusMap().putIfAbsent(shortenFilePath, StreamStatus.PROCESSING);
-                    metrics.setFilePath(fileURI);
-                }
-                if (Constants.TEXT_FULL.equalsIgnoreCase(mode)) {
-                    vfsClientConnector = new VFSClientConnector();
-                    fileProcessor = new FileProcessor(sourceEventListener, fileSourceConfiguration, metrics);
-                    vfsClientConnector.setMessageProcessor(fileProcessor);
-                    Map<String, String> properties = generateProperties(fileSourceConfiguration, fileURI);
-                    VFSClientConnectorCallback carbonCallback = new VFSClientConnectorCallback();
-                    BinaryCarbonMessage carbonMessage = new BinaryCarbonMessage(
-                            ByteBuffer.wrap(fileURI.getBytes(StandardCharsets.UTF_8)), true);
-                    try {
-                        vfsClientConnector.init(null, null, schemeFileOptions);
-                        vfsClientConnector.send(carbonMessage, carbonCallback, properties);
-                        try {
-                            carbonCallback.waitTillDone(fileSourceConfiguration.getTimeout(), fileURI);
-                        } catch (InterruptedException e) {
-                            log.error(String.format("Failed to wait until file '%s' is processed.", fileURI), e);
-                            if (metrics != null) {
-                                metrics.getSourceFileStatusMap().replace(shortenFilePath, StreamStatus.ERROR);
-                                metrics.getTotalErrorCount().inc();
-                            }
-                            return false;
-                        }
-                        if (!actionAfterProcess.equalsIgnoreCase(Constants.KEEP)) {
-                            reProcessFile(vfsClientConnector, carbonCallback, properties, fileURI);
-                        }
-                    } catch (ClientConnectorException e) {
-                        log.error(String.format("Failed to provide file '%s' for consuming.", fileURI), e);
-                        carbonCallback.done(carbonMessage);
-                        if (metrics != null) {
-                            metrics.getSourceFileStatusMap().replace(shortenFilePath, StreamStatus.ERROR);
-                            metrics.getTotalErrorCount().inc();
-                        }
-                    }
-                } else if (Constants.BINARY_CHUNKED.equalsIgnoreCase(mode) ||
-                        Constants.BINARY_FULL.equalsIgnoreCase(mode)) {
-                    vfsClientConnector = new VFSClientConnector();
-                    fileProcessor = new FileProcessor(sourceEventListener, fileSourceConfiguration, metrics);
-                    vfsClientConnector.setMessageProcessor(fileProcessor);
-                    Map<String, String> properties = generateProperties(fileSourceConfiguration, fileURI);
-                    VFSClientConnectorCallback carbonCallback = new VFSClientConnectorCallback();
-                    BinaryCarbonMessage carbonMessage = new BinaryCarbonMessage(
-                            ByteBuffer.wrap(fileURI.getBytes(StandardCharsets.UTF_8)), true);
-                    try {
-                        vfsClientConnector.init(null, null, schemeFileOptions);
-                        vfsClientConnector.send(carbonMessage, carbonCallback, properties);
-                        try {
-                            carbonCallback.waitTillDone(fileSourceConfiguration.getTimeout(), fileURI);
-                        } catch (InterruptedException e) {
-                            log.error(String.format("Failed to get callback from vfs-client  for file '%s'.", fileURI),
-                                    e);
-                            if (metrics != null) {
-                                metrics.getSourceFileStatusMap().replace(shortenFilePath, StreamStatus.ERROR);
-                                metrics.getTotalErrorCount().inc();
-                            }
-                            return false;
-                        }
-                        if (!actionAfterProcess.equalsIgnoreCase(Constants.KEEP)) {
-                            reProcessFile(vfsClientConnector, carbonCallback, properties, fileURI);
-                        }
-                    } catch (ClientConnectorException e) {
-                        log.error(String.format("Failed to provide file '%s' for consuming.", fileURI), e);
-                        if (metrics != null) {
-                            metrics.getSourceFileStatusMap().replace(shortenFilePath, StreamStatus.ERROR);
-                            metrics.getTotalErrorCount().inc();
-                        }
-                    }
-                } else if (Constants.LINE.equalsIgnoreCase(mode) || Constants.REGEX.equalsIgnoreCase(mode)) {
-                    Map<String, String> properties = generateProperties(fileSourceConfiguration, fileURI);
-                    if (fileSourceConfiguration.isTailingEnabled()) {
-                        fileSourceConfiguration.setTailedFileURI(fileURI);
-                        if (metrics != null) {
-                            metrics.getTailEnabledFilesMap().putIfAbsent(shortenFilePath,
-                                    System.currentTimeMillis());
-                        }
-                        if (fileSourceConfiguration.getTailedFileURIMap().contains(fileURI)) {
-                            properties.put(Constants.START_POSITION, fileSourceConfiguration.getFilePointer());
-                            properties.put(Constants.PATH, fileURI);
-                            FileServerConnectorProvider fileServerConnectorProvider =
-                                    fileSourceServiceProvider.getFileServerConnectorProvider();
-                            fileProcessor = new FileProcessor(sourceEventListener, fileSourceConfiguration, metrics);
-                            final ServerConnector fileServerConnector = fileServerConnectorProvider
-                                    .createConnector("file-server-connector", properties);
-                            fileServerConnector.setMessageProcessor(fileProcessor);
-                            fileSourceConfiguration.setFileServerConnector((FileServerConnector) fileServerConnector);
-                            VFSClientConnectorCallback carbonCallback = new VFSClientConnectorCallback();
-                            BinaryCarbonMessage carbonMessage = new BinaryCarbonMessage(ByteBuffer.wrap(
-                                    fileURI.getBytes(StandardCharsets.UTF_8)), true);
-                            FileServerExecutor fileServerExecutor = new FileServerExecutor(carbonMessage,
-                                    carbonCallback, fileServerConnector, fileURI, metrics);
-                            if (log.isDebugEnabled()) {
-                                log.debug("fileServerExecutor started with file tailing for file: " + fileURI);
-                            }
-                            fileSourceConfiguration.getExecutorService().execute(fileServerExecutor);
-                        }
-                    } else {
-                        vfsClientConnector = new VFSClientConnector();
-                        fileProcessor = new FileProcessor(sourceEventListener, fileSourceConfiguration, metrics);
-                        vfsClientConnector.setMessageProcessor(fileProcessor);
-                        VFSClientConnectorCallback carbonCallback = new VFSClientConnectorCallback();
-                        BinaryCarbonMessage carbonMessage = new BinaryCarbonMessage(ByteBuffer.wrap(
-                                fileURI.getBytes(StandardCharsets.UTF_8)), true);
-                        try {
-                            vfsClientConnector.init(null, null, schemeFileOptions);
-                            vfsClientConnector.send(carbonMessage, carbonCallback, properties);
-                            try {
-                                carbonCallback.waitTillDone(fileSourceConfiguration.getTimeout(), fileURI);
-                            } catch (InterruptedException e) {
-                                log.error(String.format("Failed to get callback from vfs-client  for file '%s'.",
-                                        fileURI), e);
-                                if (metrics != null) {
-                                    metrics.getSourceFileStatusMap().replace(shortenFilePath, StreamStatus.ERROR);
-                                    metrics.getTotalErrorCount().inc();
-                                }
-                                return false;
-                            }
-                            if (!actionAfterProcess.equalsIgnoreCase(Constants.KEEP)) {
-                                reProcessFile(vfsClientConnector, carbonCallback, properties, fileURI);
-                            }
-                        } catch (ClientConnectorException e) {
-                            log.error(String.format("Failed to provide file '%s' for consuming.", fileURI), e);
-                            if (metrics != null) {
-                                metrics.getSourceFileStatusMap().replace(shortenFilePath, StreamStatus.ERROR);
-                                metrics.getTotalErrorCount().inc();
-                            }
-                        }
-                    }
+                if (!submitFile(fileURI, remoteFileSystemEvent.getAddedFiles().get(i).getFileSize())) {
+                    completeFiles();
+                    return false;
                 }
             }
-            return true;
+            return completeFiles();
         } else {
             return false;
         }
     }
 
-    @Override
-    public void onError(Throwable throwable) {
+    /**
+     * Submits a file to the stages in which it is read, its events are emitted, and it is moved or deleted.
+     * The files are read one after the other on the polling thread, unless they are read in parallel, once the number
+     * of files and the size of the files in flight allow it. Once its events are emitted, a file is submitted to the
+     * {@link FilePostProcessor}, which moves or deletes the files in batches while the next files are read.
+     * The files which are already processed are completed meanwhile.
+     *
+     * @param fileURI  URI of the file
+     * @param fileSize size of the file
+     * @return false if the processing of the files of the poll should be stopped
+     */
+    private boolean submitFile(String fileURI, long fileSize) {
+        boolean parallel = fileSourceConfiguration.getDirParallelism() > 1;
+        try {
+            while (!pendingFiles.isEmpty() && pendingFiles.peek().future.isDone()) {
+                if (!completeFile(pendingFiles.poll())) {
+                    return false;
+                }
+            }
+            if (parallel) {
+                inFlightLimit.acquire(fileSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error(String.format("Interrupted while waiting to process file '%s'.", fileURI), e);
+            return false;
+        }
+        PendingFile previous = pendingFiles.peekLast();
+        PendingFile pendingFile = new PendingFile(fileURI);
+        ExecutorService executorService = fileSourceConfiguration.getExecutorService();
+        try {
+            if (parallel) {
+                FileEventBuffer buffer = fileSourceConfiguration.isDirParallelismOrdered() ?
+                        new FileEventBuffer(sourceEventListener, fileSourceConfiguration.getChunkPool()) : null;
+                pendingFile.emitted = CompletableFuture.supplyAsync(() -> readFile(fileURI,
+                        buffer != null ? buffer : sourceEventListener), executorService)
+                        .exceptionally(throwable -> onFailure(fileURI, throwable));
+                if (buffer != null) {
+                    pendingFile.emitted = pendingFile.emitted.thenCombine(previous != null ? previous.emitted :
+                            CompletableFuture.completedFuture(ReadStatus.READ),
+                            (status, previousStatus) -> release(fileURI, buffer, status));
+                }
+            } else {
+                pendingFile.emitted = CompletableFuture.completedFuture(readFile(fileURI, sourceEventListener));
+                if (pendingFile.emitted.join() == ReadStatus.STOPPED) {
+                    return false;
+                }
+            }
+            pendingFile.future = pendingFile.emitted.thenCompose(status -> postProcessFile(fileURI, status))
+                    .exceptionally(throwable -> onFailure(fileURI, throwable));
+            if (parallel) {
+                pendingFile.future.whenComplete((status, throwable) -> inFlightLimit.release(fileSize));
+            }
+        } catch (RejectedExecutionException e) {
+            if (parallel && pendingFile.future == null) {
+                inFlightLimit.release(fileSize);
+            }
+            log.error(String.format("Failed to submit file '%s' for processing.", fileURI), e);
+            return false;
+        }
+        pendingFiles.add(pendingFile);
+        return true;
     }
 
-    @Override
-    public void done() {
+    /**
+     * Reads a file, passing its events on to the given listener. The file is read on the calling thread, as the VFS
+     * client reads the file on the thread which sends the message to it, hence the file is read once this returns.
+     *
+     * @param fileURI  URI of the file
+     * @param listener listener to which the events of the file are passed on
+     * @return whether the file is to be moved or deleted, or the processing of the files of the poll is to be stopped
+     */
+    private ReadStatus readFile(String fileURI, SourceEventListener listener) {
+        String mode = fileSourceConfiguration.getMode();
+        String shortenFilePath = Utils.getShortFilePath(fileURI);
+        if (metrics != null) {
+            metrics.getSourceFileStatusMap().putIfAbsent(shortenFilePath, StreamStatus.PROCESSING);
+        }
+        if (Constants.TEXT_FULL.equalsIgnoreCase(mode) || Constants.DELIMITED.equalsIgnoreCase(mode) ||
+                Constants.BINARY_CHUNKED.equalsIgnoreCase(mode) || Constants.BINARY_FULL.equalsIgnoreCase(mode) ||
+                Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
+            return readThroughClient(fileURI, listener);
+        } else if (Constants.LINE.equalsIgnoreCase(mode) || Constants.REGEX.equalsIgnoreCase(mode)) {
+            if (fileSourceConfiguration.isTailingEnabled()) {
+                fileSourceConfiguration.setTailedFileURI(fileURI);
+                if (metrics != null) {
+                    metrics.getTailEnabledFilesMap().putIfAbsent(shortenFilePath,
+                            System.currentTimeMillis());
+                }
+                if (fileSourceConfiguration.getTailedFileURIMap().contains(fileURI)) {
+                    FileProcessor fileProcessor = new FileProcessor(listener, fileSourceConfiguration, metrics,
+                            fileURI);
+                    FileTailer fileTailer = new FileTailer(fileURI, fileProcessor, fileSourceConfiguration,
+                            metrics);
+                    fileSourceConfiguration.getFileTailers().put(fileURI, fileTailer);
+                    if (log.isDebugEnabled()) {
+                        log.debug("Started tailing file: " + fileURI);
+                    }
+                    fileTailer.start();
+                }
+                return ReadStatus.KEPT;
+            }
+            Path localFilePath = fileSourceConfiguration.getReadParallelism() > 1 ?
+                    Utils.getLocalFilePath(fileURI) : null;
+            if (localFilePath == null) {
+                return readThroughClient(fileURI, listener);
+            }
+            try {
+                new ParallelLineReader(listener, fileSourceConfiguration).read(localFilePath);
+                return ReadStatus.READ;
+            } catch (IOException | InterruptedException e) {
+                log.error(String.format("Failed to read file '%s' in parallel.", fileURI), e);
+                markFailed(fileURI);
+                return ReadStatus.STOPPED;
+            }
+        }
+        return ReadStatus.KEPT;
     }
 
-    static class FileServerExecutor implements Runnable {
-        ServerConnector fileServerConnector = null;
-        CarbonCallback carbonCallback = null;
-        CarbonMessage carbonMessage = null;
-        String fileURI = null;
-        SourceMetrics metrics;
+    private ReadStatus readThroughClient(String fileURI, SourceEventListener listener) {
+        VFSClientConnector vfsClientConnector = new VFSClientConnector();
+        FileProcessor fileProcessor = new FileProcessor(listener, fileSourceConfiguration, metrics, fileURI);
+        vfsClientConnector.setMessageProcessor(fileProcessor);
+        Map<String, String> properties = generateProperties(fileSourceConfiguration, fileURI);
+        BinaryCarbonMessage carbonMessage = new BinaryCarbonMessage(
+                ByteBuffer.wrap(fileURI.getBytes(StandardCharsets.UTF_8)), true);
+        try {
+            vfsClientConnector.init(null, null, schemeFileOptions);
+            readContent(vfsClientConnector, fileProcessor, carbonMessage, properties, fileURI);
+            return ReadStatus.READ;
+        } catch (ClientConnectorException e) {
+            log.error(String.format("Failed to provide file '%s' for consuming.", fileURI), e);
+            markFailed(fileURI);
+            return ReadStatus.KEPT;
+        }
+    }
 
-        FileServerExecutor(CarbonMessage carbonMessage, CarbonCallback carbonCallback,
-                           ServerConnector fileServerConnector, String fileURI, SourceMetrics metrics) {
-            this.fileURI = fileURI;
-            this.fileServerConnector = fileServerConnector;
-            this.carbonCallback = carbonCallback;
-            this.carbonMessage = carbonMessage;
-            this.metrics = metrics;
+    /**
+     * Passes the events of a file read in parallel on to the source, once those of the files submitted before it are
+     * passed on. Hence the events of a file are passed on before the file is moved or deleted.
+     */
+    private ReadStatus release(String fileURI, FileEventBuffer buffer, ReadStatus status) {
+        try {
+            buffer.release();
+            return status;
+        } catch (RuntimeException e) {
+            return onFailure(fileURI, e);
         }
+    }
 
-        @Override
-        public void run() {
-            try {
-                fileServerConnector.start();
-            } catch (ServerConnectorException e) {
-                log.error(String.format("Failed to start the server for file '%s'. " +
-                        "Hence starting to process next file.", fileURI));
-                carbonCallback.done(carbonMessage);
-                if (metrics != null) {
-                    metrics.getSourceFileStatusMap().replace(Utils.getShortFilePath(fileURI), StreamStatus.ERROR);
-                    metrics.getTotalErrorCount().inc();
-                }
+    private CompletableFuture<ReadStatus> postProcessFile(String fileURI, ReadStatus status) {
+        String actionAfterProcess = fileSourceConfiguration.getActionAfterProcess();
+        if (status != ReadStatus.READ || actionAfterProcess.equalsIgnoreCase(Constants.KEEP)) {
+            return CompletableFuture.completedFuture(status);
+        }
+        CompletableFuture<Boolean> postProcessed;
+        if (actionAfterProcess.equalsIgnoreCase(Constants.DELETE)) {
+            postProcessed = filePostProcessor.delete(fileURI);
+        } else {
+            String destination = constructPath(fileSourceConfiguration.getMoveAfterProcess(), getFileName(fileURI,
+                    fileSourceConfiguration.getProtocolForMoveAfterProcess()));
+            if (destination == null) {
+                log.error(String.format("Failed to construct the path to move file '%s' to.", fileURI));
+                postProcessed = CompletableFuture.completedFuture(false);
+            } else {
+                postProcessed = filePostProcessor.move(fileURI, destination);
             }
         }
+        return postProcessed.thenApply(done -> {
+            if (metrics != null) {
+                if (done) {
+                    metrics.getSourceFileStatusMap().replace(Utils.getShortFilePath(fileURI), StreamStatus.COMPLETED);
+                }
+                increaseMetricsAfterProcess(fileSourceConfiguration.getMoveAfterProcess(), done ? 1 : 0, fileURI);
+                metrics.getCompletedTimeMetric(fileURI, System.currentTimeMillis());
+            }
+            return status;
+        });
     }
 
-    private void reProcessFile(VFSClientConnector vfsClientConnector,
-                               VFSClientConnectorCallback vfsClientConnectorCallback,
-                               Map<String, String> properties, String fileUri) {
-        Map<String, String> reGeneratedProperties = reProcessFileGenerateProperties(fileSourceConfiguration, fileUri,
-                properties);
-        BinaryCarbonMessage carbonMessage = new BinaryCarbonMessage(ByteBuffer.wrap(
-                fileUri.getBytes(StandardCharsets.UTF_8)), true);
-        String moveAfterProcess = fileSourceConfiguration.getMoveAfterProcess();
+    private ReadStatus onFailure(String fileURI, Throwable throwable) {
+        log.error(String.format("Failed to process file '%s'.", fileURI),
+                throwable instanceof CompletionException ? throwable.getCause() : throwable);
+        markFailed(fileURI);
+        return ReadStatus.KEPT;
+    }
+
+    private void markFailed(String fileURI) {
         if (metrics != null) {
-            metrics.setFilePath(fileUri);
+            metrics.getSourceFileStatusMap().replace(Utils.getShortFilePath(fileURI), StreamStatus.ERROR);
+            metrics.getTotalErrorCount(fileURI).inc();
         }
+    }
+
+    /**
+     * Waits till the files submitted in the poll are moved or deleted.
+     *
+     * @return false if the processing of the files of the poll should be stopped
+     */
+    private boolean completeFiles() {
+        boolean completed = true;
         try {
-            if (fileSourceConfiguration.getActionAfterProcess() != null) {
-                if (fileSourceConfiguration.getMoveAfterProcess() != null) {
-                    String destination = constructPath(moveAfterProcess, getFileName(fileUri,
-                            fileSourceConfiguration.getProtocolForMoveAfterProcess()));
-                    if (destination != null) {
-                        reGeneratedProperties.put(Constants.DESTINATION, destination);
-                    }
-                }
-                vfsClientConnector.send(carbonMessage, vfsClientConnectorCallback, reGeneratedProperties);
-                vfsClientConnectorCallback.waitTillDone(fileSourceConfiguration.getTimeout(), fileUri);
-                if (metrics != null) {
-                    fileSourceConfiguration.getExecutorService().execute(() -> {
-                        metrics.getSourceFileStatusMap().replace(Utils.getShortFilePath(fileUri),
-                                StreamStatus.COMPLETED);
-                        increaseMetricsAfterProcess(fileSourceConfiguration.getMoveAfterProcess(), 1, fileUri);
-                    });
-                }
+            while (!pendingFiles.isEmpty()) {
+                completed &= completeFile(pendingFiles.peek());
+                pendingFiles.poll();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while waiting for the files of '" + fileSourceConfiguration.getUri() +
+                    "' to be processed.", e);
+            pendingFiles.forEach(pendingFile -> pendingFile.future.cancel(true));
+            pendingFiles.clear();
+            return false;
+        }
+        return completed;
+    }
 
-        } catch (ClientConnectorException e) {
-            if (metrics != null) {
-                increaseMetricsAfterProcess(fileSourceConfiguration.getMoveAfterProcess(), 0, fileUri);
-            }
-            log.error(String.format("Failure occurred in vfs-client while reading the file '%s'.", fileUri), e);
+    private boolean completeFile(PendingFile pendingFile) throws InterruptedException {
+        try {
+            return pendingFile.future.get() != ReadStatus.STOPPED;
+        } catch (ExecutionException e) {
+            onFailure(pendingFile.fileURI, e.getCause());
+            return true;
+        }
+    }
+
+    /**
+     * Stops tailing a file which is deleted or renamed once the rest of it is read, and forgets the file, so that the
+     * state of the source does not grow with the files which come and go in the directory.
+     *
+     * @param fileURI URI of the deleted file
+     */
+    private void evictTailedFile(String fileURI) {
+        FileTailer fileTailer = fileSourceConfiguration.getFileTailers().remove(fileURI);
+        if (fileTailer != null) {
+            fileTailer.closeWhenDrained();
+        }
+        fileSourceConfiguration.getProcessedFileRegistry().remove(fileURI);
+        if (fileSourceConfiguration.getTailedFileURIMap() != null) {
+            fileSourceConfiguration.getTailedFileURIMap().remove(fileURI);
+        }
+        if (metrics != null) {
+            metrics.getTailEnabledFilesMap().remove(Utils.getShortFilePath(fileURI));
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Stopped tailing deleted file: " + fileURI);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+    @Override
+    public void done() {
+    }
+
+    /**
+     * Reads the file with the {@link NativeFileReader} if it is a local file, or through the VFS client otherwise.
+     */
+    private void readContent(VFSClientConnector vfsClientConnector, FileProcessor fileProcessor,
+                             CarbonMessage carbonMessage, Map<String, String> properties, String fileURI)
+            throws ClientConnectorException {
+        if (!NativeFileReader.canRead(fileSourceConfiguration, fileURI)) {
+            VFSClientConnectorCallback callback = new VFSClientConnectorCallback();
+            vfsClientConnector.send(carbonMessage, callback, properties);
+            callback.checkRead(fileURI, fileSourceConfiguration.getFileSystemOptions());
+            return;
+        }
+        try {
+            new NativeFileReader(fileSourceConfiguration).read(fileURI, fileProcessor);
+        } catch (IOException e) {
+            throw new ClientConnectorException("Failed to read file '" + fileURI + "'.", e);
         } catch (InterruptedException e) {
-            log.error(String.format("Failed to get callback from vfs-client for file '%s'.", fileUri), e);
-        } finally {
-            if (metrics != null) {
-                metrics.setFilePath(fileUri);
-                metrics.getCompletedTimeMetric(System.currentTimeMillis());
-            }
+            Thread.currentThread().interrupt();
+            throw new ClientConnectorException("Interrupted while reading file '" + fileURI + "'.", e);
         }
     }
 
@@ -335,13 +413,68 @@ public class FileSystemListener implements RemoteFileSystemListener {
 
     private void increaseMetricsAfterProcess(String moveAfterProcess, int value, String fileUri) {
         if (moveAfterProcess == null) {
-            metrics.getFileDeleteMetrics().setTime(System.currentTimeMillis());
-            metrics.getFileDeleteMetrics().getDeleteMetric(value);
+            metrics.getFileDeleteMetrics().getDeleteMetric(Utils.getShortFilePath(fileUri), System.currentTimeMillis(),
+                    value);
         } else {
-            metrics.getFileMoveMetrics().setDestination(Utils.getShortFilePath(moveAfterProcess));
-            metrics.getFileMoveMetrics().setTime(System.currentTimeMillis());
-            metrics.getFileMoveMetrics().getMoveMetric(value);
+            metrics.getFileMoveMetrics().getMoveMetric(Utils.getShortFilePath(fileUri),
+                    Utils.getShortFilePath(moveAfterProcess), System.currentTimeMillis(), value);
         }
         metrics.setReadPercentage(100.0, fileUri);
     }
+
+    /**
+     * A file submitted to be processed in a poll, with the stage in which its events are emitted and the stage in
+     * which it is moved or deleted.
+     */
+    private static class PendingFile {
+        private final String fileURI;
+        private CompletableFuture<ReadStatus> emitted;
+        private CompletableFuture<ReadStatus> future;
+
+        private PendingFile(String fileURI) {
+            this.fileURI = fileURI;
+        }
+    }
+
+    /**
+     * Outcome of reading a file.
+     */
+    private enum ReadStatus {
+        /* the file is read, hence it is to be moved or deleted */
+        READ,
+        /* the file is tailed, or it failed to be read, hence it is kept as it is */
+        KEPT,
+        /* the file failed to be read, hence the processing of the files of the poll is to be stopped */
+        STOPPED
+    }
+
+    /**
+     * Bounds the number of files processed at once and their total size. A file larger than the size bound is
+     * processed once no other file is in flight.
+     */
+    private static class InFlightLimit {
+        private final int maxFiles;
+        private final long maxBytes;
+        private int files;
+        private long bytes;
+
+        private InFlightLimit(int maxFiles, long maxBytes) {
+            this.maxFiles = maxFiles;
+            this.maxBytes = maxBytes;
+        }
+
+        private synchronized void acquire(long size) throws InterruptedException {
+            while (files >= maxFiles || (files > 0 && maxBytes > 0 && bytes + size > maxBytes)) {
+                wait();
+            }
+            files++;
+            bytes += size;
+        }
+
+        private synchronized void release(long size) {
+            files--;
+            bytes -= size;
+            notifyAll();
+        }
+    }
 }
@@ -32,6 +32,10 @@ public class FileDeleteMetrics extends Metrics {
     }
 
     public void getDeleteMetric(int status) {
+        getDeleteMetric(source, time, status);
+    }
+
+    public void getDeleteMetric(String source, long time, int status) {
         MetricsDataHolder.getInstance().getMetricService()
                 .gauge(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Operations.Delete.%s.%s",
                         siddhiAppName, time + ".time", source + ".source"), Level.INFO, () -> status);
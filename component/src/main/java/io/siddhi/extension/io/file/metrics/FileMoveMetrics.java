@@ -35,6 +35,10 @@ public class FileMoveMetrics extends Metrics {
     }
 
     public void getMoveMetric(int status) {
+        getMoveMetric(source, destination, time, status);
+    }
+
+    public void getMoveMetric(String source, String destination, long time, int status) {
         MetricsDataHolder.getInstance().getMetricService()
                 .gauge(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Operations.Move.%s.%s.%s",
                         siddhiAppName, time + ".time", source + ".source", destination + ".destination"), Level.INFO,
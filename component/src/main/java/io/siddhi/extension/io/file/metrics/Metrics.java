@@ -21,10 +21,9 @@ package io.siddhi.extension.io.file.metrics;
 import org.wso2.carbon.metrics.core.Level;
 import org.wso2.carbon.si.metrics.core.internal.MetricsDataHolder;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Parent class of the SinkMetrics, SourceMetrics, File Operation metrics classes.
@@ -37,8 +36,8 @@ public class Metrics {
 
     protected Metrics(String siddhiAppName) {
         this.siddhiAppName = siddhiAppName;
-        filesURI = new HashSet<>();
-        fileNamesMap = new HashMap<>();
+        filesURI = ConcurrentHashMap.newKeySet();
+        fileNamesMap = new ConcurrentHashMap<>();
         MetricsDataHolder.getInstance().getMetricService()
                 .counter(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File", siddhiAppName), Level.INFO).inc();
     }
@@ -25,8 +25,8 @@ import org.wso2.carbon.metrics.core.Gauge;
 import org.wso2.carbon.metrics.core.Level;
 import org.wso2.carbon.si.metrics.core.internal.MetricsDataHolder;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -34,13 +34,13 @@ import java.util.concurrent.ExecutorService;
  */
 public class SourceMetrics extends Metrics {
     private static final Logger log = Logger.getLogger(SourceMetrics.class);
-    private final Map<String, StreamStatus> sourceFileStatusMap = new HashMap<>();
-    private final Map<String, Long> lastConsumedTimeMap = new HashMap<>(); //to get the last consumed time.
-    private final Map<String, Double> readPercentageMap = new HashMap<>(); //to get read percentage of each file.
+    private final Map<String, StreamStatus> sourceFileStatusMap = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastConsumedTimeMap = new ConcurrentHashMap<>(); //to get the last consumed time.
+    //to get read percentage of each file.
+    private final Map<String, Double> readPercentageMap = new ConcurrentHashMap<>();
+    private final Map<String, Long> tailingLagMap = new ConcurrentHashMap<>(); //to get tailing lag of each file.
 
     private boolean isStarted;
-    private String filePath;
-    private String fileName;
     private final String readingMode;
     private final String streamName;
     private final FileDeleteMetrics fileDeleteMetrics;
@@ -60,76 +60,100 @@ public class SourceMetrics extends Metrics {
                         Level.INFO);
     }
 
-    public Counter getTotalFileReadCount() { //to count the total reads from source level.
+    public Counter getTotalFileReadCount(String fileURI) { //to count the total reads from source level.
         return MetricsDataHolder.getInstance().getMetricService()
                 .counter(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.Total.Reads.%s.%s.%s.%s",
-                        siddhiAppName, fileName + ".filename", readingMode, streamName, filePath), Level.INFO);
+                        siddhiAppName, Utils.getFileName(fileURI, this) + ".filename", readingMode, streamName,
+                        Utils.getShortFilePath(fileURI)), Level.INFO);
     }
 
-    public Counter getReadByteMetric() {
+    public Counter getReadByteMetric(String fileURI) {
         return MetricsDataHolder.getInstance().getMetricService()
                 .counter(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
-                        siddhiAppName, "total_read_byte", filePath), Level.INFO);
+                        siddhiAppName, "total_read_byte", Utils.getShortFilePath(fileURI)), Level.INFO);
     }
 
-    public Counter getValidEventCountMetric() {
+    public Counter getValidEventCountMetric(String fileURI) {
         return MetricsDataHolder.getInstance().getMetricService().counter(
                 String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
-                        siddhiAppName, "total_valid_events_count", filePath), Level.INFO);
+                        siddhiAppName, "total_valid_events_count", Utils.getShortFilePath(fileURI)), Level.INFO);
     }
 
-    public Counter getReadLineCountMetric() {
+    public Counter getReadLineCountMetric(String fileURI) {
         return MetricsDataHolder.getInstance().getMetricService()
                 .counter(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
-                        siddhiAppName, "lines_count", filePath), Level.INFO);
+                        siddhiAppName, "lines_count", Utils.getShortFilePath(fileURI)), Level.INFO);
     }
 
-    public void getElapseTimeMetric(Gauge<Long> gauge) {
+    public void getElapseTimeMetric(String fileURI, Gauge<Long> gauge) {
         MetricsDataHolder.getInstance().getMetricService()
                 .gauge(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
-                        siddhiAppName, "elapse_time", filePath), Level.INFO, gauge);
+                        siddhiAppName, "elapse_time", Utils.getShortFilePath(fileURI)), Level.INFO, gauge);
     }
 
-    public Counter getTotalErrorCount() {
+    public Counter getTotalErrorCount(String fileURI) {
         return MetricsDataHolder.getInstance().getMetricService()
                 .counter(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
-                        siddhiAppName, "error_count", filePath), Level.INFO);
+                        siddhiAppName, "error_count", Utils.getShortFilePath(fileURI)), Level.INFO);
     }
 
-    public void getFileSizeMetric(Gauge<Double> gauge) {
+    public Counter getChunkPoolExhaustedMetric() {
+        return MetricsDataHolder.getInstance().getMetricService()
+                .counter(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
+                        siddhiAppName, "chunk_pool_exhausted_count", streamName), Level.INFO);
+    }
+
+    public void getFileSizeMetric(String fileURI, Gauge<Double> gauge) {
         MetricsDataHolder.getInstance().getMetricService()
                 .gauge(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
-                        siddhiAppName, "file_size", filePath), Level.INFO, gauge);
+                        siddhiAppName, "file_size", Utils.getShortFilePath(fileURI)), Level.INFO, gauge);
+    }
+
+    public void getTailingLagMetric(String fileURI) {
+        MetricsDataHolder.getInstance().getMetricService()
+                .gauge(getTailingLagMetricName(fileURI), Level.INFO, () -> tailingLagMap.getOrDefault(fileURI, 0L));
+    }
+
+    public void removeTailingLagMetric(String fileURI) {
+        tailingLagMap.remove(fileURI);
+        MetricsDataHolder.getInstance().getMetricService().remove(getTailingLagMetricName(fileURI));
+    }
+
+    private String getTailingLagMetricName(String fileURI) {
+        return String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
+                siddhiAppName, "tailing_lag", Utils.getShortFilePath(fileURI));
     }
 
-    public void getFileStatusMetric() {
+    public void getFileStatusMetric(String fileURI) {
+        String filePath = Utils.getShortFilePath(fileURI);
         MetricsDataHolder.getInstance().getMetricService()
                 .gauge(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
                         siddhiAppName, "file_status", filePath), Level.INFO, new FileStatusGauge(filePath));
     }
 
-    public void getStartedTimeMetric(long startTime) {
+    public void getStartedTimeMetric(String fileURI, long startTime) {
         MetricsDataHolder.getInstance().getMetricService()
                 .gauge(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
-                        siddhiAppName, "started_time", filePath), Level.INFO, () -> startTime);
+                        siddhiAppName, "started_time", Utils.getShortFilePath(fileURI)), Level.INFO, () -> startTime);
     }
 
-    public void getCompletedTimeMetric(long completedTime) {
+    public void getCompletedTimeMetric(String fileURI, long completedTime) {
         MetricsDataHolder.getInstance().getMetricService()
                 .gauge(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
-                        siddhiAppName, "completed_time", filePath), Level.INFO, () -> completedTime);
+                        siddhiAppName, "completed_time", Utils.getShortFilePath(fileURI)), Level.INFO,
+                        () -> completedTime);
     }
 
-    public void getTailEnabledMetric(int enable) {
+    public void getTailEnabledMetric(String fileURI, int enable) {
         MetricsDataHolder.getInstance().getMetricService()
                 .gauge(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
-                        siddhiAppName, "tailing_enable", filePath), Level.INFO, () -> enable);
+                        siddhiAppName, "tailing_enable", Utils.getShortFilePath(fileURI)), Level.INFO, () -> enable);
     }
 
     public void getReadPercentageMetric(String fileUri) {
         MetricsDataHolder.getInstance().getMetricService()
                 .gauge(String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
-                        siddhiAppName, "read_percentage", filePath), Level.INFO, () -> {
+                        siddhiAppName, "read_percentage", Utils.getShortFilePath(fileUri)), Level.INFO, () -> {
                             if (readPercentageMap.containsKey(fileUri)) {
                                 return readPercentageMap.get(fileUri);
                             }
@@ -137,14 +161,6 @@ public class SourceMetrics extends Metrics {
                         });
     }
 
-    public void setFilePath(String fileURI) {
-        this.filePath = Utils.getShortFilePath(fileURI);
-        this.fileName = Utils.getFileName(fileURI, this);
-        this.fileMoveMetrics.set_source(filePath);
-        this.fileDeleteMetrics.setSource(filePath);
-
-    }
-
     public void updateMetrics(ExecutorService executorService) {
         if (!isStarted) {
             executorService.execute(() -> {
@@ -193,6 +209,11 @@ public class SourceMetrics extends Metrics {
         }
     }
 
+    public void setTailingLag(String fileURI, long tailingLag) {
+        // saving the full file path as key(not the shortened file path)
+        this.tailingLagMap.put(fileURI, tailingLag);
+    }
+
     /**
      * Gauge implementation to get the status of the file.
      */
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import io.siddhi.core.stream.input.source.SourceEventListener;
+import io.siddhi.query.api.definition.StreamDefinition;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source event listener which collects the payloads of consecutive events having the same transport properties and
+ * passes them on to the underlying listener as a single array of payloads. Text payloads are passed on as a
+ * {@code String[]}.
+ * A batch is passed on once it holds the configured number of payloads, once the transport properties change, once
+ * it has been held for the linger time, or once it is flushed at the end of a file.
+ */
+public class BatchingEventListener implements SourceEventListener {
+    private final SourceEventListener sourceEventListener;
+    private final int batchSize;
+    private final long lingerTime;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final ChunkPool chunkPool;
+    private Object[] payloads;
+    private int count = 0;
+    private String[] transportProperties;
+    private long batchId = 0;
+
+    public BatchingEventListener(SourceEventListener sourceEventListener, int batchSize, long lingerTime,
+                                 ScheduledExecutorService scheduledExecutorService, ChunkPool chunkPool) {
+        this.sourceEventListener = sourceEventListener;
+        this.batchSize = batchSize;
+        this.lingerTime = lingerTime;
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.chunkPool = chunkPool;
+    }
+
+    /**
+     * Flushes the batch of the given listener, if it is a batching listener.
+     *
+     * @param sourceEventListener listener of the source
+     */
+    public static void flush(SourceEventListener sourceEventListener) {
+        if (sourceEventListener instanceof BatchingEventListener) {
+            ((BatchingEventListener) sourceEventListener).flush();
+        }
+    }
+
+    @Override
+    public StreamDefinition getStreamDefinition() {
+        return sourceEventListener.getStreamDefinition();
+    }
+
+    @Override
+    public synchronized void onEvent(Object eventObject, String[] transportProperties) {
+        if (count > 0 && (!Arrays.equals(this.transportProperties, transportProperties) ||
+                !payloads.getClass().getComponentType().isInstance(eventObject))) {
+            flush();
+        }
+        if (count == 0) {
+            /* the callers reuse the transport properties array across events */
+            this.transportProperties = transportProperties == null ? null : transportProperties.clone();
+            payloads = eventObject instanceof String ? new String[batchSize] : new Object[batchSize];
+            if (lingerTime > 0) {
+                long id = ++batchId;
+                scheduledExecutorService.schedule(() -> flush(id), lingerTime, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (chunkPool != null) {
+            /* the chunk is held until the batch is passed on */
+            chunkPool.retain(eventObject);
+        }
+        payloads[count++] = eventObject;
+        if (count == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public synchronized void onEvent(Object eventObject, Object[] transportProperties) {
+        flush();
+        sourceEventListener.onEvent(eventObject, transportProperties);
+    }
+
+    @Override
+    public synchronized void onEvent(Object eventObject, String[] transportProperties,
+                                     String[] transportSyncProperties) {
+        flush();
+        sourceEventListener.onEvent(eventObject, transportProperties, transportSyncProperties);
+    }
+
+    @Override
+    public synchronized void onEvent(Object eventObject, Object[] transportProperties,
+                                     String[] transportSyncProperties) {
+        flush();
+        sourceEventListener.onEvent(eventObject, transportProperties, transportSyncProperties);
+    }
+
+    /**
+     * Passes on the payloads collected so far.
+     */
+    public synchronized void flush() {
+        if (count == 0) {
+            return;
+        }
+        Object[] batch = count == payloads.length ? payloads : Arrays.copyOf(payloads, count);
+        payloads = null;
+        count = 0;
+        sourceEventListener.onEvent(batch, transportProperties);
+        if (chunkPool != null) {
+            for (Object payload : batch) {
+                chunkPool.release(payload);
+            }
+        }
+    }
+
+    private synchronized void flush(long id) {
+        if (id == batchId) {
+            flush();
+        }
+    }
+}
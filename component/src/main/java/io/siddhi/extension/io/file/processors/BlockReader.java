@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a block of a file at a given position, as {@link java.nio.channels.FileChannel#read(ByteBuffer, long)} does.
+ */
+interface BlockReader {
+
+    /**
+     * Reads bytes of the file into the remaining space of the block.
+     *
+     * @param block    buffer to read the bytes into, whose position is advanced by the number of bytes read
+     * @param position position in the file to read from
+     * @return number of bytes read, or -1 if the position is at or beyond the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    int read(ByteBuffer block, long position) throws IOException;
+}
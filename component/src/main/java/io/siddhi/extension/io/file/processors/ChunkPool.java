@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import io.siddhi.extension.io.file.metrics.SourceMetrics;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Pool of the arrays carrying the chunks of 'binary.chunked' mode, so that the arrays are reused instead of being
+ * allocated for every chunk.
+ * A leased chunk is reference counted. It is returned to the pool once every holder, such as the processor emitting
+ * it and a batching listener holding it in a batch, has released it. When all the chunks of the pool are in use, a
+ * chunk which does not belong to the pool is allocated and the exhaustion is counted.
+ */
+public class ChunkPool {
+    private static final Logger log = Logger.getLogger(ChunkPool.class);
+
+    private final int chunkSize;
+    private final int capacity;
+    private final ArrayDeque<byte[]> freeChunks;
+    private final Map<byte[], Integer> references = new IdentityHashMap<>();
+    private int allocated = 0;
+    private SourceMetrics metrics;
+
+    public ChunkPool(int chunkSize, int capacity) {
+        this.chunkSize = chunkSize;
+        this.capacity = capacity;
+        this.freeChunks = new ArrayDeque<>(capacity);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setMetrics(SourceMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Leases a chunk holding a reference to it.
+     *
+     * @return array of {@link #getChunkSize()} bytes
+     */
+    public synchronized byte[] lease() {
+        byte[] chunk = freeChunks.poll();
+        if (chunk == null) {
+            if (allocated == capacity) {
+                if (log.isDebugEnabled()) {
+                    log.debug("All the " + capacity + " chunks of the pool are in use, hence allocating a chunk.");
+                }
+                if (metrics != null) {
+                    metrics.getChunkPoolExhaustedMetric().inc();
+                }
+                return new byte[chunkSize];
+            }
+            chunk = new byte[chunkSize];
+            allocated++;
+        }
+        references.put(chunk, 1);
+        return chunk;
+    }
+
+    /**
+     * Adds a reference to the given payload if it is a leased chunk.
+     */
+    public synchronized void retain(Object payload) {
+        Integer count = references.get(payload);
+        if (count != null) {
+            references.put((byte[]) payload, count + 1);
+        }
+    }
+
+    /**
+     * Removes a reference to the given payload if it is a leased chunk, and returns it to the pool once no
+     * reference is left.
+     */
+    public synchronized void release(Object payload) {
+        Integer count = references.get(payload);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            references.put((byte[]) payload, count - 1);
+        } else {
+            references.remove(payload);
+            freeChunks.push((byte[]) payload);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits UTF-8 encoded content into records delimited by literal begin and/or end delimiters.
+ * The delimiters are searched on the raw bytes with the Boyer-Moore-Horspool algorithm and only the emitted records
+ * are decoded. The records are identified the same way as in REGEX mode.
+ * <ul>
+ * <li>begin and end delimiter: a record starts at a begin delimiter and ends at the first end delimiter after it.</li>
+ * <li>begin delimiter only: a record starts at a begin delimiter and ends right before the next begin delimiter.
+ * The last record ends at the end of the content.</li>
+ * <li>end delimiter only: a record starts after the leading whitespaces following the previous record and ends at
+ * the next end delimiter.</li>
+ * </ul>
+ * If an {@link OversizedRecordHandler} is set, a record longer than its maximum length is passed to it part by part
+ * instead of being left in the buffer until the record is completed.
+ */
+public class DelimitedRecordSplitter {
+    private final byte[] beginDelimiter;
+    private final byte[] endDelimiter;
+    private final int[] beginShifts;
+    private final int[] endShifts;
+    private boolean recordPending = false;
+    private int pendingScanned = 0;
+    private OversizedRecordHandler oversizedRecordHandler;
+    private boolean oversized = false;
+
+    public DelimitedRecordSplitter(String beginDelimiter, String endDelimiter) {
+        if (beginDelimiter == null && endDelimiter == null) {
+            throw new IllegalArgumentException("Either the begin delimiter or the end delimiter should be provided.");
+        }
+        this.beginDelimiter = toBytes(beginDelimiter);
+        this.endDelimiter = toBytes(endDelimiter);
+        this.beginShifts = this.beginDelimiter == null ? null : getShifts(this.beginDelimiter);
+        this.endShifts = this.endDelimiter == null ? null : getShifts(this.endDelimiter);
+    }
+
+    /**
+     * Sets the handler of the records longer than its maximum length.
+     */
+    public void setOversizedRecordHandler(OversizedRecordHandler oversizedRecordHandler) {
+        this.oversizedRecordHandler = oversizedRecordHandler;
+    }
+
+    /**
+     * Emits every record completed by the content of the given buffer.
+     * The position of the buffer is advanced past the consumed content. If {@code endOfInput} is false the bytes of
+     * the record which is not completed yet are left in the buffer so that the caller can compact and refill it.
+     * Once the end of the input is reached the splitter is reset for the next input.
+     *
+     * @param buffer     content to be split
+     * @param endOfInput whether the buffer holds the last bytes of the input
+     * @param consumer   consumer of the records
+     */
+    public void split(ByteBuffer buffer, boolean endOfInput, RecordConsumer consumer) {
+        int limit = buffer.limit();
+        if (oversized && !splitOversized(buffer, endOfInput, consumer)) {
+            return;
+        }
+        int recordStart = recordPending ? buffer.position() : -1;
+        int searchFrom = buffer.position() + pendingScanned;
+        while (true) {
+            if (beginDelimiter != null && (endDelimiter == null || recordStart < 0)) {
+                int begin = indexOf(buffer, searchFrom, limit, beginDelimiter, beginShifts);
+                if (begin < 0) {
+                    searchFrom = Math.max(searchFrom, limit - beginDelimiter.length + 1);
+                    break;
+                }
+                if (endDelimiter == null) {
+                    if (recordStart >= 0) {
+                        emit(buffer, recordStart, begin, consumer);
+                    }
+                    recordStart = begin;
+                    searchFrom = begin + beginDelimiter.length;
+                    continue;
+                }
+                recordStart = begin;
+                searchFrom = begin + beginDelimiter.length;
+            } else if (beginDelimiter == null && recordStart < 0) {
+                while (searchFrom < limit && (buffer.get(searchFrom) & 0xFF) <= ' ') {
+                    searchFrom++;
+                }
+                if (searchFrom == limit) {
+                    break;
+                }
+                recordStart = searchFrom;
+            }
+            int end = indexOf(buffer, searchFrom, limit, endDelimiter, endShifts);
+            if (end < 0) {
+                searchFrom = Math.max(searchFrom, limit - endDelimiter.length + 1);
+                break;
+            }
+            searchFrom = end + endDelimiter.length;
+            emit(buffer, recordStart, searchFrom, consumer);
+            recordStart = -1;
+        }
+        if (endOfInput) {
+            if (recordStart >= 0 && endDelimiter == null) {
+                emit(buffer, recordStart, limit, consumer);
+            }
+            buffer.position(limit);
+            recordPending = false;
+            pendingScanned = 0;
+        } else if (recordStart >= 0 && oversizedRecordHandler != null &&
+                searchFrom - recordStart > oversizedRecordHandler.getMaxLength()) {
+            /* the bytes already searched for the closing delimiter are handed over instead of being kept */
+            append(buffer, recordStart, searchFrom);
+            buffer.position(searchFrom);
+            oversized = true;
+            recordPending = false;
+            pendingScanned = 0;
+        } else {
+            int keepFrom = recordStart >= 0 ? recordStart : Math.min(searchFrom, limit);
+            buffer.position(keepFrom);
+            recordPending = recordStart >= 0;
+            pendingScanned = Math.max(searchFrom - keepFrom, 0);
+        }
+    }
+
+    /**
+     * Hands the content of the oversized record over to the handler up to the delimiter closing the record. Returns
+     * true if the record is closed and the rest of the buffer should be split as usual.
+     */
+    private boolean splitOversized(ByteBuffer buffer, boolean endOfInput, RecordConsumer consumer) {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        byte[] delimiter = endDelimiter != null ? endDelimiter : beginDelimiter;
+        int end = indexOf(buffer, start, limit, delimiter, endDelimiter != null ? endShifts : beginShifts);
+        if (end < 0 && !endOfInput) {
+            int safeEnd = Math.max(start, limit - delimiter.length + 1);
+            append(buffer, start, safeEnd);
+            buffer.position(safeEnd);
+            return false;
+        }
+        int recordEnd = end < 0 ? limit : endDelimiter != null ? end + endDelimiter.length : end;
+        append(buffer, start, recordEnd);
+        buffer.position(recordEnd);
+        oversized = false;
+        String record = oversizedRecordHandler.endText();
+        /* as for regular records, a record which is not closed by its end delimiter is dropped */
+        if (record != null && (end >= 0 || endDelimiter == null)) {
+            consumer.onRecord(record);
+        }
+        return true;
+    }
+
+    private void emit(ByteBuffer buffer, int start, int end, RecordConsumer consumer) {
+        if (oversizedRecordHandler != null && end - start > oversizedRecordHandler.getMaxLength()) {
+            append(buffer, start, end);
+            String record = oversizedRecordHandler.endText();
+            if (record != null) {
+                consumer.onRecord(record);
+            }
+            return;
+        }
+        consumer.onRecord(decode(buffer, start, end));
+    }
+
+    private void append(ByteBuffer buffer, int start, int end) {
+        ByteBuffer part = buffer.duplicate();
+        part.limit(end).position(start);
+        oversizedRecordHandler.append(part);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the delimiter in the range, or -1 if there is none.
+     */
+    static int indexOf(ByteBuffer buffer, int from, int to, byte[] delimiter, int[] shifts) {
+        int last = delimiter.length - 1;
+        byte lastByte = delimiter[last];
+        int index = from;
+        while (index + last < to) {
+            byte value = buffer.get(index + last);
+            if (value == lastByte) {
+                int i = last - 1;
+                while (i >= 0 && buffer.get(index + i) == delimiter[i]) {
+                    i--;
+                }
+                if (i < 0) {
+                    return index;
+                }
+            }
+            index += shifts[value & 0xFF];
+        }
+        return -1;
+    }
+
+    /**
+     * Builds the bad character shift table of the Boyer-Moore-Horspool algorithm.
+     */
+    static int[] getShifts(byte[] delimiter) {
+        int[] shifts = new int[256];
+        Arrays.fill(shifts, delimiter.length);
+        for (int i = 0; i < delimiter.length - 1; i++) {
+            shifts[delimiter[i] & 0xFF] = delimiter.length - 1 - i;
+        }
+        return shifts;
+    }
+
+    private static byte[] toBytes(String delimiter) {
+        if (delimiter == null) {
+            return null;
+        }
+        if (delimiter.isEmpty()) {
+            throw new IllegalArgumentException("Delimiters cannot be empty.");
+        }
+        return delimiter.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[end - start];
+        ByteBuffer record = buffer.duplicate();
+        record.limit(end).position(start);
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Consumer of the records emitted by the {@link DelimitedRecordSplitter}.
+     */
+    public interface RecordConsumer {
+        /**
+         * Handles a delimited record.
+         *
+         * @param record the record
+         */
+        void onRecord(String record);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import io.siddhi.core.stream.input.source.SourceEventListener;
+import io.siddhi.query.api.definition.StreamDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Source event listener which holds the events of a file read in parallel with other files, until they are passed
+ * on to the underlying listener in the order of the files. The events received after that are passed on as they are
+ * received.
+ * The transport properties of the held events are copied, as the callers reuse the arrays across events, and the
+ * pooled chunks are held until the events carrying them are passed on.
+ */
+public class FileEventBuffer implements SourceEventListener {
+    private final SourceEventListener sourceEventListener;
+    private final ChunkPool chunkPool;
+    private final List<Object[]> events = new ArrayList<>();
+    private boolean released;
+
+    public FileEventBuffer(SourceEventListener sourceEventListener, ChunkPool chunkPool) {
+        this.sourceEventListener = sourceEventListener;
+        this.chunkPool = chunkPool;
+    }
+
+    @Override
+    public StreamDefinition getStreamDefinition() {
+        return sourceEventListener.getStreamDefinition();
+    }
+
+    @Override
+    public synchronized void onEvent(Object eventObject, Object[] transportProperties) {
+        if (released) {
+            sourceEventListener.onEvent(eventObject, transportProperties);
+            return;
+        }
+        hold(eventObject, transportProperties == null ? null : transportProperties.clone(), null);
+    }
+
+    @Override
+    public synchronized void onEvent(Object eventObject, String[] transportProperties) {
+        if (released) {
+            sourceEventListener.onEvent(eventObject, transportProperties);
+            return;
+        }
+        hold(eventObject, transportProperties == null ? null : transportProperties.clone(), null);
+    }
+
+    @Override
+    public synchronized void onEvent(Object eventObject, Object[] transportProperties,
+                                     String[] transportSyncProperties) {
+        if (released) {
+            sourceEventListener.onEvent(eventObject, transportProperties, transportSyncProperties);
+            return;
+        }
+        hold(eventObject, transportProperties == null ? null : transportProperties.clone(),
+                transportSyncProperties == null ? null : transportSyncProperties.clone());
+    }
+
+    @Override
+    public synchronized void onEvent(Object eventObject, String[] transportProperties,
+                                     String[] transportSyncProperties) {
+        if (released) {
+            sourceEventListener.onEvent(eventObject, transportProperties, transportSyncProperties);
+            return;
+        }
+        hold(eventObject, transportProperties == null ? null : transportProperties.clone(),
+                transportSyncProperties == null ? null : transportSyncProperties.clone());
+    }
+
+    private void hold(Object eventObject, Object transportProperties, String[] transportSyncProperties) {
+        if (chunkPool != null) {
+            /* the chunk is held until the event is passed on */
+            chunkPool.retain(eventObject);
+        }
+        events.add(new Object[]{eventObject, transportProperties, transportSyncProperties});
+    }
+
+    /**
+     * Passes the held events on to the underlying listener, in the order they were received.
+     */
+    public synchronized void release() {
+        for (Object[] event : events) {
+            if (event[1] instanceof String[]) {
+                if (event[2] == null) {
+                    sourceEventListener.onEvent(event[0], (String[]) event[1]);
+                } else {
+                    sourceEventListener.onEvent(event[0], (String[]) event[1], (String[]) event[2]);
+                }
+            } else if (event[2] == null) {
+                sourceEventListener.onEvent(event[0], (Object[]) event[1]);
+            } else {
+                sourceEventListener.onEvent(event[0], (Object[]) event[1], (String[]) event[2]);
+            }
+            if (chunkPool != null) {
+                chunkPool.release(event[0]);
+            }
+        }
+        events.clear();
+        released = true;
+        BatchingEventListener.flush(sourceEventListener);
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import io.siddhi.extension.io.file.util.Constants;
+import io.siddhi.extension.io.file.util.FileSourceConfiguration;
+import io.siddhi.extension.util.Utils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.log4j.Logger;
+import org.wso2.transport.file.connector.server.util.FileTransportUtils;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Moves or deletes the files which are processed, in batches. The files submitted while a batch is moved or deleted
+ * are taken as the next batch, one batch at a time, in the order they are submitted.
+ * Local files are renamed atomically when the destination is in the same file system. Other files are moved through
+ * VFS, where the files of a batch share the file system, and hence the session, of the server, and a file is renamed
+ * on the server, such as with RNFR and RNTO on FTP, when the destination is on the same server. The destination
+ * folders of a batch are listed once, instead of checking whether each destination exists.
+ */
+public class FilePostProcessor {
+    private static final Logger log = Logger.getLogger(FilePostProcessor.class);
+
+    private final FileSourceConfiguration fileSourceConfiguration;
+    private final List<PostProcessRequest> requests = new ArrayList<>();
+    private boolean draining;
+
+    public FilePostProcessor(FileSourceConfiguration fileSourceConfiguration) {
+        this.fileSourceConfiguration = fileSourceConfiguration;
+    }
+
+    /**
+     * Submits a file to be moved.
+     *
+     * @param fileURI        URI of the file
+     * @param destinationURI URI the file is moved to
+     * @return the stage which completes with whether the file is moved
+     */
+    public CompletableFuture<Boolean> move(String fileURI, String destinationURI) {
+        return submit(new PostProcessRequest(fileURI, destinationURI));
+    }
+
+    /**
+     * Submits a file to be deleted.
+     *
+     * @param fileURI URI of the file
+     * @return the stage which completes with whether the file is deleted
+     */
+    public CompletableFuture<Boolean> delete(String fileURI) {
+        return submit(new PostProcessRequest(fileURI, null));
+    }
+
+    private CompletableFuture<Boolean> submit(PostProcessRequest request) {
+        synchronized (this) {
+            requests.add(request);
+            if (draining) {
+                return request.future;
+            }
+            draining = true;
+        }
+        try {
+            fileSourceConfiguration.getExecutorService().execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            log.error(String.format("Failed to submit file '%s' to be moved or deleted.",
+                    FileTransportUtils.maskURLPassword(request.fileURI)), e);
+            List<PostProcessRequest> rejected = takeBatch();
+            rejected.forEach(rejectedRequest -> rejectedRequest.future.complete(false));
+        }
+        return request.future;
+    }
+
+    private void drain() {
+        List<PostProcessRequest> batch;
+        while (!(batch = takeBatch()).isEmpty()) {
+            process(batch);
+        }
+    }
+
+    /**
+     * Takes the files submitted so far, or stops draining if there are none.
+     */
+    private synchronized List<PostProcessRequest> takeBatch() {
+        List<PostProcessRequest> batch = new ArrayList<>(requests);
+        requests.clear();
+        if (batch.isEmpty()) {
+            draining = false;
+        }
+        return batch;
+    }
+
+    private void process(List<PostProcessRequest> batch) {
+        Set<Path> localFolders = new HashSet<>();
+        Map<String, Set<String>> folderContents = new HashMap<>();
+        for (PostProcessRequest request : batch) {
+            boolean done = false;
+            try {
+                Path path = Utils.getLocalFilePath(request.fileURI);
+                Path destinationPath = request.destinationURI == null || path == null ? null :
+                        Utils.getLocalFilePath(request.destinationURI);
+                if (request.destinationURI == null) {
+                    done = path != null ? deleteLocalFile(path) : deleteFile(request.fileURI);
+                } else if (destinationPath != null) {
+                    done = moveLocalFile(path, destinationPath, localFolders);
+                } else {
+                    done = moveFile(request.fileURI, request.destinationURI, folderContents);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error(String.format("Failed to %s file '%s'.", request.destinationURI == null ? "delete" : "move",
+                        FileTransportUtils.maskURLPassword(request.fileURI)), e);
+            } finally {
+                request.future.complete(done);
+            }
+        }
+    }
+
+    private boolean deleteLocalFile(Path path) throws IOException {
+        try {
+            Files.delete(path);
+            return true;
+        } catch (NoSuchFileException e) {
+            log.error("Failed to delete file '" + path + "' as it is not found.");
+            return false;
+        }
+    }
+
+    private boolean deleteFile(String fileURI) throws IOException {
+        if (!Utils.getFileObject(fileURI, fileSourceConfiguration.getFileSystemOptions()).delete()) {
+            log.error("Failed to delete file '" + FileTransportUtils.maskURLPassword(fileURI) +
+                    "' as it is not found.");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean moveLocalFile(Path path, Path destination, Set<Path> folders) throws IOException {
+        Path folder = destination.getParent();
+        if (folder != null && folders.add(folder)) {
+            Files.createDirectories(folder);
+        }
+        if (Files.exists(destination)) {
+            String name = getNameIfExists(destination.getFileName().toString(), destination.toString());
+            if (name == null) {
+                return false;
+            }
+            destination = destination.resolveSibling(name);
+        }
+        try {
+            Files.move(path, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            /* the destination is in another file system, hence the file is copied and deleted */
+            Files.move(path, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    private boolean moveFile(String fileURI, String destinationURI, Map<String, Set<String>> folderContents)
+            throws IOException {
+        String fileSystemOptions = fileSourceConfiguration.getFileSystemOptions();
+        FileObject file = Utils.getFileObject(fileURI, fileSystemOptions);
+        FileObject destination = Utils.getFileObject(destinationURI, fileSystemOptions);
+        FileObject folder = destination.getParent();
+        String folderURI = folder.getName().getURI();
+        Set<String> names = folderContents.get(folderURI);
+        if (names == null) {
+            names = new HashSet<>();
+            if (folder.exists()) {
+                for (FileObject child : folder.getChildren()) {
+                    names.add(child.getName().getBaseName());
+                }
+            } else {
+                folder.createFolder();
+            }
+            folderContents.put(folderURI, names);
+        }
+        String name = destination.getName().getBaseName();
+        if (names.contains(name)) {
+            name = getNameIfExists(name, FileTransportUtils.maskURLPassword(destinationURI));
+            if (name == null) {
+                return false;
+            }
+            destination = folder.resolveFile(name);
+        }
+        /* VFS renames the file when the destination is in the same file system, or copies it and deletes it */
+        file.moveTo(destination);
+        names.add(name);
+        return true;
+    }
+
+    /**
+     * Returns the name the file is moved to when the destination already exists, according to the
+     * 'move.if.exist.mode', or null if the file is not to be moved.
+     */
+    private String getNameIfExists(String name, String destination) {
+        String moveIfExistMode = fileSourceConfiguration.getMoveIfExistMode();
+        if (Constants.KEEP.equalsIgnoreCase(moveIfExistMode)) {
+            return name + "_" + UUID.randomUUID().toString();
+        } else if (Constants.OVERWRITE.equalsIgnoreCase(moveIfExistMode)) {
+            return name;
+        }
+        log.error("The file at " + destination + " already exists or it is a directory and the mode used for if " +
+                "file exist is " + moveIfExistMode + ".");
+        return null;
+    }
+
+    /**
+     * A file submitted to be moved, or to be deleted if it has no destination.
+     */
+    private static class PostProcessRequest {
+        private final String fileURI;
+        private final String destinationURI;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        private PostProcessRequest(String fileURI, String destinationURI) {
+            this.fileURI = fileURI;
+            this.destinationURI = destinationURI;
+        }
+    }
+}
@@ -19,8 +19,8 @@
 package io.siddhi.extension.io.file.processors;
 
 import com.google.common.base.Stopwatch;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
 import io.siddhi.core.stream.input.source.SourceEventListener;
-import io.siddhi.core.stream.input.source.SourceMapper;
 import io.siddhi.extension.io.file.metrics.SourceMetrics;
 import io.siddhi.extension.io.file.metrics.StreamStatus;
 import io.siddhi.extension.io.file.util.Constants;
@@ -34,87 +34,170 @@ import org.wso2.carbon.messaging.CarbonMessageProcessor;
 import org.wso2.carbon.messaging.ClientConnector;
 import org.wso2.carbon.messaging.TransportSender;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Message processor for handling data retrieved from consumed files.
  */
 public class FileProcessor implements CarbonMessageProcessor {
     private static final Logger log = Logger.getLogger(FileProcessor.class);
+    /* transport properties which change from message to message of the same file */
+    private static final List<String> PER_MESSAGE_PROPERTIES = Arrays.asList(
+            org.wso2.transport.file.connector.server.util.Constants.EOF,
+            org.wso2.transport.file.connector.server.util.Constants.SEQUENCE_NUMBER,
+            Constants.CURRENT_POSITION);
 
     private final SourceEventListener sourceEventListener;
     private final FileSourceConfiguration fileSourceConfiguration;
     private final String mode;
-    private final Pattern pattern;
-    private int readBytes;
-    private final StringBuilder sb;
     private final String[] requiredProperties;
+    private final int[] perMessagePropertyIndexes;
+    private final LineSplitter lineSplitter = new LineSplitter();
+    private final LineSplitter.LineConsumer lineConsumer = this::onLine;
+    /* transport property values passed with every event of the file, see getRequiredPropertyValues */
+    private String[] cachedPropertyValues;
+    private final RegexRecordMatcher regexRecordMatcher;
+    private final DelimitedRecordSplitter delimitedRecordSplitter;
+    private final TextChunkSplitter textChunkSplitter;
+    private byte[] pendingChunkContent;
+    private final OversizedRecordHandler oversizedRecordHandler;
+    private final OversizedRecordHandler oversizedContentHandler;
+    private final ChunkPool chunkPool;
+    private boolean oversizedContent;
+    private String pendingRecord;
+    private final boolean headerPresent;
+    private final boolean readOnlyHeader;
+    private final boolean readOnlyTrailer;
+    private final boolean skipTrailer;
+    private final int eofIndex;
+    private final LineSplitter.LineConsumer nativeLineConsumer = this::onNativeLine;
+    private final ArrayDeque<String> heldLines = new ArrayDeque<>(2);
+    private Map<String, Object> fileProperties;
+    private boolean firstWindow;
+    private boolean skipHeader;
+    private boolean completed;
+    private byte[] fileContent;
+    private int fileContentLength;
+    private int chunkSize;
+    private int sequenceNumber = 1;
+    private long unreportedBytes;
 
     private Stopwatch stopwatch;
-    private long lineCount;
-    private long readingLine;
+    private long estimatedLineCount;
+    private long readLineCount;
     private long totalReadByteSize;
     private double fileSize;
+    private boolean readPercentageKnown = true;
     private String fileURI;
     private SourceMetrics metrics;
     private long startedTime;
     private long completedTime;
     private boolean send;
-    private long previousEventCount;
+    private long unreportedEventCount;
 
     public FileProcessor(SourceEventListener sourceEventListener, FileSourceConfiguration fileSourceConfiguration,
                          SourceMetrics sourceMetrics) {
+        this(sourceEventListener, fileSourceConfiguration, sourceMetrics,
+                fileSourceConfiguration.getCurrentlyReadingFileURI());
+    }
+
+    /**
+     * @param fileURI URI of the file processed, which is given by the caller when files are processed in parallel
+     */
+    public FileProcessor(SourceEventListener sourceEventListener, FileSourceConfiguration fileSourceConfiguration,
+                         SourceMetrics sourceMetrics, String fileURI) {
         this.sourceEventListener = sourceEventListener;
         this.fileSourceConfiguration = fileSourceConfiguration;
         this.requiredProperties = fileSourceConfiguration.getRequiredProperties();
+        this.perMessagePropertyIndexes = getPerMessagePropertyIndexes(requiredProperties);
         this.mode = fileSourceConfiguration.getMode();
-        if (Constants.REGEX.equalsIgnoreCase(mode) && fileSourceConfiguration.isTailingEnabled()) {
-            sb = fileSourceConfiguration.getTailingRegexStringBuilder();
+        if (Constants.REGEX.equalsIgnoreCase(mode)) {
+            regexRecordMatcher = new RegexRecordMatcher(fileSourceConfiguration.getBeginPattern(),
+                    fileSourceConfiguration.getEndPattern());
+        } else {
+            regexRecordMatcher = null;
+        }
+        if (Constants.DELIMITED.equalsIgnoreCase(mode)) {
+            delimitedRecordSplitter = new DelimitedRecordSplitter(fileSourceConfiguration.getBeginDelimiter(),
+                    fileSourceConfiguration.getEndDelimiter());
+        } else {
+            delimitedRecordSplitter = null;
+        }
+        if (Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
+            String delimiter = fileSourceConfiguration.getEndDelimiter();
+            textChunkSplitter = new TextChunkSplitter(Integer.parseInt(fileSourceConfiguration.getBufferSize()),
+                    delimiter == null ? Constants.DEFAULT_CHUNK_DELIMITER : delimiter);
+        } else {
+            textChunkSplitter = null;
+        }
+        headerPresent = Boolean.parseBoolean(fileSourceConfiguration.getHeaderPresent());
+        readOnlyHeader = Boolean.parseBoolean(fileSourceConfiguration.getReadOnlyHeader());
+        readOnlyTrailer = Boolean.parseBoolean(fileSourceConfiguration.getReadOnlyTrailer());
+        skipTrailer = Boolean.parseBoolean(fileSourceConfiguration.getSkipTrailer());
+        eofIndex = Arrays.asList(requiredProperties)
+                .indexOf(org.wso2.transport.file.connector.server.util.Constants.EOF);
+        if (fileSourceConfiguration.getMaxRecordLength() > 0) {
+            oversizedRecordHandler = new OversizedRecordHandler(fileSourceConfiguration.getOversizedRecordPolicy(),
+                    fileSourceConfiguration.getMaxRecordLength(), sourceMetrics);
+            lineSplitter.setOversizedRecordHandler(oversizedRecordHandler);
+            if (regexRecordMatcher != null) {
+                regexRecordMatcher.setOversizedRecordHandler(oversizedRecordHandler);
+            }
+            if (delimitedRecordSplitter != null) {
+                delimitedRecordSplitter.setOversizedRecordHandler(oversizedRecordHandler);
+            }
+        } else {
+            oversizedRecordHandler = null;
+        }
+        chunkPool = fileSourceConfiguration.getChunkPool();
+        if (fileSourceConfiguration.getMaxFileSizeInMemory() > 0) {
+            oversizedContentHandler = new OversizedRecordHandler(fileSourceConfiguration.getOversizedRecordPolicy(),
+                    fileSourceConfiguration.getMaxFileSizeInMemory(), sourceMetrics);
         } else {
-            sb = new StringBuilder();
+            oversizedContentHandler = null;
         }
-        pattern = fileSourceConfiguration.getPattern();
         if (sourceMetrics != null) {
             this.metrics = sourceMetrics;
-            this.fileURI = fileSourceConfiguration.getCurrentlyReadingFileURI();
-            previousEventCount = ((SourceMapper) sourceEventListener).getEventCount();
+            this.fileURI = fileURI;
             stopwatch = Stopwatch.createStarted();
             startedTime = System.currentTimeMillis();
             fileSize = Utils.getFileSize(fileURI);
-            metrics.getStartedTimeMetric(System.currentTimeMillis());
+            metrics.getStartedTimeMetric(fileURI, System.currentTimeMillis());
             boolean add = metrics.getFilesURI().add(fileURI);
             if (add) {
                 try {
-                    lineCount = Utils.getLinesCount(fileURI);
-                    metrics.getFileSizeMetric(() -> fileSize);
+                    if (Constants.LINE.equalsIgnoreCase(mode) &&
+                            Constants.NONE.equals(fileSourceConfiguration.getCompression())) {
+                        estimatedLineCount = Utils.estimateLinesCount(fileURI);
+                    }
+                    metrics.getFileSizeMetric(fileURI, () -> fileSize);
                     metrics.getReadPercentageMetric(fileURI);
-                    metrics.getReadLineCountMetric().inc(lineCount);
-                    metrics.getValidEventCountMetric();
-                    metrics.getTotalErrorCount();
+                    metrics.getReadLineCountMetric(fileURI).inc(estimatedLineCount);
+                    metrics.getValidEventCountMetric(fileURI);
+                    metrics.getTotalErrorCount(fileURI);
                     if (fileSourceConfiguration.isTailingEnabled()) {
-                        metrics.getTailEnabledMetric(1);
-                        metrics.getElapseTimeMetric(() -> stopwatch.elapsed().toMillis());
+                        metrics.getTailEnabledMetric(fileURI, 1);
+                        metrics.getElapseTimeMetric(fileURI, () -> stopwatch.elapsed().toMillis());
                     } else {
-                        metrics.getTailEnabledMetric(0);
-                        metrics.getElapseTimeMetric(() -> {
+                        metrics.getTailEnabledMetric(fileURI, 0);
+                        metrics.getElapseTimeMetric(fileURI, () -> {
                             if (completedTime != 0) {
                                 return completedTime - startedTime;
                             }
                             return 0L;
                         });
                     }
-                    metrics.getFileStatusMetric();
+                    metrics.getFileStatusMetric(fileURI);
                 } catch (IOException e) {
-                    log.error("Error occurred while getting the lines count in '" + fileURI + "'.", e);
+                    log.error("Error occurred while estimating the lines count in '" + fileURI + "'.", e);
                 }
             }
         }
@@ -122,177 +205,125 @@ public class FileProcessor implements CarbonMessageProcessor {
 
     public boolean receive(CarbonMessage carbonMessage, CarbonCallback carbonCallback) throws Exception {
         if (carbonMessage instanceof BinaryCarbonMessage) {
-            byte[] content = ((BinaryCarbonMessage) carbonMessage).readBytes().array();
+            byte[] content = toByteArray(((BinaryCarbonMessage) carbonMessage).readBytes());
 
             String[] requiredPropertyValues = new String[0];
             Map requiredPropertiesMap = new HashMap();
 
-            if (Constants.REGEX.equalsIgnoreCase(mode) || Constants.TEXT_FULL.equalsIgnoreCase(mode)) {
+            if (Constants.REGEX.equalsIgnoreCase(mode) || Constants.TEXT_FULL.equalsIgnoreCase(mode) ||
+                    Constants.DELIMITED.equalsIgnoreCase(mode) || Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
                 extractRequiredProperties(carbonMessage, requiredPropertiesMap);
             } else {
                 requiredPropertyValues = getRequiredPropertyValues(carbonMessage);
             }
 
-            long filePointer = 0;
-            if (Constants.LINE.equalsIgnoreCase(mode) && fileSourceConfiguration.isTailingEnabled()) {
-                filePointer = (Long) carbonMessage.getProperties().get(Constants.CURRENT_POSITION);
-            }
             if (carbonCallback != null) {
                 carbonCallback.done(carbonMessage);
             }
 
-            String msg = new String(content, StandardCharsets.UTF_8);
+            String msg;
+            String filePath = (String) carbonMessage.getProperty(
+                    org.wso2.transport.file.connector.server.util.Constants.FILE_PATH);
+            if (oversizedRecordHandler != null) {
+                oversizedRecordHandler.setFilePath(filePath);
+            }
             if (Constants.TEXT_FULL.equalsIgnoreCase(mode)) {
-                if (msg.length() > 0) {
-                    sourceEventListener.onEvent(new String(content, StandardCharsets.UTF_8),
+                if (oversizedContentHandler != null && content.length > oversizedContentHandler.getMaxLength()) {
+                    oversizedContentHandler.setFilePath(filePath);
+                    oversizedContentHandler.append(ByteBuffer.wrap(content));
+                    msg = oversizedContentHandler.endText();
+                } else {
+                    msg = new String(content, StandardCharsets.UTF_8);
+                }
+                if (msg != null && msg.length() > 0) {
+                    onEvent(msg,
                             getRequiredPropertyValuesInRegexMode(true, requiredPropertiesMap));
                     send = true;
+                    countLine();
                 }
+                completeFile();
             } else if (Constants.BINARY_FULL.equalsIgnoreCase(mode)) {
-                if (msg.length() > 0) {
-                    sourceEventListener.onEvent(content, requiredPropertyValues);
+                byte[] payload = content;
+                if (oversizedContentHandler != null && content.length > oversizedContentHandler.getMaxLength()) {
+                    oversizedContentHandler.setFilePath(filePath);
+                    oversizedContentHandler.append(ByteBuffer.wrap(content));
+                    payload = oversizedContentHandler.end();
+                }
+                if (payload != null && payload.length > 0) {
+                    onEvent(payload, requiredPropertyValues);
                     send = true;
                 }
+                completeFile();
             } else if (Constants.BINARY_CHUNKED.equalsIgnoreCase(mode)) {
-                if (msg.length() > 0) {
-                    sourceEventListener.onEvent(content, requiredPropertyValues);
+                if (content.length > 0) {
+                    onEvent(content, requiredPropertyValues);
+                }
+                if (Boolean.TRUE.equals(carbonMessage.getProperty(
+                        org.wso2.transport.file.connector.server.util.Constants.EOF))) {
+                    completeFile();
+                }
+            } else if (Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
+                /* the file is read in 'binary.chunked' mode by the VFS client, hence the chunks are re-aligned */
+                boolean eof = Boolean.TRUE.equals(carbonMessage.getProperty(
+                        org.wso2.transport.file.connector.server.util.Constants.EOF));
+                ByteBuffer buffer;
+                if (pendingChunkContent == null) {
+                    buffer = ByteBuffer.wrap(content);
+                } else {
+                    buffer = ByteBuffer.allocate(pendingChunkContent.length + content.length);
+                    buffer.put(pendingChunkContent).put(content).flip();
+                }
+                textChunkSplitter.split(buffer, eof, (chunk, last) -> onTextChunk(chunk, last, requiredPropertiesMap));
+                pendingChunkContent = buffer.hasRemaining() ? toByteArray(buffer) : null;
+                if (eof) {
+                    completeFile();
                 }
             } else if (Constants.LINE.equalsIgnoreCase(mode)) {
                 if (!fileSourceConfiguration.isTailingEnabled()) {
-                    InputStream is = new ByteArrayInputStream(content);
-                    BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(is, Constants.UTF_8));
-                    String line;
-                    while ((line = bufferedReader.readLine()) != null) {
-                        if (line.length() > 0) {
-                            readBytes = line.length();
-                            sourceEventListener.onEvent(line.trim(), requiredPropertyValues);
-                            send = true;
-                        }
+                    lineSplitter.split(ByteBuffer.wrap(content), true, lineConsumer);
+                    if (Boolean.TRUE.equals(carbonMessage.getProperty(
+                            org.wso2.transport.file.connector.server.util.Constants.EOF))) {
+                        completeFile();
                     }
                 } else {
-                    if (msg.length() > 0) {
-                        readBytes = msg.getBytes(StandardCharsets.UTF_8).length;
-                        fileSourceConfiguration.updateFilePointer(filePointer);
-                        sourceEventListener.onEvent(msg, requiredPropertyValues);
+                    if (oversizedRecordHandler != null && content.length > oversizedRecordHandler.getMaxLength()) {
+                        oversizedRecordHandler.append(ByteBuffer.wrap(content));
+                        msg = oversizedRecordHandler.endText();
+                    } else {
+                        msg = new String(content, StandardCharsets.UTF_8);
+                    }
+                    if (msg != null && msg.length() > 0) {
+                        onEvent(msg, requiredPropertyValues);
                         send = true;
+                        countLine();
                         if (metrics != null) {
                             increaseTailingMetrics();
                         }
                     }
                 }
             } else if (Constants.REGEX.equalsIgnoreCase(mode)) {
-                int lastMatchedIndex = 0;
-                int remainedLength = 0;
                 if (!fileSourceConfiguration.isTailingEnabled()) {
-                    char[] buf = new char[10];
-                    InputStream is = new ByteArrayInputStream(content);
-                    BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(is, Constants.UTF_8));
-                    int endOfStream = bufferedReader.read(buf); //number of characters read
-                    String event = null;
-                    String prevEvent = null;
-                    while (endOfStream != -1) {
-                        lastMatchedIndex = 0;
-                        sb.append(new String(buf));
-                        Matcher matcher = pattern.matcher(sb.toString().trim());
-                        boolean matchFound = false;
-                        while (matcher.find()) {
-                            matchFound = true;
-                            prevEvent = event;
-                            event = matcher.group(0);
-                            lastMatchedIndex = matcher.end();
-                            if (fileSourceConfiguration.getEndRegex() == null) {
-                                try {
-                                    lastMatchedIndex -= (fileSourceConfiguration.getBeginRegex().length() - 2);
-                                    event = event.substring(0, lastMatchedIndex);
-                                } catch (StringIndexOutOfBoundsException e) {
-                                    log.error(e.getMessage());
-                                }
-                            } else if (fileSourceConfiguration.getBeginRegex() == null) {
-                                if (remainedLength < lastMatchedIndex) {
-                                    lastMatchedIndex += remainedLength;
-                                }
-                                remainedLength = sb.length() - event.length() - remainedLength - 1;
-                            }
-                            buf = new char[10]; // to clean existing content of buffer
-                            endOfStream = bufferedReader.read(buf);
-                        }
-                        if (matchFound) {
-                            if (prevEvent != null) {
-                                sourceEventListener.onEvent(prevEvent,
-                                        getRequiredPropertyValuesInRegexMode(false, requiredPropertiesMap));
-                                send = true;
-                            }
-                            prevEvent = event;
-                        } else {
-                            buf = new char[10]; // to clean existing content of buffer
-                            endOfStream = bufferedReader.read(buf);
-                        }
-                        String tmp;
-                        tmp = sb.substring(lastMatchedIndex);
-                        sb.setLength(0);
-                        sb.append(tmp);
-                    }
-
-                    /*
-                    Handling last regex match since it will be having only one begin regex
-                    instead of two to match.
-                    */
-                    if (fileSourceConfiguration.getBeginRegex() != null &&
-                            fileSourceConfiguration.getEndRegex() == null) {
-                        Pattern p = Pattern.compile(fileSourceConfiguration.getBeginRegex() + "((.|\n)*?)");
-                        Matcher m = p.matcher(sb.toString());
-                        while (m.find()) {
-                            if (prevEvent != null) {
-                                sourceEventListener.onEvent(prevEvent,
-                                        getRequiredPropertyValuesInRegexMode(false, requiredPropertiesMap));
-                                prevEvent = null;
-                                send = true;
-                            }
-                            event = m.group(0);
-                            event = sb.substring(sb.indexOf(event));
-                            prevEvent = event;
-                        }
-                    }
-                    //Sending out the last event
-                    if (prevEvent != null) {
-                        sourceEventListener.onEvent(prevEvent,
-                                getRequiredPropertyValuesInRegexMode(true, requiredPropertiesMap));
-                        send = true;
-                    }
+                    regexRecordMatcher.feed(ByteBuffer.wrap(content), true,
+                            record -> onRecord(record, requiredPropertiesMap));
+                    onLastRecord(requiredPropertiesMap);
+                    completeFile();
                 } else {
-                    fileSourceConfiguration.updateFilePointer(readBytes);
-
-                    sb.append(new String(content, StandardCharsets.UTF_8));
-                    Matcher matcher = pattern.matcher(sb.toString().trim());
-                    while (matcher.find()) {
-                        String event = matcher.group(0);
-                        lastMatchedIndex = matcher.end();
-                        if (fileSourceConfiguration.getEndRegex() == null) {
-                            lastMatchedIndex -= (fileSourceConfiguration.getBeginRegex().length() - 2);
-                            event = event.substring(0, lastMatchedIndex);
-                        } else if (fileSourceConfiguration.getBeginRegex() == null) {
-                            if (remainedLength < lastMatchedIndex) {
-                                lastMatchedIndex += remainedLength;
-                            }
-                            remainedLength = sb.length() - event.length() - remainedLength - 1;
-                        }
-                        sourceEventListener.onEvent(event, requiredPropertyValues);
-                        send = true;
-                        readBytes += content.length;
-                        if (metrics != null) {
-                            increaseTailingMetrics();
-                        }
-                    }
-                    String tmp;
-                    tmp = sb.substring(lastMatchedIndex);
-                    sb.setLength(0);
-                    sb.append(tmp);
+                    /* the tailed lines are fed with their line separators, so that the fed bytes are those of the
+                    file and the pending records are read again from the file after a restart */
+                    ByteBuffer line = ByteBuffer.allocate(content.length + 1);
+                    line.put(content).put((byte) '\n').flip();
+                    String[] propertyValues = requiredPropertyValues;
+                    regexRecordMatcher.feed(line, false, record -> onTailedRecord(record, propertyValues));
                 }
+            } else if (Constants.DELIMITED.equalsIgnoreCase(mode)) {
+                delimitedRecordSplitter.split(ByteBuffer.wrap(content), true,
+                        record -> onRecord(record, requiredPropertiesMap));
+                onLastRecord(requiredPropertiesMap);
+                completeFile();
             }
             if (metrics != null && send) {
-                increaseMetrics(content.length);
                 totalReadByteSize += content.length;
-                readingLine++;
+                increaseMetrics(content.length);
                 completedTime = System.currentTimeMillis();
                 send = false;
             }
@@ -302,6 +333,126 @@ public class FileProcessor implements CarbonMessageProcessor {
         }
     }
 
+    /**
+     * Returns the bytes held by the buffer. The backing array is returned as it is when the buffer spans the whole
+     * array, as the buffers of the messages of the VFS client do, so that binary content is not copied.
+     */
+    private static byte[] toByteArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 &&
+                buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Prepares to receive the content of a file read by the {@link NativeFileReader}.
+     *
+     * @param properties    transport properties of the file
+     * @param contentLength number of bytes of the content, or -1 if it is not known in advance as for decompressed
+     *                      content
+     */
+    public void startFile(Map<String, Object> properties, long contentLength) {
+        fileProperties = properties;
+        /* the read percentage cannot be derived from the number of decompressed bytes */
+        readPercentageKnown = contentLength >= 0;
+        if (metrics != null && readPercentageKnown) {
+            fileSize = contentLength;
+        }
+        firstWindow = true;
+        skipHeader = headerPresent && !readOnlyHeader && !readOnlyTrailer;
+        completed = false;
+        heldLines.clear();
+        String filePath = (String) properties.get(org.wso2.transport.file.connector.server.util.Constants.FILE_PATH);
+        if (oversizedRecordHandler != null) {
+            oversizedRecordHandler.setFilePath(filePath);
+        }
+        if (Constants.LINE.equalsIgnoreCase(mode)) {
+            cachedPropertyValues = getRequiredPropertyValuesInRegexMode(false, properties);
+        } else if (Constants.BINARY_CHUNKED.equalsIgnoreCase(mode)) {
+            chunkSize = Integer.parseInt(fileSourceConfiguration.getBufferSize());
+            sequenceNumber = 1;
+        } else if (Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
+            sequenceNumber = 1;
+        } else if (Constants.TEXT_FULL.equalsIgnoreCase(mode) || Constants.BINARY_FULL.equalsIgnoreCase(mode)) {
+            int maxLength = Integer.MAX_VALUE - 8;
+            if (oversizedContentHandler != null) {
+                oversizedContentHandler.setFilePath(filePath);
+                maxLength = oversizedContentHandler.getMaxLength();
+            }
+            fileContent = new byte[contentLength < 0 ? Math.min(NativeFileReader.STREAM_BUFFER_SIZE, maxLength) :
+                    (int) Math.min(contentLength, maxLength)];
+            fileContentLength = 0;
+            oversizedContent = false;
+        }
+    }
+
+    /**
+     * Splits a window of the content of a file read by the {@link NativeFileReader} into events.
+     * The position of the window is advanced past the consumed content. Unless {@code endOfInput} is true, the
+     * content left unconsumed has to be passed again at the start of the next window.
+     *
+     * @param content    window of the content
+     * @param endOfInput whether the window holds the last bytes of the file
+     */
+    public void receive(ByteBuffer content, boolean endOfInput) {
+        int start = content.position();
+        if (Constants.TEXT_FULL.equalsIgnoreCase(mode) || Constants.BINARY_FULL.equalsIgnoreCase(mode)) {
+            appendContent(content);
+            if (endOfInput) {
+                onContent();
+            }
+        } else if (Constants.BINARY_CHUNKED.equalsIgnoreCase(mode)) {
+            splitChunks(content, endOfInput);
+        } else if (Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
+            textChunkSplitter.split(content, endOfInput, (chunk, last) -> onTextChunk(chunk, last, fileProperties));
+        } else if (Constants.LINE.equalsIgnoreCase(mode)) {
+            if (firstWindow && content.hasRemaining()) {
+                byte first = content.get(content.position());
+                if (first == '\n' || first == '\r') {
+                    /* an empty first line is the header, but it is not emitted by the line splitter */
+                    skipHeader = false;
+                    completed = readOnlyHeader;
+                }
+            }
+            lineSplitter.split(content, endOfInput, nativeLineConsumer);
+            if (endOfInput) {
+                onLastNativeLine();
+            }
+        } else if (Constants.REGEX.equalsIgnoreCase(mode)) {
+            regexRecordMatcher.feed(content, endOfInput, record -> onRecord(record, fileProperties));
+            if (endOfInput) {
+                onLastRecord(fileProperties);
+            }
+        } else if (Constants.DELIMITED.equalsIgnoreCase(mode)) {
+            delimitedRecordSplitter.split(content, endOfInput, record -> onRecord(record, fileProperties));
+            if (endOfInput) {
+                onLastRecord(fileProperties);
+            }
+        }
+        if (endOfInput) {
+            completeFile();
+        }
+        firstWindow = false;
+        unreportedBytes += content.position() - start;
+        if (metrics != null && send) {
+            totalReadByteSize += unreportedBytes;
+            increaseMetrics((int) unreportedBytes);
+            completedTime = System.currentTimeMillis();
+            send = false;
+            unreportedBytes = 0;
+        }
+    }
+
+    /**
+     * Returns whether the rest of the file being read by the {@link NativeFileReader} is not needed anymore.
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
     public void setTransportSender(TransportSender transportSender) {
 
     }
@@ -315,40 +466,295 @@ public class FileProcessor implements CarbonMessageProcessor {
     }
 
     private void increaseMetrics(int byteLength) {
-        metrics.getTotalFileReadCount().inc();
+        metrics.getTotalFileReadCount(fileURI).inc();
         metrics.getTotalReadsMetrics().inc();
-        metrics.getReadByteMetric().inc(byteLength);
-        metrics.getElapseTimeMetric(() -> stopwatch.elapsed().toMillis());
-        metrics.setReadPercentage(totalReadByteSize / fileSize * 100, fileURI);
-        long eventCount = ((SourceMapper) sourceEventListener).getEventCount() - previousEventCount;
-        metrics.getValidEventCountMetric().inc(eventCount);
-        previousEventCount = ((SourceMapper) sourceEventListener).getEventCount();
+        metrics.getReadByteMetric(fileURI).inc(byteLength);
+        metrics.getElapseTimeMetric(fileURI, () -> stopwatch.elapsed().toMillis());
+        if (fileSize > 0 && readPercentageKnown) {
+            metrics.setReadPercentage(totalReadByteSize / fileSize * 100, fileURI);
+        }
+        metrics.getValidEventCountMetric(fileURI).inc(unreportedEventCount);
+        unreportedEventCount = 0;
+    }
+
+    /**
+     * Passes an event of the file on. The events are counted by the processor of each file, since the source mapper
+     * is shared by the files processed in parallel.
+     */
+    private void onEvent(Object eventObject, String[] transportProperties) {
+        sourceEventListener.onEvent(eventObject, transportProperties);
+        unreportedEventCount++;
     }
 
     private void increaseTailingMetrics() {
-        if (readingLine >= lineCount) {
-            metrics.getReadLineCountMetric().inc();
-        }
-        fileSize = Utils.getFileSize(fileSourceConfiguration.getCurrentlyReadingFileURI());
+        fileSize = Utils.getFileSize(fileURI);
         metrics.getSourceFileStatusMap().replace(Utils.getShortFilePath(fileURI), StreamStatus.PROCESSING);
         metrics.getTailEnabledFilesMap().replace(Utils.getShortFilePath(fileURI), System.currentTimeMillis());
     }
 
+    private void onLine(String line, int rawLength) {
+        onEvent(line, cachedPropertyValues);
+        send = true;
+        countLine();
+    }
+
+    /**
+     * The read line count metric starts from the estimated line count of the file and is only increased once more
+     * lines are read than estimated. It is corrected to the actual count once the whole file is read.
+     */
+    private void countLine() {
+        if (metrics != null && ++readLineCount > estimatedLineCount) {
+            metrics.getReadLineCountMetric(fileURI).inc();
+        }
+    }
+
+    /**
+     * Corrects the read line count metric and passes on the batched events once the whole file is read.
+     */
+    private void completeFile() {
+        if (metrics != null && readLineCount < estimatedLineCount) {
+            metrics.getReadLineCountMetric(fileURI).dec(estimatedLineCount - readLineCount);
+        }
+        estimatedLineCount = readLineCount;
+        BatchingEventListener.flush(sourceEventListener);
+    }
+
+    /**
+     * Lines are held back according to the header and trailer options of the source, as done by the VFS client.
+     */
+    private void onNativeLine(String line, int rawLength) {
+        if (completed) {
+            return;
+        }
+        if (skipHeader) {
+            skipHeader = false;
+            return;
+        }
+        if (readOnlyHeader) {
+            emitLine(line, true);
+            completed = true;
+            return;
+        }
+        if (heldLines.size() == (skipTrailer ? 2 : 1)) {
+            String heldLine = heldLines.poll();
+            if (!readOnlyTrailer) {
+                emitLine(heldLine, false);
+            }
+        }
+        heldLines.add(line);
+    }
+
+    private void onLastNativeLine() {
+        if (!completed && heldLines.size() == (skipTrailer ? 2 : 1)) {
+            emitLine(heldLines.poll(), true);
+        }
+        heldLines.clear();
+        completed = true;
+    }
+
+    private void emitLine(String line, boolean eof) {
+        if (eofIndex >= 0) {
+            cachedPropertyValues[eofIndex] = String.valueOf(eof);
+        }
+        onEvent(line, cachedPropertyValues);
+        send = true;
+        countLine();
+    }
+
+    private void appendContent(ByteBuffer content) {
+        int length = content.remaining();
+        if (oversizedContent) {
+            oversizedContentHandler.append(content);
+            return;
+        }
+        if (oversizedContentHandler != null && oversizedContentHandler.getMaxLength() - fileContentLength < length) {
+            /* the content read so far is handed over with the rest of the file instead of being kept */
+            oversizedContentHandler.append(ByteBuffer.wrap(fileContent, 0, fileContentLength));
+            oversizedContentHandler.append(content);
+            fileContent = null;
+            oversizedContent = true;
+            return;
+        }
+        if (fileContent.length - fileContentLength < length) {
+            if (Integer.MAX_VALUE - 8 - fileContentLength < length) {
+                throw new SiddhiAppRuntimeException("Content of file '" + fileProperties.get(
+                        org.wso2.transport.file.connector.server.util.Constants.FILE_PATH) +
+                        "' is too large to be read in '" + mode + "' mode.");
+            }
+            int maxLength = oversizedContentHandler == null ? Integer.MAX_VALUE - 8 :
+                    oversizedContentHandler.getMaxLength();
+            fileContent = Arrays.copyOf(fileContent, (int) Math.min(maxLength,
+                    Math.max(fileContentLength + (long) length, fileContent.length * 2L)));
+        }
+        content.get(fileContent, fileContentLength, length);
+        fileContentLength += length;
+    }
+
+    private void onContent() {
+        if (oversizedContent) {
+            oversizedContent = false;
+            if (Constants.TEXT_FULL.equalsIgnoreCase(mode)) {
+                String text = oversizedContentHandler.endText();
+                if (text != null && !text.isEmpty()) {
+                    onEvent(text, getRequiredPropertyValuesInRegexMode(true, fileProperties));
+                    countLine();
+                    send = true;
+                }
+            } else {
+                byte[] content = oversizedContentHandler.end();
+                if (content != null && content.length > 0) {
+                    onEvent(content, getRequiredPropertyValues(fileProperties));
+                    send = true;
+                }
+            }
+            return;
+        }
+        byte[] content = fileContentLength == fileContent.length ?
+                fileContent : Arrays.copyOf(fileContent, fileContentLength);
+        fileContent = null;
+        if (content.length == 0) {
+            return;
+        }
+        if (Constants.TEXT_FULL.equalsIgnoreCase(mode)) {
+            onEvent(new String(content, StandardCharsets.UTF_8),
+                    getRequiredPropertyValuesInRegexMode(true, fileProperties));
+            countLine();
+        } else {
+            onEvent(content, getRequiredPropertyValues(fileProperties));
+        }
+        send = true;
+    }
+
+    /**
+     * Chunks are emitted with the same transport properties as the chunks read by the VFS client.
+     */
+    private void splitChunks(ByteBuffer content, boolean endOfInput) {
+        while (content.remaining() > chunkSize || (endOfInput && content.hasRemaining())) {
+            int length = Math.min(chunkSize, content.remaining());
+            byte[] chunk = chunkPool != null && length == chunkPool.getChunkSize() ?
+                    chunkPool.lease() : new byte[length];
+            content.get(chunk);
+            fileProperties.put(org.wso2.transport.file.connector.server.util.Constants.SEQUENCE_NUMBER,
+                    sequenceNumber++);
+            fileProperties.put(org.wso2.transport.file.connector.server.util.Constants.EOF,
+                    endOfInput && !content.hasRemaining());
+            onEvent(chunk, getRequiredPropertyValues(fileProperties));
+            if (chunkPool != null) {
+                /* the pool is only given along with batches, hence the batch holding the chunk retains it */
+                chunkPool.release(chunk);
+            }
+        }
+    }
+
+    /**
+     * Text chunks are emitted with the sequence number of the chunk, and are flagged with trp:eof as in 'text.full'
+     * mode.
+     */
+    private void onTextChunk(String chunk, boolean last, Map requiredPropertiesMap) {
+        requiredPropertiesMap.put(org.wso2.transport.file.connector.server.util.Constants.SEQUENCE_NUMBER,
+                sequenceNumber++);
+        onEvent(chunk, getRequiredPropertyValuesInRegexMode(last, requiredPropertiesMap));
+        send = true;
+        countLine();
+    }
+
+    /**
+     * Records are emitted one behind so that the last record of the file can be flagged with trp:eof.
+     */
+    private void onRecord(String record, Map requiredPropertiesMap) {
+        if (pendingRecord != null) {
+            onEvent(pendingRecord,
+                    getRequiredPropertyValuesInRegexMode(false, requiredPropertiesMap));
+            send = true;
+            countLine();
+        }
+        pendingRecord = record;
+    }
+
+    private void onTailedRecord(String record, String[] requiredPropertyValues) {
+        onEvent(record, requiredPropertyValues);
+        send = true;
+        countLine();
+        if (metrics != null) {
+            increaseTailingMetrics();
+        }
+    }
+
+    /**
+     * Returns the number of the tailed bytes which are held for the records not completed yet. The file pointer of a
+     * file tailed in 'regex' mode is kept that many bytes behind the read position, so that the pending records are
+     * read again instead of being persisted.
+     */
+    public long getPendingByteCount() {
+        return regexRecordMatcher != null && fileSourceConfiguration.isTailingEnabled() ?
+                regexRecordMatcher.getPendingByteCount() : 0;
+    }
+
+    private void onLastRecord(Map requiredPropertiesMap) {
+        if (pendingRecord != null) {
+            onEvent(pendingRecord,
+                    getRequiredPropertyValuesInRegexMode(true, requiredPropertiesMap));
+            pendingRecord = null;
+            send = true;
+            countLine();
+        }
+    }
+
+    /**
+     * The required property values are resolved once per file. Only the properties which differ from message to
+     * message are refreshed on the subsequent messages.
+     * The returned array is reused, and updated in place, for all the events of the file. The mapper copies the
+     * values into the event while the event is passed on, hence listeners which hold events beyond that, such as
+     * {@link BatchingEventListener} and {@link FileEventBuffer}, have to hold a copy of the array.
+     */
     private String[] getRequiredPropertyValues(CarbonMessage carbonMessage) {
+        if (cachedPropertyValues == null) {
+            cachedPropertyValues = new String[requiredProperties.length];
+            for (int i = 0; i < requiredProperties.length; i++) {
+                cachedPropertyValues[i] = getRequiredPropertyValue(carbonMessage, requiredProperties[i]);
+            }
+        } else {
+            for (int i : perMessagePropertyIndexes) {
+                cachedPropertyValues[i] = getRequiredPropertyValue(carbonMessage, requiredProperties[i]);
+            }
+        }
+        return cachedPropertyValues;
+    }
+
+    private String[] getRequiredPropertyValues(Map<String, Object> properties) {
         String[] values = new String[requiredProperties.length];
-        int i = 0;
-        for (String propertyKey : requiredProperties) {
-            Object value = carbonMessage.getProperty(propertyKey);
+        for (int i = 0; i < requiredProperties.length; i++) {
+            Object value = properties.get(requiredProperties[i]);
             if (value != null) {
-                values[i++] = value.toString();
+                values[i] = value.toString();
             } else {
-                log.error("Failed to find required transport property '" + propertyKey + "'. Assigning null value");
-                values[i++] = null;
+                log.error("Failed to find required transport property '" + requiredProperties[i] +
+                        "'. Assigning null value");
             }
         }
         return values;
     }
 
+    private String getRequiredPropertyValue(CarbonMessage carbonMessage, String propertyKey) {
+        Object value = carbonMessage.getProperty(propertyKey);
+        if (value != null) {
+            return value.toString();
+        } else {
+            log.error("Failed to find required transport property '" + propertyKey + "'. Assigning null value");
+            return null;
+        }
+    }
+
+    private static int[] getPerMessagePropertyIndexes(String[] requiredProperties) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < requiredProperties.length; i++) {
+            if (PER_MESSAGE_PROPERTIES.contains(requiredProperties[i])) {
+                indexes.add(i);
+            }
+        }
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
     /**
      * In Regex mode, the user may request for property trp:eof which is not extracted from the carbonMessage.
      * @param eof Whether EOF reached or not
@@ -0,0 +1,651 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import io.siddhi.extension.io.file.metrics.SourceMetrics;
+import io.siddhi.extension.io.file.metrics.StreamStatus;
+import io.siddhi.extension.io.file.util.Constants;
+import io.siddhi.extension.io.file.util.FileSourceConfiguration;
+import io.siddhi.extension.util.Utils;
+import org.apache.commons.vfs2.FileContent;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.RandomAccessContent;
+import org.apache.commons.vfs2.util.RandomAccessMode;
+import org.apache.log4j.Logger;
+import org.wso2.carbon.messaging.BinaryCarbonMessage;
+import org.wso2.carbon.messaging.CarbonMessage;
+import org.wso2.carbon.messaging.CarbonMessageProcessor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.wso2.transport.file.connector.server.util.Constants.CURRENT_POSITION;
+import static org.wso2.transport.file.connector.server.util.Constants.FILE_TRANSPORT_EVENT_NAME;
+import static org.wso2.transport.file.connector.server.util.Constants.FILE_UPDATE;
+
+/**
+ * Tails a file and passes each completed line to the message processor, in a message of the same form as the
+ * messages of the file server connector of the carbon file transport, so that the lines are processed the same way.
+ * The file is read in turns on the readers of the {@link FileTailerPool} of the source, at most one turn at a time,
+ * and the position after the last line passed on is kept in the file pointer map of the source.
+ * <ul>
+ * <li>A file in the local file system is read whenever the watch service of the pool notifies that it is modified.
+ * It is also read once per polling interval, in case an event is missed or the watch service of the platform falls
+ * back to polling. The file is kept open and its position is kept against its identity, i.e. the file key of its
+ * attributes, rather than its URI. When the file is renamed or deleted, as on a rotation, the rest of it is read
+ * through the open channel before the file created at the path is tailed from its beginning. A rotated file which
+ * is tailed at its new path, as in a tailed directory, continues from where the tailer of its previous path
+ * stopped.</li>
+ * <li>Any other file is polled through VFS with an adaptive interval and number of lines per poll. While the file
+ * keeps growing, the interval is shortened down to the minimum polling interval and, whenever a poll reads as many
+ * lines as allowed, the number of lines per poll is doubled up to the maximum. Once nothing is appended, the
+ * interval is doubled on every poll up to the maximum polling interval and the number of lines per poll is
+ * reset.</li>
+ * </ul>
+ * A file which has not been tailed before is tailed from the start position of the source if it is one of the
+ * files found when the source started tailing, or from its beginning otherwise.
+ * A turn reads a bounded number of lines, after which the tailer yields to the other tailers of the pool.
+ * The bytes of a line which is not completed yet are kept until the line is completed, rather than read again on
+ * every turn. In 'line' mode, a line longer than the maximum record length is passed to an
+ * {@link OversizedRecordHandler} as it is read. In 'regex' mode, it is cut one byte past the maximum record length
+ * instead, so that the record matcher still applies the oversized record policy to its record.
+ * If the file is truncated, it is tailed again from its beginning. The number of bytes appended to the file but not
+ * read yet is exposed as the tailing lag metric.
+ */
+public class FileTailer {
+    private static final Logger log = Logger.getLogger(FileTailer.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MIN_LINES_PER_POLL = 10;
+    private static final int LINES_PER_TURN = 4096;
+
+    private final String fileURI;
+    private final Path path;
+    private final CarbonMessageProcessor messageProcessor;
+    private final FileSourceConfiguration fileSourceConfiguration;
+    private final FileTailerPool fileTailerPool;
+    private final SourceMetrics metrics;
+    private final long pollingInterval;
+    private final long minPollingInterval;
+    private final long maxPollingInterval;
+    private final int maxLinesPerPoll;
+    private final long startOffset;
+    private final int startLines;
+    private final boolean lineMode;
+    private final OversizedRecordHandler oversizedRecordHandler;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger signals = new AtomicInteger();
+    private final Runnable turn = this::turn;
+    private final Runnable signal = this::signal;
+    private volatile ScheduledFuture<?> nextPoll;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private boolean oversized;
+    private volatile boolean closing;
+    private FileObject fileObject;
+    private FileChannel channel;
+    private Object fileKey;
+    private String filePointerKey;
+    private long position;
+    private boolean startPositionPending;
+    private long interval;
+    private int linesPerPoll;
+
+    public FileTailer(String fileURI, CarbonMessageProcessor messageProcessor,
+                      FileSourceConfiguration fileSourceConfiguration, SourceMetrics metrics) {
+        this.fileURI = fileURI;
+        this.path = getTailablePath(fileSourceConfiguration, fileURI);
+        this.messageProcessor = messageProcessor;
+        this.fileSourceConfiguration = fileSourceConfiguration;
+        this.fileTailerPool = fileSourceConfiguration.getFileTailerPool();
+        this.metrics = metrics;
+        this.filePointerKey = fileURI;
+        this.startOffset = fileSourceConfiguration.getTailingStartOffset();
+        this.startLines = fileSourceConfiguration.getTailingStartLines();
+        this.startPositionPending = fileSourceConfiguration.getStartPositionFileURIs().remove(fileURI);
+        if (path == null) {
+            Long filePointer = fileSourceConfiguration.adoptFilePointer(fileURI, fileURI);
+            if (filePointer != null) {
+                this.position = filePointer;
+                this.startPositionPending = false;
+            }
+        }
+        this.minPollingInterval = fileSourceConfiguration.getMinFilePollingInterval();
+        this.maxPollingInterval = fileSourceConfiguration.getMaxFilePollingInterval();
+        this.pollingInterval = Math.min(Math.max(Long.parseLong(fileSourceConfiguration.getFilePollingInterval()),
+                minPollingInterval), maxPollingInterval);
+        this.maxLinesPerPoll = fileSourceConfiguration.getMaxLinesPerPoll() < 0 ? Integer.MAX_VALUE :
+                fileSourceConfiguration.getMaxLinesPerPoll();
+        this.interval = pollingInterval;
+        this.linesPerPoll = Math.min(MIN_LINES_PER_POLL, maxLinesPerPoll);
+        this.lineMode = Constants.LINE.equalsIgnoreCase(fileSourceConfiguration.getMode());
+        int maxRecordLength = fileSourceConfiguration.getMaxRecordLength();
+        if (maxRecordLength <= 0) {
+            this.oversizedRecordHandler = null;
+        } else if (lineMode) {
+            this.oversizedRecordHandler = new OversizedRecordHandler(fileSourceConfiguration.getOversizedRecordPolicy(),
+                    maxRecordLength, metrics);
+        } else {
+            this.oversizedRecordHandler = new OversizedRecordHandler(Constants.TRUNCATE, maxRecordLength + 1L, null);
+        }
+        if (oversizedRecordHandler != null) {
+            oversizedRecordHandler.setFilePath(fileURI);
+        }
+        if (metrics != null) {
+            metrics.getTailingLagMetric(fileURI);
+        }
+    }
+
+    /**
+     * Returns the local path of the file if it can be tailed on the events of a watch service, or null if it has to
+     * be polled.
+     *
+     * @param fileSourceConfiguration configuration of the source
+     * @param fileURI                 URI of the file
+     * @return local path of the file or null
+     */
+    private static Path getTailablePath(FileSourceConfiguration fileSourceConfiguration, String fileURI) {
+        if (!fileSourceConfiguration.isNativeReaderEnabled()) {
+            return null;
+        }
+        Path path = Utils.getLocalFilePath(fileURI);
+        return path == null ? null : path.toAbsolutePath();
+    }
+
+    /**
+     * Starts tailing the file. Does nothing if the tailer is already started.
+     */
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        if (path != null) {
+            fileTailerPool.watch(path, this);
+        }
+        signal();
+    }
+
+    /**
+     * Stops tailing the file. The tailer can be started again, to continue from where it stopped.
+     */
+    public void stop() {
+        running.set(false);
+        if (path != null) {
+            fileTailerPool.unwatch(path, this);
+        }
+        ScheduledFuture<?> nextPoll = this.nextPoll;
+        if (nextPoll != null) {
+            nextPoll.cancel(false);
+        }
+    }
+
+    /**
+     * Stops tailing the file for good and closes it. The tailing lag metric of the file is removed, unless the file
+     * is tailed by another tailer by now.
+     */
+    public void close() {
+        stop();
+        synchronized (this) {
+            if (metrics != null) {
+                FileTailer fileTailer = fileSourceConfiguration.getFileTailers().get(fileURI);
+                if (fileTailer == null || fileTailer == this) {
+                    metrics.removeTailingLagMetric(fileURI);
+                }
+            }
+            try {
+                discardPendingLine();
+                closeLocalFile(closing);
+                if (fileObject != null) {
+                    fileObject.close();
+                    fileObject = null;
+                }
+            } catch (IOException e) {
+                log.warn("Failed to close tailed file '" + fileURI + "'.", e);
+            }
+        }
+    }
+
+    /**
+     * Closes the tailer once the rest of the file is read, as the file is deleted or renamed.
+     */
+    public void closeWhenDrained() {
+        closing = true;
+        if (running.get()) {
+            signal();
+        } else {
+            close();
+        }
+    }
+
+    /**
+     * Queues a turn of the tailer to the readers of the pool, unless a turn is already queued or running, in which
+     * case that turn reads the file once more after it is done.
+     */
+    void signal() {
+        if (running.get() && signals.getAndIncrement() == 0) {
+            fileTailerPool.execute(turn);
+        }
+    }
+
+    private void turn() {
+        int seenSignals = signals.get();
+        ScheduledFuture<?> nextPoll = this.nextPoll;
+        if (nextPoll != null) {
+            nextPoll.cancel(false);
+        }
+        long delay;
+        try {
+            delay = tail();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to tail file '" + fileURI + "'.", e);
+            if (metrics != null) {
+                metrics.getSourceFileStatusMap().replace(Utils.getShortFilePath(fileURI), StreamStatus.ERROR);
+                metrics.getTotalErrorCount(fileURI).inc();
+            }
+            delay = maxPollingInterval;
+        }
+        if (closing && delay != 0) {
+            close();
+            signals.set(0);
+            return;
+        }
+        if ((delay == 0 && running.get()) || !signals.compareAndSet(seenSignals, 0)) {
+            /* the file is read once more, either to read the rest of it or since it is modified during the turn */
+            signals.set(1);
+            fileTailerPool.execute(turn);
+        } else if (running.get()) {
+            this.nextPoll = fileTailerPool.schedule(signal, delay);
+        }
+    }
+
+    /**
+     * Reads the next lines of the file.
+     *
+     * @return the delay until the file is read next, or 0 if it should be read again right away
+     */
+    private synchronized long tail() throws IOException {
+        if (path != null) {
+            return drainLocalFile() ? 0 : pollingInterval;
+        }
+        int maxLines = Math.min(linesPerPoll, LINES_PER_TURN);
+        int lines = pollRemoteFile(maxLines);
+        if (lines == maxLines) {
+            linesPerPoll = (int) Math.min(linesPerPoll * 2L, maxLinesPerPoll);
+            interval = minPollingInterval;
+            return maxLines == LINES_PER_TURN ? 0 : interval;
+        } else if (lines > 0) {
+            interval = Math.max(interval / 2, minPollingInterval);
+        } else {
+            interval = Math.min(interval * 2, maxPollingInterval);
+            linesPerPoll = Math.min(MIN_LINES_PER_POLL, maxLinesPerPoll);
+        }
+        return interval;
+    }
+
+    /**
+     * Reads the next lines of the local file, or the rest of the file read so far if it is renamed or deleted.
+     *
+     * @return true if the file should be read again right away
+     */
+    private boolean drainLocalFile() throws IOException {
+        if (channel == null && !openLocalFile()) {
+            return false;
+        }
+        BasicFileAttributes attributes = readAttributes();
+        checkTruncated(channel.size());
+        channel.position(position + buffer.position());
+        int lines = drain(channel, LINES_PER_TURN);
+        setLag(Math.max(channel.size() - position, 0));
+        if (lines == LINES_PER_TURN) {
+            return true;
+        }
+        if (attributes != null && Objects.equals(fileKey, attributes.fileKey())) {
+            return false;
+        }
+        /* the file is renamed or deleted, and the rest of it is read through the open channel by now */
+        closeLocalFile(true);
+        if (attributes == null) {
+            log.info("File '" + fileURI + "' is renamed or deleted, hence waiting for it to be created again.");
+            return false;
+        }
+        log.info("File '" + fileURI + "' is rotated, hence tailing the new file from its beginning.");
+        return true;
+    }
+
+    /**
+     * Opens the file at the path, to be read from the position kept against its identity, or from its beginning if
+     * it has not been tailed yet.
+     *
+     * @return false if the file does not exist yet, or is still read by the tailer of the path it was renamed from
+     */
+    private boolean openLocalFile() throws IOException {
+        BasicFileAttributes attributes = readAttributes();
+        if (attributes == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("File '" + path + "' does not exist, hence waiting for it to be created.");
+            }
+            return false;
+        }
+        Object fileKey = attributes.fileKey();
+        if (fileKey != null && !fileTailerPool.acquire(fileKey, this)) {
+            if (log.isDebugEnabled()) {
+                log.debug("File '" + path + "' is still read at the path it was renamed from, hence waiting for " +
+                        "it to be released.");
+            }
+            return false;
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            attributes = readAttributes();
+        } catch (NoSuchFileException e) {
+            attributes = null;
+        }
+        if (attributes == null || !Objects.equals(fileKey, attributes.fileKey())) {
+            /* the file is rotated while being opened, hence it is opened again on the next turn */
+            if (channel != null) {
+                channel.close();
+            }
+            if (fileKey != null) {
+                fileTailerPool.release(fileKey, this);
+            }
+            return false;
+        }
+        this.channel = channel;
+        this.fileKey = fileKey;
+        this.filePointerKey = fileKey == null ? fileURI : fileKey.toString();
+        Long filePointer = fileSourceConfiguration.adoptFilePointer(filePointerKey, fileURI);
+        if (filePointer != null) {
+            position = filePointer;
+        } else if (startPositionPending) {
+            position = findStartPosition(channel::read, channel.size());
+        } else {
+            position = 0;
+        }
+        startPositionPending = false;
+        return true;
+    }
+
+    /**
+     * @param retire whether the file is no longer at the path, in which case its position is only kept for a while,
+     *               for the file to be tailed at its new path
+     */
+    private void closeLocalFile(boolean retire) throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } finally {
+            discardPendingLine();
+            channel = null;
+            if (fileKey != null) {
+                fileTailerPool.release(fileKey, this);
+                if (retire) {
+                    fileSourceConfiguration.retireFilePointer(filePointerKey);
+                }
+                fileKey = null;
+            }
+        }
+    }
+
+    /**
+     * @return the attributes of the file at the path, or null if there is no such file
+     */
+    private BasicFileAttributes readAttributes() throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private int pollRemoteFile(int maxLines) throws IOException {
+        if (fileObject == null) {
+            fileObject = Utils.getFileObject(fileURI, fileSourceConfiguration.getFileSystemOptions());
+        }
+        fileObject.refresh();
+        if (!fileObject.exists()) {
+            if (log.isDebugEnabled()) {
+                log.debug("File '" + fileURI + "' does not exist, hence waiting for it to be created.");
+            }
+            return 0;
+        }
+        FileContent content = fileObject.getContent();
+        try {
+            long size = content.getSize();
+            if (startPositionPending) {
+                RandomAccessContent randomAccessContent = content.getRandomAccessContent(RandomAccessMode.READ);
+                try {
+                    position = findStartPosition((block, offset) -> {
+                        int length = block.remaining();
+                        randomAccessContent.seek(offset);
+                        randomAccessContent.readFully(block.array(), block.position(), length);
+                        block.position(block.limit());
+                        return length;
+                    }, size);
+                } finally {
+                    randomAccessContent.close();
+                }
+                startPositionPending = false;
+            }
+            checkTruncated(size);
+            if (size == position) {
+                setLag(0);
+                return 0;
+            }
+            RandomAccessContent randomAccessContent = content.getRandomAccessContent(RandomAccessMode.READ);
+            try {
+                randomAccessContent.seek(position + buffer.position());
+                int lines = drain(Channels.newChannel(randomAccessContent.getInputStream()), maxLines);
+                setLag(Math.max(size - position, 0));
+                return lines;
+            } finally {
+                randomAccessContent.close();
+            }
+        } finally {
+            content.close();
+        }
+    }
+
+    /**
+     * Finds the position to tail a file from as per the start position of the source, which is either a byte offset,
+     * a number of lines before the end of the file, or the first line of a start timestamp. The last lines are found
+     * by reading the file backwards from its end, and an incomplete line at the end of the file is read once it is
+     * completed.
+     *
+     * @param reader reader of the blocks of the file
+     * @param size   size of the file
+     * @return the position to tail the file from
+     */
+    private long findStartPosition(BlockReader reader, long size) throws IOException {
+        TimestampSeeker timestampSeeker = fileSourceConfiguration.getTimestampSeeker();
+        long startPosition;
+        if (timestampSeeker != null) {
+            startPosition = timestampSeeker.seek(reader, size);
+        } else if (startLines < 0) {
+            startPosition = Math.min(startOffset, size);
+        } else {
+            startPosition = findLastLines(reader, size);
+        }
+        log.info("Tailing file '" + fileURI + "' from position " + startPosition + " as per the start position.");
+        return startPosition;
+    }
+
+    private long findLastLines(BlockReader reader, long size) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(BUFFER_SIZE);
+        int newLines = 0;
+        long blockEnd = size;
+        while (blockEnd > 0) {
+            long blockStart = Math.max(blockEnd - BUFFER_SIZE, 0);
+            block.clear();
+            block.limit((int) (blockEnd - blockStart));
+            while (block.hasRemaining()) {
+                if (reader.read(block, blockStart + block.position()) <= 0) {
+                    break;
+                }
+            }
+            for (int i = block.position() - 1; i >= 0; i--) {
+                /* the first new line found ends the last line, hence the lines start after one more new line */
+                if (block.get(i) == '\n' && ++newLines > startLines) {
+                    return blockStart + i + 1;
+                }
+            }
+            blockEnd = blockStart;
+        }
+        return 0;
+    }
+
+    private void setLag(long lag) {
+        /* the lag is not set once the tailer is stopped, as the metric may be removed by then */
+        if (metrics != null && running.get()) {
+            metrics.setTailingLag(fileURI, lag);
+        }
+    }
+
+    private void checkTruncated(long size) {
+        if (size < position) {
+            log.info("File '" + fileURI + "' is truncated, hence tailing it from the beginning.");
+            discardPendingLine();
+            position = 0;
+        }
+    }
+
+    /**
+     * Reads the content of the channel from the current position and passes up to the given number of completed
+     * lines on. The bytes of a line which is not completed yet are kept in the buffer, and the channel has to be
+     * positioned past them on the next read, whereas the lines beyond the given number are read again. The buffer is
+     * shrunk back to its initial size after a long line, in which case the bytes of a line not completed yet are
+     * dropped if they do not fit, to be read again on the next read.
+     *
+     * @return number of lines passed on
+     */
+    private int drain(ReadableByteChannel channel, int maxLines) throws IOException {
+        int lines = 0;
+        while (running.get() && lines < maxLines && channel.read(buffer) > 0) {
+            buffer.flip();
+            int lineStart = 0;
+            for (int i = 0; i < buffer.limit() && lines < maxLines; i++) {
+                if (buffer.get(i) == '\n') {
+                    position += i + 1 - lineStart;
+                    if (oversized) {
+                        onOversizedLine(lineStart, i);
+                    } else {
+                        onLine(Arrays.copyOfRange(buffer.array(), lineStart, i));
+                    }
+                    lineStart = i + 1;
+                    lines++;
+                }
+            }
+            if (lines == maxLines) {
+                /* the lines left in the buffer are read again on the next read */
+                buffer.clear();
+                break;
+            }
+            buffer.position(lineStart);
+            if (oversizedRecordHandler != null &&
+                    (oversized || buffer.remaining() > oversizedRecordHandler.getMaxLength())) {
+                /* the line is passed to the handler as it is read, hence at most the maximum length is held */
+                oversized = true;
+                position += buffer.remaining();
+                oversizedRecordHandler.append(buffer);
+            }
+            if (lineStart == 0 && buffer.limit() == buffer.capacity()) {
+                ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+                grown.put(buffer);
+                buffer = grown;
+            } else {
+                buffer.compact();
+            }
+        }
+        if (buffer.capacity() > BUFFER_SIZE) {
+            ByteBuffer shrunk = ByteBuffer.allocate(BUFFER_SIZE);
+            if (buffer.position() < BUFFER_SIZE) {
+                buffer.flip();
+                shrunk.put(buffer);
+            }
+            buffer = shrunk;
+        }
+        return lines;
+    }
+
+    /**
+     * Ends the oversized line with the bytes of the buffer up to the given end, and passes the line returned by the
+     * handler on, if any.
+     */
+    private void onOversizedLine(int start, int end) {
+        ByteBuffer part = buffer.duplicate();
+        part.limit(end).position(start);
+        oversizedRecordHandler.append(part);
+        oversized = false;
+        byte[] line = lineMode ? toBytes(oversizedRecordHandler.endText()) : oversizedRecordHandler.end();
+        if (line != null) {
+            onLine(line);
+        } else {
+            fileSourceConfiguration.updateFilePointer(filePointerKey, position);
+        }
+    }
+
+    private static byte[] toBytes(String line) {
+        return line == null ? null : line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Drops the bytes read of a line which is not completed yet, as the file is tailed from another position.
+     */
+    private void discardPendingLine() {
+        buffer.clear();
+        if (oversized) {
+            oversized = false;
+            oversizedRecordHandler.end();
+        }
+    }
+
+    private void onLine(byte[] line) {
+        CarbonMessage carbonMessage = new BinaryCarbonMessage(ByteBuffer.wrap(line), true);
+        carbonMessage.setProperty(FILE_TRANSPORT_EVENT_NAME, FILE_UPDATE);
+        carbonMessage.setProperty(CURRENT_POSITION, position);
+        try {
+            messageProcessor.receive(carbonMessage, null);
+        } catch (Exception e) {
+            log.error("Failed to process a line tailed from file '" + fileURI + "'.", e);
+            if (metrics != null) {
+                metrics.getTotalErrorCount(fileURI).inc();
+            }
+        }
+        long filePointer = position;
+        if (messageProcessor instanceof FileProcessor) {
+            /* the records not completed yet are read again from the file after a restart */
+            filePointer = Math.max(0, position - ((FileProcessor) messageProcessor).getPendingByteCount());
+        }
+        fileSourceConfiguration.updateFilePointer(filePointerKey, filePointer);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of readers shared by all the {@link FileTailer}s of a source.
+ * A tailer is queued to the readers whenever there may be new content in its file, and reads a bounded number of
+ * lines in its turn. If there are more lines, it is queued again behind the other tailers, so that the readers are
+ * shared fairly between the files however fast each of them grows.
+ * The directories of all the tailed files in the local file system are registered with a single {@link WatchService},
+ * whose events are dispatched to the tailers of the modified files.
+ * A local file is read by a single tailer at a time, even while it is tailed at two paths, as right after it is
+ * rotated in a tailed directory.
+ */
+public class FileTailerPool {
+    private static final Logger log = Logger.getLogger(FileTailerPool.class);
+
+    private final ExecutorService readers;
+    private final ExecutorService executorService;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final Map<Path, FileTailer> watchedFiles = new ConcurrentHashMap<>();
+    private final Map<Object, FileTailer> readFiles = new ConcurrentHashMap<>();
+    private WatchService watchService;
+
+    /**
+     * @param parallelism              number of readers
+     * @param executorService          executor service to run the dispatcher of the watch service events on
+     * @param scheduledExecutorService executor service to schedule the polls of the files on
+     */
+    public FileTailerPool(int parallelism, ExecutorService executorService,
+                          ScheduledExecutorService scheduledExecutorService) {
+        this.readers = Executors.newFixedThreadPool(parallelism);
+        this.executorService = executorService;
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    void execute(Runnable task) {
+        try {
+            readers.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Ignored a tailing task as the tailer pool is shut down.");
+            }
+        }
+    }
+
+    ScheduledFuture<?> schedule(Runnable task, long delay) {
+        try {
+            return scheduledExecutorService.schedule(task, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Ignored a poll of a tailed file as the scheduler is shut down.");
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Registers the directory of the file with the watch service, so that the tailer is signalled whenever the file
+     * is created or modified.
+     *
+     * @return false if the directory could not be registered, in which case the file can only be polled
+     */
+    synchronized boolean watch(Path path, FileTailer fileTailer) {
+        try {
+            if (watchService == null) {
+                WatchService watchService = path.getFileSystem().newWatchService();
+                executorService.execute(() -> dispatchEvents(watchService));
+                this.watchService = watchService;
+            }
+            path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            watchedFiles.put(path, fileTailer);
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to watch the directory of file '" + path + "', hence it is only polled.", e);
+            return false;
+        }
+    }
+
+    void unwatch(Path path, FileTailer fileTailer) {
+        watchedFiles.remove(path, fileTailer);
+    }
+
+    /**
+     * Makes the tailer the reader of the file of the given identity, unless another tailer reads it, as the tailer
+     * of the path the file was renamed from does until it reads the rest of the file.
+     *
+     * @param fileKey    file key of the attributes of the file
+     * @param fileTailer tailer to read the file
+     * @return true if the tailer is the reader of the file
+     */
+    boolean acquire(Object fileKey, FileTailer fileTailer) {
+        FileTailer reader = readFiles.putIfAbsent(fileKey, fileTailer);
+        return reader == null || reader == fileTailer;
+    }
+
+    void release(Object fileKey, FileTailer fileTailer) {
+        readFiles.remove(fileKey, fileTailer);
+    }
+
+    /**
+     * Stops the readers and the watch service. The tailers should be stopped beforehand.
+     */
+    public synchronized void shutdown() {
+        readers.shutdown();
+        watchedFiles.clear();
+        readFiles.clear();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.error("Failed to close the watch service of the tailed files.", e);
+            }
+            watchService = null;
+        }
+    }
+
+    private void dispatchEvents(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey watchKey = watchService.take();
+                Path directory = (Path) watchKey.watchable();
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        /* the modified files are not known, hence all the files of the directory are signalled */
+                        watchedFiles.forEach((path, fileTailer) -> {
+                            if (directory.equals(path.getParent())) {
+                                fileTailer.signal();
+                            }
+                        });
+                    } else {
+                        FileTailer fileTailer = watchedFiles.get(directory.resolve((Path) event.context()));
+                        if (fileTailer != null) {
+                            fileTailer.signal();
+                        }
+                    }
+                }
+                watchKey.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Stopped watching the tailed files.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import io.siddhi.extension.io.file.util.FileSourceConfiguration;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Sparse index of the byte offsets of the lines of a local file, which holds the offset of every Nth line so that a
+ * line is found by reading at most N lines instead of all the lines before it.
+ * The index is persisted in a file next to the indexed file or in a given directory, together with the size and the
+ * last modified time of the indexed file. The persisted index is reused as it is while the file is not modified, is
+ * grown from its last indexed line when the file is appended, and is built again otherwise. An append is recognized
+ * by the file being larger than when indexed and the last indexed bytes being unchanged.
+ * As with {@link LineSplitter}, '\n', '\r' and "\r\n" are treated as line terminators, but empty lines are counted.
+ */
+public class LineOffsetIndex {
+    private static final Logger log = Logger.getLogger(LineOffsetIndex.class);
+    private static final int MAGIC = 0x4C4F4958;
+    private static final int VERSION = 1;
+    private static final String INDEX_FILE_EXTENSION = ".lineidx";
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+    private static final int CHECKSUM_LENGTH = 4 * 1024;
+
+    private final Path indexFile;
+    private final int interval;
+    private long[] offsets = new long[16];
+    private int offsetCount = 1;
+    /* the number of lines terminated before the indexed length, which is the start of the first line not indexed */
+    private long lineCount;
+    private long indexedLength;
+    private long fileSize;
+    private long lastModifiedTime;
+    private long checksum;
+
+    private LineOffsetIndex(Path indexFile, int interval) {
+        this.indexFile = indexFile;
+        this.interval = interval;
+    }
+
+    /**
+     * Loads the index of the given file as configured for the source.
+     *
+     * @return the index of the file, or null if the line offset index is not enabled
+     * @throws IOException if the file cannot be read
+     * @see #load(Path, FileChannel, int, Path)
+     */
+    static LineOffsetIndex load(Path path, FileChannel channel, FileSourceConfiguration fileSourceConfiguration)
+            throws IOException {
+        if (!fileSourceConfiguration.isLineIndexEnabled()) {
+            return null;
+        }
+        return load(path, channel, fileSourceConfiguration.getLineIndexInterval(),
+                fileSourceConfiguration.getLineIndexDirectory());
+    }
+
+    /**
+     * Loads the persisted index of the given file and brings it up to date with the file, building or growing it by
+     * reading the file as needed. The updated index is persisted again, unless the index file cannot be written, in
+     * which case the index is only used for the current read.
+     *
+     * @param path           local path of the file
+     * @param channel        channel of the file
+     * @param interval       number of lines between the indexed lines
+     * @param indexDirectory directory of the index file, or null to keep the index file next to the file
+     * @return the index of the file
+     * @throws IOException if the file cannot be read
+     */
+    static LineOffsetIndex load(Path path, FileChannel channel, int interval, Path indexDirectory)
+            throws IOException {
+        LineOffsetIndex index = new LineOffsetIndex(getIndexFile(path, indexDirectory), interval);
+        long size = channel.size();
+        long lastModifiedTime = Files.getLastModifiedTime(path).toMillis();
+        boolean loaded = index.read();
+        if (loaded && index.fileSize == size && index.lastModifiedTime == lastModifiedTime) {
+            return index;
+        }
+        if (!loaded || size <= index.fileSize || index.checksum != checksum(channel, index.indexedLength)) {
+            if (loaded && log.isDebugEnabled()) {
+                log.debug("Line offset index '" + index.indexFile + "' is outdated, hence it is built again.");
+            }
+            index.reset();
+        }
+        long start = System.currentTimeMillis();
+        long indexedLines = index.lineCount;
+        index.grow(channel, size);
+        index.fileSize = size;
+        index.lastModifiedTime = lastModifiedTime;
+        index.checksum = checksum(channel, index.indexedLength);
+        if (log.isDebugEnabled()) {
+            log.debug("Indexed " + (index.lineCount - indexedLines) + " lines of file '" + path + "' in " +
+                    (System.currentTimeMillis() - start) + " ms.");
+        }
+        index.write();
+        return index;
+    }
+
+    /**
+     * Returns the path of the index file of the given file. In the given directory, the name of the index file is
+     * made unique to the absolute path of the file.
+     */
+    static Path getIndexFile(Path path, Path indexDirectory) {
+        Path absolutePath = path.toAbsolutePath();
+        String fileName = absolutePath.getFileName().toString();
+        if (indexDirectory == null) {
+            return absolutePath.resolveSibling("." + fileName + INDEX_FILE_EXTENSION);
+        }
+        return indexDirectory.resolve(fileName + "." + Integer.toHexString(absolutePath.toString().hashCode()) +
+                INDEX_FILE_EXTENSION);
+    }
+
+    /**
+     * Returns the offset of the given line.
+     *
+     * @param channel channel of the file
+     * @param line    zero based number of the line
+     * @return the offset of the line, or the size of the file if the file has less lines
+     * @throws IOException if the file cannot be read
+     */
+    long getLineOffset(FileChannel channel, long line) throws IOException {
+        if (line >= lineCount) {
+            return skipLines(channel, indexedLength, line - lineCount, channel.size());
+        }
+        int entry = (int) (line / interval);
+        return skipLines(channel, offsets[entry], line - (long) entry * interval, indexedLength);
+    }
+
+    /**
+     * Returns the offset of the first indexed line which starts at or after the given position.
+     *
+     * @return the offset of the line, or -1 if the position is after the last indexed line
+     */
+    long getIndexedLineOffset(long position) {
+        int entry = Arrays.binarySearch(offsets, 0, offsetCount, position);
+        if (entry < 0) {
+            entry = -entry - 1;
+        }
+        return entry < offsetCount ? offsets[entry] : -1;
+    }
+
+    /**
+     * Returns the offset reached by skipping the given number of lines from a line start, without an index.
+     *
+     * @param channel channel of the file
+     * @param from    offset of a line start
+     * @param lines   number of lines to skip
+     * @param limit   offset to stop at if not enough lines are found before it
+     * @return the offset of the line, or the limit
+     * @throws IOException if the file cannot be read
+     */
+    static long skipLines(FileChannel channel, long from, long lines, long limit) throws IOException {
+        if (lines <= 0) {
+            return Math.min(from, limit);
+        }
+        LineScanner scanner = new LineScanner(channel, from, limit);
+        long lineStart;
+        while ((lineStart = scanner.nextLineStart()) >= 0) {
+            if (--lines == 0) {
+                return lineStart;
+            }
+        }
+        return limit;
+    }
+
+    private void reset() {
+        offsetCount = 1;
+        lineCount = 0;
+        indexedLength = 0;
+    }
+
+    private void grow(FileChannel channel, long size) throws IOException {
+        LineScanner scanner = new LineScanner(channel, indexedLength, size);
+        long lineStart;
+        while ((lineStart = scanner.nextLineStart()) >= 0) {
+            lineCount++;
+            indexedLength = lineStart;
+            if (lineCount % interval == 0) {
+                if (offsetCount == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[offsetCount++] = lineStart;
+            }
+        }
+    }
+
+    /**
+     * Returns the checksum of the bytes before the given length, with which an append is told apart from a rewrite.
+     */
+    private static long checksum(FileChannel channel, long length) throws IOException {
+        long from = Math.max(0, length - CHECKSUM_LENGTH);
+        ByteBuffer buffer = ByteBuffer.allocate((int) (length - from));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, from + buffer.position()) < 0) {
+                return -1;
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        return crc.getValue();
+    }
+
+    /**
+     * Reads the persisted index.
+     *
+     * @return false if there is no usable persisted index
+     */
+    private boolean read() {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION || input.readInt() != interval) {
+                return false;
+            }
+            fileSize = input.readLong();
+            lastModifiedTime = input.readLong();
+            indexedLength = input.readLong();
+            lineCount = input.readLong();
+            checksum = input.readLong();
+            offsetCount = input.readInt();
+            offsets = new long[Math.max(16, offsetCount)];
+            for (int i = 0; i < offsetCount; i++) {
+                offsets[i] = input.readLong();
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            log.warn("Failed to read line offset index '" + indexFile + "', hence it is built again.", e);
+            return false;
+        }
+    }
+
+    /**
+     * Persists the index by writing a temporary file and moving it over the index file, so that a concurrent read
+     * of the same file never sees a half written index.
+     */
+    private void write() {
+        Path temporaryFile = null;
+        try {
+            Files.createDirectories(indexFile.getParent());
+            temporaryFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE);
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                         Channels.newOutputStream(channel)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(interval);
+                output.writeLong(fileSize);
+                output.writeLong(lastModifiedTime);
+                output.writeLong(indexedLength);
+                output.writeLong(lineCount);
+                output.writeLong(checksum);
+                output.writeInt(offsetCount);
+                for (int i = 0; i < offsetCount; i++) {
+                    output.writeLong(offsets[i]);
+                }
+                output.flush();
+                channel.force(false);
+            }
+            Files.move(temporaryFile, indexFile, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Failed to write line offset index '" + indexFile + "', hence the index is not reused by the " +
+                    "later reads of the file.", e);
+            if (temporaryFile != null) {
+                try {
+                    Files.deleteIfExists(temporaryFile);
+                } catch (IOException ex) {
+                    log.debug("Failed to delete temporary file '" + temporaryFile + "'.", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the line starts of a file sequentially. A '\r' at the end of the scanned content is not taken as a line
+     * terminator, since it may be followed by a '\n' which is not written yet.
+     */
+    private static class LineScanner {
+        private final FileChannel channel;
+        private final long limit;
+        private final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        private long bufferStart;
+
+        LineScanner(FileChannel channel, long from, long limit) {
+            this.channel = channel;
+            this.limit = limit;
+            this.bufferStart = from;
+            buffer.limit(0);
+        }
+
+        /**
+         * Returns the start of the next line, or -1 if no further line is terminated before the limit.
+         */
+        long nextLineStart() throws IOException {
+            while (true) {
+                while (buffer.hasRemaining()) {
+                    byte value = buffer.get();
+                    if (value == '\n') {
+                        return bufferStart + buffer.position();
+                    }
+                    if (value == '\r') {
+                        if (!buffer.hasRemaining()) {
+                            /* the following byte is read again along with the '\r' */
+                            buffer.position(buffer.position() - 1);
+                            if (!fill(2)) {
+                                return -1;
+                            }
+                            buffer.get();
+                        }
+                        if (buffer.get(buffer.position()) == '\n') {
+                            buffer.get();
+                        }
+                        return bufferStart + buffer.position();
+                    }
+                }
+                if (!fill(1)) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * Reads the next bytes after the consumed bytes of the buffer.
+         *
+         * @return false if less than the given number of bytes are left before the limit
+         */
+        private boolean fill(int minimum) throws IOException {
+            bufferStart += buffer.position();
+            int length = (int) Math.min(SCAN_BUFFER_SIZE, limit - bufferStart);
+            buffer.clear();
+            if (length < minimum) {
+                buffer.limit(0);
+                return false;
+            }
+            buffer.limit(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, bufferStart + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.remaining() >= minimum;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits UTF-8 encoded content into lines by scanning the raw bytes for line terminators.
+ * Line terminators are searched eight bytes at a time and every line is decoded exactly once into a reused
+ * {@link CharBuffer}, hence no intermediate reader or string copies are created per line.
+ * As with {@link java.io.BufferedReader#readLine()}, '\n', '\r' and "\r\n" are treated as line terminators.
+ * If an {@link OversizedRecordHandler} is set, a line longer than its maximum length is passed to it part by part
+ * instead of being left in the buffer until its terminator is read.
+ */
+public class LineSplitter {
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LF_WORD = 0x0A0A0A0A0A0A0A0AL;
+    private static final long CR_WORD = 0x0D0D0D0D0D0D0D0DL;
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private CharBuffer charBuffer = CharBuffer.allocate(1024);
+    private boolean skipLineFeed = false;
+    private OversizedRecordHandler oversizedRecordHandler;
+    private boolean oversized = false;
+    private long oversizedLength;
+
+    /**
+     * Sets the handler of the lines longer than its maximum length.
+     */
+    public void setOversizedRecordHandler(OversizedRecordHandler oversizedRecordHandler) {
+        this.oversizedRecordHandler = oversizedRecordHandler;
+    }
+
+    /**
+     * Emits every complete line available in the given buffer. Empty lines are skipped and the leading and trailing
+     * whitespaces of the emitted lines are trimmed.
+     * The position of the buffer is advanced past the last consumed line terminator. If {@code endOfInput} is false
+     * the trailing bytes which are not yet terminated are left in the buffer so that the caller can compact and
+     * refill it, otherwise they are emitted as the last line.
+     *
+     * @param buffer     content to be split
+     * @param endOfInput whether the buffer holds the last bytes of the input
+     * @param consumer   consumer of the lines
+     * @return number of lines emitted
+     */
+    public int split(ByteBuffer buffer, boolean endOfInput, LineConsumer consumer) {
+        ByteBuffer words = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int lineStart = buffer.position();
+        int limit = buffer.limit();
+        int lines = 0;
+        if (skipLineFeed && lineStart < limit) {
+            skipLineFeed = false;
+            if (buffer.get(lineStart) == LF) {
+                lineStart++;
+            }
+        }
+        int index = lineStart;
+        while (index < limit) {
+            int terminator = indexOfTerminator(words, index, limit);
+            if (terminator < 0) {
+                break;
+            }
+            if (oversized ? emitOversized(buffer, lineStart, terminator, consumer) :
+                    emit(buffer, lineStart, terminator, consumer)) {
+                lines++;
+            }
+            index = terminator + 1;
+            if (buffer.get(terminator) == CR) {
+                if (index < limit) {
+                    if (buffer.get(index) == LF) {
+                        index++;
+                    }
+                } else {
+                    skipLineFeed = true;
+                }
+            }
+            lineStart = index;
+        }
+        if (endOfInput) {
+            if (oversized ? emitOversized(buffer, lineStart, limit, consumer) :
+                    lineStart < limit && emit(buffer, lineStart, limit, consumer)) {
+                lines++;
+            }
+            lineStart = limit;
+            skipLineFeed = false;
+        } else if (oversizedRecordHandler != null &&
+                (oversized || limit - lineStart > oversizedRecordHandler.getMaxLength())) {
+            /* the line is not terminated yet, hence its bytes are handed over instead of being kept */
+            appendOversized(buffer, lineStart, limit);
+            oversized = true;
+            lineStart = limit;
+        }
+        buffer.position(lineStart);
+        return lines;
+    }
+
+    /**
+     * Returns the index of the first '\n' or '\r' in the range, or -1 if there is none.
+     */
+    static int indexOfTerminator(ByteBuffer words, int from, int to) {
+        int index = from;
+        while (index + Long.BYTES <= to) {
+            long word = words.getLong(index);
+            long matches = zeroBytes(word ^ LF_WORD) | zeroBytes(word ^ CR_WORD);
+            if (matches != 0) {
+                return index + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+            index += Long.BYTES;
+        }
+        for (; index < to; index++) {
+            byte value = words.get(index);
+            if (value == LF || value == CR) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Marks the high bit of each zero byte of the word. Bits above the lowest zero byte may be false positives,
+     * which is sufficient since only the lowest match is used.
+     */
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGH_BITS;
+    }
+
+    private boolean emit(ByteBuffer buffer, int start, int end, LineConsumer consumer) {
+        if (start == end) {
+            return false;
+        }
+        int rawLength = end - start;
+        if (oversizedRecordHandler != null && rawLength > oversizedRecordHandler.getMaxLength()) {
+            return emitOversized(buffer, start, end, consumer);
+        }
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        consumer.onLine(decode(buffer, start, end), rawLength);
+        return true;
+    }
+
+    private void appendOversized(ByteBuffer buffer, int start, int end) {
+        ByteBuffer part = buffer.duplicate();
+        part.limit(end).position(start);
+        oversizedLength += end - start;
+        oversizedRecordHandler.append(part);
+    }
+
+    /**
+     * Ends the oversized line with the given bytes and emits the line returned by the handler, if any.
+     */
+    private boolean emitOversized(ByteBuffer buffer, int start, int end, LineConsumer consumer) {
+        appendOversized(buffer, start, end);
+        int rawLength = (int) Math.min(oversizedLength, Integer.MAX_VALUE);
+        oversized = false;
+        oversizedLength = 0;
+        String line = oversizedRecordHandler.endText();
+        if (line == null) {
+            return false;
+        }
+        consumer.onLine(line.trim(), rawLength);
+        return true;
+    }
+
+    private String decode(ByteBuffer buffer, int start, int end) {
+        if (start == end) {
+            return "";
+        }
+        ByteBuffer line = buffer.duplicate();
+        line.limit(end).position(start);
+        int maxChars = (int) Math.ceil((end - start) * (double) decoder.maxCharsPerByte());
+        if (charBuffer.capacity() < maxChars) {
+            charBuffer = CharBuffer.allocate(Math.max(maxChars, charBuffer.capacity() * 2));
+        }
+        charBuffer.clear();
+        decoder.reset();
+        CoderResult result = decoder.decode(line, charBuffer, true);
+        if (!result.isUnderflow()) {
+            throw new IllegalStateException("Failed to decode the line: " + result);
+        }
+        decoder.flush(charBuffer);
+        charBuffer.flip();
+        return charBuffer.toString();
+    }
+
+    /**
+     * Consumer of the lines emitted by the {@link LineSplitter}.
+     */
+    public interface LineConsumer {
+        /**
+         * Handles a trimmed, non empty line.
+         *
+         * @param line      decoded and trimmed line
+         * @param rawLength number of bytes of the line as read, excluding the line terminator
+         */
+        void onLine(String line, int rawLength);
+    }
+}
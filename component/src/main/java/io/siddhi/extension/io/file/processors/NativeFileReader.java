@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import io.siddhi.extension.io.file.util.Constants;
+import io.siddhi.extension.io.file.util.FileSourceConfiguration;
+import io.siddhi.extension.util.Utils;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.compressors.xz.XZUtils;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.wso2.transport.file.connector.server.util.Constants.CONTENT_LENGTH;
+import static org.wso2.transport.file.connector.server.util.Constants.FILE_NAME;
+import static org.wso2.transport.file.connector.server.util.Constants.FILE_PATH;
+
+/**
+ * Reads a local file through memory mapped windows and hands the windows over to the {@link FileProcessor}, which
+ * splits them into events according to the mode without copying the content into intermediate messages.
+ * Each window starts at the first byte left unconsumed by the previous window, hence a record spanning two windows
+ * is mapped again instead of being copied. A window is only grown when it cannot hold a single record, which also
+ * allows files larger than 2 GB to be read. Each window is unmapped as soon as it is consumed, so that the file can
+ * be moved or deleted right after it is read, and files which fit into a single window are read into a heap buffer
+ * instead of being mapped at all.
+ * Compressed files, in any file system, are read through a streaming decompressor instead, and the decompressed
+ * content is handed over to the {@link FileProcessor} through a reused buffer, so that nothing is written to disk.
+ */
+public class NativeFileReader {
+    private static final Logger log = Logger.getLogger(NativeFileReader.class);
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final Consumer<MappedByteBuffer> UNMAPPER = createUnmapper();
+    private static final String BINARY_FILE_EXTENSION = ".bin";
+    private static final Map<String, String> COMPRESSORS = new HashMap<>();
+    private static final Map<String, String> COMPRESSED_FILE_EXTENSIONS = new HashMap<>();
+
+    static {
+        COMPRESSORS.put(Constants.GZIP, CompressorStreamFactory.GZIP);
+        COMPRESSORS.put(Constants.BZIP2, CompressorStreamFactory.BZIP2);
+        COMPRESSORS.put(Constants.XZ, CompressorStreamFactory.XZ);
+        COMPRESSORS.put(Constants.ZSTD, CompressorStreamFactory.ZSTANDARD);
+        COMPRESSED_FILE_EXTENSIONS.put(".gz", CompressorStreamFactory.GZIP);
+        COMPRESSED_FILE_EXTENSIONS.put(".bz2", CompressorStreamFactory.BZIP2);
+        COMPRESSED_FILE_EXTENSIONS.put(".xz", CompressorStreamFactory.XZ);
+        COMPRESSED_FILE_EXTENSIONS.put(".zst", CompressorStreamFactory.ZSTANDARD);
+    }
+
+    private final FileSourceConfiguration fileSourceConfiguration;
+    private final long fileReadWaitTimeout;
+
+    public NativeFileReader(FileSourceConfiguration fileSourceConfiguration) {
+        this.fileSourceConfiguration = fileSourceConfiguration;
+        this.fileReadWaitTimeout = Long.parseLong(fileSourceConfiguration.getFileReadWaitTimeout());
+    }
+
+    /**
+     * Returns whether the given value is accepted for the 'compression' parameter.
+     */
+    public static boolean isSupportedCompression(String compression) {
+        return Constants.NONE.equals(compression) || Constants.AUTO.equals(compression) ||
+                COMPRESSORS.containsKey(compression);
+    }
+
+    /**
+     * Returns whether the libraries required to decompress the given compression are available. The 'xz' and
+     * 'zstd' decompressors of commons-compress depend on optional libraries.
+     */
+    public static boolean isCompressionAvailable(String compression) {
+        if (Constants.XZ.equals(compression)) {
+            return XZUtils.isXZCompressionAvailable();
+        } else if (Constants.ZSTD.equals(compression)) {
+            return ZstdUtils.isZstdCompressionAvailable();
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the file should be read by the native reader rather than through the VFS client.
+     *
+     * @param fileSourceConfiguration configuration of the source
+     * @param fileURI                 URI of the file
+     * @return true if the file should be read by {@link #read(String, FileProcessor)}
+     */
+    public static boolean canRead(FileSourceConfiguration fileSourceConfiguration, String fileURI) {
+        if (fileSourceConfiguration.isTailingEnabled()) {
+            return false;
+        }
+        return !Constants.NONE.equals(fileSourceConfiguration.getCompression()) ||
+                getReadablePath(fileSourceConfiguration, fileURI) != null;
+    }
+
+    /**
+     * Returns the local path of the file if it should be read by the native reader, or null if it should be read
+     * through the VFS client.
+     *
+     * @param fileSourceConfiguration configuration of the source
+     * @param fileURI                 URI of the file
+     * @return local path of the file or null
+     */
+    public static Path getReadablePath(FileSourceConfiguration fileSourceConfiguration, String fileURI) {
+        if (!fileSourceConfiguration.isNativeReaderEnabled() || fileSourceConfiguration.isTailingEnabled()) {
+            return null;
+        }
+        Path path = Utils.getLocalFilePath(fileURI);
+        if (path == null) {
+            return null;
+        }
+        /* the VFS client reads '.bin' files as a whole even in line mode */
+        if (Constants.LINE.equalsIgnoreCase(fileSourceConfiguration.getMode()) &&
+                path.toString().toLowerCase().endsWith(BINARY_FILE_EXTENSION)) {
+            return null;
+        }
+        return path;
+    }
+
+    /**
+     * Reads the given file, decompressing it if the source is configured with a compression, and passes its
+     * content to the file processor. Returns once the whole content is processed.
+     *
+     * @param fileURI       URI of the file
+     * @param fileProcessor processor which splits the content into events
+     * @throws IOException          if the file cannot be read or decompressed
+     * @throws InterruptedException if interrupted while waiting for the file to be completely written
+     */
+    public void read(String fileURI, FileProcessor fileProcessor) throws IOException, InterruptedException {
+        String compression = fileSourceConfiguration.getCompression();
+        Path path = Utils.getLocalFilePath(fileURI);
+        if (Constants.NONE.equals(compression)) {
+            read(path, fileProcessor);
+            return;
+        }
+        InputStream inputStream;
+        Map<String, Object> properties;
+        if (path != null) {
+            waitTillModified(path, fileReadWaitTimeout);
+            inputStream = Files.newInputStream(path);
+            properties = getProperties(path, -1);
+        } else {
+            FileObject fileObject = Utils.getFileObject(fileURI, fileSourceConfiguration.getFileSystemOptions());
+            waitTillModified(fileObject, fileReadWaitTimeout);
+            inputStream = fileObject.getContent().getInputStream();
+            properties = new HashMap<>();
+            properties.put(FILE_PATH, fileObject.getName().getPath());
+            properties.put(FILE_NAME, fileObject.getName().getBaseName());
+        }
+        try (InputStream content = new BufferedInputStream(inputStream)) {
+            String compressor = getCompressor(compression, (String) properties.get(FILE_NAME), content);
+            if (compressor == null) {
+                if (getReadablePath(fileSourceConfiguration, fileURI) != null) {
+                    content.close();
+                    read(path, fileProcessor);
+                } else {
+                    fileProcessor.startFile(properties, -1);
+                    read(content, properties, fileProcessor);
+                }
+                return;
+            }
+            try (InputStream decompressed = new CompressorStreamFactory(true)
+                    .createCompressorInputStream(compressor, content)) {
+                fileProcessor.startFile(properties, -1);
+                read(decompressed, properties, fileProcessor);
+            } catch (CompressorException e) {
+                throw new IOException("Failed to decompress file '" + fileURI + "' as '" + compressor + "'.", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the commons-compress name of the compressor of the file, or null if the file is not compressed.
+     */
+    private static String getCompressor(String compression, String fileName, InputStream content)
+            throws IOException {
+        if (!Constants.AUTO.equals(compression)) {
+            return COMPRESSORS.get(compression);
+        }
+        String lowerCaseFileName = fileName.toLowerCase();
+        for (Map.Entry<String, String> entry : COMPRESSED_FILE_EXTENSIONS.entrySet()) {
+            if (lowerCaseFileName.endsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        try {
+            String compressor = CompressorStreamFactory.detect(content);
+            return COMPRESSORS.containsValue(compressor) ? compressor : null;
+        } catch (CompressorException e) {
+            return null;
+        }
+    }
+
+    private static void read(InputStream content, Map<String, Object> properties, FileProcessor fileProcessor)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+        while (true) {
+            int read = content.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            if (read < 0) {
+                buffer.flip();
+                fileProcessor.receive(buffer, true);
+                return;
+            }
+            buffer.position(buffer.position() + read);
+            if (buffer.hasRemaining()) {
+                continue;
+            }
+            buffer.flip();
+            fileProcessor.receive(buffer, false);
+            if (fileProcessor.isCompleted()) {
+                return;
+            }
+            if (buffer.position() > 0) {
+                buffer.compact();
+            } else {
+                if (buffer.capacity() == Integer.MAX_VALUE - 8) {
+                    throw new IOException("Failed to read file '" + properties.get(FILE_PATH) +
+                            "' since a record is longer than " + buffer.capacity() + " bytes.");
+                }
+                ByteBuffer grown = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE - 8,
+                        buffer.capacity() * 2L));
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+    }
+
+    /**
+     * Reads the given file and passes its content to the file processor. Returns once the whole content is
+     * processed.
+     *
+     * @param path          local path of the file
+     * @param fileProcessor processor which splits the content into events
+     * @throws IOException          if the file cannot be read
+     * @throws InterruptedException if interrupted while waiting for the file to be completely written
+     */
+    public void read(Path path, FileProcessor fileProcessor) throws IOException, InterruptedException {
+        waitTillModified(path, fileReadWaitTimeout);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Map<String, Object> properties = getProperties(path, size);
+            fileProcessor.startFile(properties, size);
+            long position = getStartOffset(path, channel, size);
+            if (size - position <= WINDOW_SIZE) {
+                /* mapping is not worth it for a file which fits into a single window */
+                channel.position(position);
+                read(Channels.newInputStream(channel), properties, fileProcessor);
+                return;
+            }
+            int windowSize = WINDOW_SIZE;
+            while (true) {
+                long length = Math.min(windowSize, size - position);
+                boolean endOfInput = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed;
+                try {
+                    fileProcessor.receive(window, endOfInput);
+                    consumed = window.position();
+                } finally {
+                    /* the file processor copies whatever it emits, hence nothing refers to the window anymore */
+                    unmap(window);
+                }
+                if (endOfInput || fileProcessor.isCompleted()) {
+                    return;
+                }
+                if (consumed > 0) {
+                    position += consumed;
+                    windowSize = WINDOW_SIZE;
+                } else if (windowSize < Integer.MAX_VALUE) {
+                    windowSize = (int) Math.min(Integer.MAX_VALUE, windowSize * 2L);
+                } else {
+                    throw new IOException("Failed to read file '" + path + "' since a record starting at " +
+                            position + " is longer than " + Integer.MAX_VALUE + " bytes.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the mapping of the window instead of waiting for it to be garbage collected, since a mapped file can
+     * neither be moved nor deleted on Windows and the mapping holds address space until then.
+     */
+    private static void unmap(MappedByteBuffer window) {
+        if (UNMAPPER != null) {
+            UNMAPPER.accept(window);
+        }
+    }
+
+    /**
+     * Returns the function which unmaps a buffer through the cleaner of the JVM, or null if the JVM does not allow it,
+     * in which case the windows are unmapped when they are garbage collected.
+     */
+    private static Consumer<MappedByteBuffer> createUnmapper() {
+        try {
+            /* Java 9 and later */
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return window -> invoke(invokeCleaner, unsafe, window);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            try {
+                /* Java 8 */
+                Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                return window -> invoke(clean, invoke(cleaner, window));
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                log.debug("Mapped windows of files cannot be unmapped explicitly in this JVM.", ex);
+                return null;
+            }
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to unmap a window of a file.", e);
+        }
+    }
+
+    /**
+     * Returns the offset of the first line to be read, as per the start timestamp or the start line of the source.
+     */
+    private long getStartOffset(Path path, FileChannel channel, long size) throws IOException {
+        TimestampSeeker timestampSeeker = fileSourceConfiguration.getTimestampSeeker();
+        if (timestampSeeker != null) {
+            return timestampSeeker.seek(channel::read, size);
+        }
+        LineOffsetIndex lineOffsetIndex = LineOffsetIndex.load(path, channel, fileSourceConfiguration);
+        long startLine = fileSourceConfiguration.getStartLine() - 1;
+        return lineOffsetIndex != null ? lineOffsetIndex.getLineOffset(channel, startLine) :
+                LineOffsetIndex.skipLines(channel, 0, startLine, size);
+    }
+
+    private static Map<String, Object> getProperties(Path path, long size) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(FILE_PATH, path.toString());
+        properties.put(FILE_NAME, path.getFileName().toString());
+        if (size >= 0) {
+            properties.put(CONTENT_LENGTH, size);
+        }
+        return properties;
+    }
+
+    /**
+     * Waits until the file is not modified within the file read wait timeout, as done by the VFS client.
+     */
+    static void waitTillModified(Path path, long fileReadWaitTimeout) throws IOException, InterruptedException {
+        long lastModifiedTime;
+        do {
+            lastModifiedTime = Files.getLastModifiedTime(path).toMillis();
+            Thread.sleep(fileReadWaitTimeout);
+        } while (lastModifiedTime < Files.getLastModifiedTime(path).toMillis());
+    }
+
+    private static void waitTillModified(FileObject fileObject, long fileReadWaitTimeout)
+            throws IOException, InterruptedException {
+        long lastModifiedTime;
+        do {
+            lastModifiedTime = fileObject.getContent().getLastModifiedTime();
+            Thread.sleep(fileReadWaitTimeout);
+            fileObject.refresh();
+        } while (lastModifiedTime < fileObject.getContent().getLastModifiedTime());
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.extension.io.file.metrics.SourceMetrics;
+import io.siddhi.extension.io.file.util.Constants;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Handles the content of a record which exceeds the maximum record length, according to the configured policy.
+ * The content is passed in parts as it is read, hence at most the maximum record length is held in memory.
+ * <ul>
+ * <li>truncate: the first bytes of the record, up to the maximum record length, are kept and returned once the
+ * record ends, so that they can be emitted instead of the record.</li>
+ * <li>skip: the record is dropped.</li>
+ * <li>spill: the record is written to a temporary file and dropped.</li>
+ * </ul>
+ * Skipped and spilled records are logged and counted as errors.
+ */
+public class OversizedRecordHandler {
+    private static final Logger log = Logger.getLogger(OversizedRecordHandler.class);
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final String SPILL_FILE_PREFIX = "siddhi-file-record-";
+
+    private final String policy;
+    private final int maxLength;
+    private final SourceMetrics metrics;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer encoded;
+    private String filePath;
+    private byte[] content;
+    private int contentLength;
+    private long recordLength;
+    private Path spillFile;
+    private OutputStream spillStream;
+    private byte[] spillBuffer;
+
+    public OversizedRecordHandler(String policy, long maxLength, SourceMetrics metrics) {
+        this.policy = policy;
+        this.maxLength = (int) Math.min(maxLength, Integer.MAX_VALUE - 8);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the maximum number of bytes of a record.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Sets the path of the file being read, which is used when reporting the oversized records.
+     */
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Passes the next part of the oversized record. The position of the buffer is advanced to its limit.
+     *
+     * @param part part of the record
+     */
+    public void append(ByteBuffer part) {
+        recordLength += part.remaining();
+        if (Constants.TRUNCATE.equals(policy)) {
+            int length = Math.min(part.remaining(), maxLength - contentLength);
+            if (length > 0) {
+                if (content == null || content.length - contentLength < length) {
+                    content = Arrays.copyOf(content == null ? new byte[0] : content, (int) Math.min(maxLength,
+                            Math.max(contentLength + (long) length, Math.max(INITIAL_CAPACITY, contentLength * 2L))));
+                }
+                part.get(content, contentLength, length);
+                contentLength += length;
+            }
+        } else if (Constants.SPILL.equals(policy)) {
+            try {
+                if (spillStream == null) {
+                    spillFile = Files.createTempFile(SPILL_FILE_PREFIX, null);
+                    spillStream = new BufferedOutputStream(Files.newOutputStream(spillFile));
+                }
+                if (part.hasArray()) {
+                    spillStream.write(part.array(), part.arrayOffset() + part.position(), part.remaining());
+                } else {
+                    if (spillBuffer == null) {
+                        spillBuffer = new byte[INITIAL_CAPACITY];
+                    }
+                    while (part.hasRemaining()) {
+                        int length = Math.min(spillBuffer.length, part.remaining());
+                        part.get(spillBuffer, 0, length);
+                        spillStream.write(spillBuffer, 0, length);
+                    }
+                }
+            } catch (IOException e) {
+                throw new SiddhiAppRuntimeException("Failed to spill the oversized record of file '" + filePath +
+                        "' to '" + spillFile + "'.", e);
+            }
+        }
+        part.position(part.limit());
+    }
+
+    /**
+     * Passes the next part of the oversized record as decoded characters, which are encoded back to UTF-8. The
+     * position of the buffer is advanced to its limit.
+     *
+     * @param part part of the record
+     */
+    public void append(CharBuffer part) {
+        if (encoded == null) {
+            encoded = ByteBuffer.allocate(INITIAL_CAPACITY);
+        }
+        CoderResult result;
+        do {
+            encoded.clear();
+            result = encoder.encode(part, encoded, false);
+            encoded.flip();
+            append(encoded);
+        } while (result.isOverflow());
+        part.position(part.limit());
+    }
+
+    /**
+     * Ends the oversized record.
+     *
+     * @return the truncated content of the record if the policy is 'truncate', otherwise null
+     */
+    public byte[] end() {
+        byte[] truncated = null;
+        if (Constants.TRUNCATE.equals(policy)) {
+            truncated = contentLength == 0 ? new byte[0] : Arrays.copyOf(content, contentLength);
+            if (log.isDebugEnabled()) {
+                log.debug("Truncated a record of " + recordLength + " bytes in file '" + filePath + "' to " +
+                        maxLength + " bytes.");
+            }
+        } else if (Constants.SPILL.equals(policy)) {
+            try {
+                if (spillStream != null) {
+                    spillStream.close();
+                }
+            } catch (IOException e) {
+                throw new SiddhiAppRuntimeException("Failed to spill the oversized record of file '" + filePath +
+                        "' to '" + spillFile + "'.", e);
+            }
+            log.error("Dropped a record of " + recordLength + " bytes in file '" + filePath + "' since it exceeds " +
+                    "the maximum length of " + maxLength + " bytes. The record is written to '" + spillFile + "'.");
+        } else {
+            log.error("Skipped a record of " + recordLength + " bytes in file '" + filePath + "' since it " +
+                    "exceeds the maximum length of " + maxLength + " bytes.");
+        }
+        if (metrics != null && truncated == null) {
+            metrics.getTotalErrorCount(filePath).inc();
+        }
+        content = null;
+        contentLength = 0;
+        recordLength = 0;
+        spillFile = null;
+        spillStream = null;
+        encoder.reset();
+        return truncated;
+    }
+
+    /**
+     * Ends the oversized record and decodes the truncated content, dropping a character cut by the truncation.
+     *
+     * @return the truncated record if the policy is 'truncate', otherwise null
+     */
+    public String endText() {
+        byte[] truncated = end();
+        if (truncated == null) {
+            return null;
+        }
+        int length = truncated.length;
+        int start = length;
+        while (start > 0 && start > length - 4 && (truncated[start - 1] & 0xC0) == 0x80) {
+            start--;
+        }
+        if (start > 0) {
+            int lead = truncated[start - 1] & 0xFF;
+            int charLength = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+            if (length - (start - 1) < charLength) {
+                length = start - 1;
+            }
+        }
+        return new String(truncated, 0, length, StandardCharsets.UTF_8);
+    }
+}
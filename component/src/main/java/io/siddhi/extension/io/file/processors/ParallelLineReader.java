@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import io.siddhi.core.stream.input.source.SourceEventListener;
+import io.siddhi.extension.io.file.util.FileSourceConfiguration;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.wso2.transport.file.connector.server.util.Constants.EOF;
+import static org.wso2.transport.file.connector.server.util.Constants.FILE_PATH;
+
+/**
+ * Reads a local file in LINE mode by splitting it into byte ranges which are read and split into lines in parallel.
+ * The range boundaries are moved to the next line start, hence every line is read by exactly one range. Only a
+ * bounded number of ranges are read ahead of the range being emitted. The lines are either emitted in the order of
+ * the file by the calling thread, or by the reading workers as soon as they are split.
+ * As in the sequential read, empty lines are skipped, lines are trimmed and trp:eof is true only for the last line
+ * of the file.
+ */
+public class ParallelLineReader {
+    private static final Logger log = Logger.getLogger(ParallelLineReader.class);
+    static final int RANGE_SIZE = 2 * 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int PROBE_SIZE = 8 * 1024;
+
+    private final SourceEventListener sourceEventListener;
+    private final ForkJoinPool readerPool;
+    private final int maxRangesInFlight;
+    private final boolean ordered;
+    private final boolean headerPresent;
+    private final String[] requiredProperties;
+    private final long fileReadWaitTimeout;
+    private final int maxRecordLength;
+    private final String oversizedRecordPolicy;
+    private final FileSourceConfiguration fileSourceConfiguration;
+
+    public ParallelLineReader(SourceEventListener sourceEventListener,
+                              FileSourceConfiguration fileSourceConfiguration) {
+        this.sourceEventListener = sourceEventListener;
+        this.readerPool = fileSourceConfiguration.getReaderPool();
+        this.maxRangesInFlight = fileSourceConfiguration.getReadParallelism() * 2;
+        this.ordered = fileSourceConfiguration.isReadInOrder();
+        this.headerPresent = Boolean.parseBoolean(fileSourceConfiguration.getHeaderPresent());
+        this.requiredProperties = fileSourceConfiguration.getRequiredProperties();
+        this.fileReadWaitTimeout = Long.parseLong(fileSourceConfiguration.getFileReadWaitTimeout());
+        this.maxRecordLength = fileSourceConfiguration.getMaxRecordLength();
+        this.oversizedRecordPolicy = fileSourceConfiguration.getOversizedRecordPolicy();
+        this.fileSourceConfiguration = fileSourceConfiguration;
+    }
+
+    /**
+     * Reads the given file and emits its lines. Returns once all the lines are emitted.
+     *
+     * @param path local path of the file
+     * @throws IOException          if the file cannot be read
+     * @throws InterruptedException if interrupted while waiting for the file to be completely written or for the
+     *                              ranges to be read
+     */
+    public void read(Path path) throws IOException, InterruptedException {
+        NativeFileReader.waitTillModified(path, fileReadWaitTimeout);
+        String filePath = path.toString();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long end = getContentEnd(channel);
+            LineOffsetIndex lineOffsetIndex = LineOffsetIndex.load(path, channel, fileSourceConfiguration);
+            long startLine = fileSourceConfiguration.getStartLine() - 1;
+            long start = lineOffsetIndex != null ? lineOffsetIndex.getLineOffset(channel, startLine) :
+                    LineOffsetIndex.skipLines(channel, 0, startLine, end);
+            int rangeCount = (int) ((Math.max(0, end - start) + RANGE_SIZE - 1) / RANGE_SIZE);
+            Deque<Future<List<String>>> inFlight = new ArrayDeque<>();
+            OrderedEmitter emitter = new OrderedEmitter(filePath);
+            try {
+                for (int i = 0; i < rangeCount; i++) {
+                    if (inFlight.size() >= maxRangesInFlight) {
+                        emitter.emit(inFlight.poll());
+                    }
+                    long rangeStart = start + (long) i * RANGE_SIZE;
+                    inFlight.add(readerPool.submit(new RangeReader(channel, rangeStart,
+                            Math.min(rangeStart + RANGE_SIZE, end), start, end, lineOffsetIndex, filePath)));
+                }
+                while (!inFlight.isEmpty()) {
+                    emitter.emit(inFlight.poll());
+                }
+                emitter.complete();
+                BatchingEventListener.flush(sourceEventListener);
+            } finally {
+                for (Future<List<String>> range : inFlight) {
+                    range.cancel(true);
+                }
+            }
+        }
+    }
+
+    private String[] getPropertyValues(String filePath) {
+        String[] values = new String[requiredProperties.length];
+        for (int i = 0; i < requiredProperties.length; i++) {
+            if (FILE_PATH.equals(requiredProperties[i])) {
+                values[i] = filePath;
+            } else if (EOF.equals(requiredProperties[i])) {
+                values[i] = Boolean.FALSE.toString();
+            } else {
+                log.error("Failed to find required transport property '" + requiredProperties[i] +
+                        "'. Assigning null value");
+            }
+        }
+        return values;
+    }
+
+    private int indexOf(String property) {
+        for (int i = 0; i < requiredProperties.length; i++) {
+            if (property.equals(requiredProperties[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the end of the content excluding the trailing line terminators, so that the range holding the last
+     * line of the file is the one whose lines run up to the end.
+     */
+    static long getContentEnd(FileChannel channel) throws IOException {
+        long end = channel.size();
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        while (end > 0) {
+            long from = Math.max(0, end - PROBE_SIZE);
+            probe.clear().limit((int) (end - from));
+            int read = readFully(channel, probe, from);
+            for (int i = read - 1; i >= 0; i--) {
+                byte value = probe.get(i);
+                if (value != '\n' && value != '\r') {
+                    return from + i + 1;
+                }
+            }
+            end = from;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the start of the first line which starts at or after the given position.
+     */
+    static long getLineStart(FileChannel channel, long position, long end) throws IOException {
+        if (position <= 0 || position >= end) {
+            return Math.max(0, Math.min(position, end));
+        }
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        long from = position - 1;
+        while (from < end) {
+            probe.clear().limit((int) Math.min(PROBE_SIZE, end - from));
+            int read = channel.read(probe, from);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte value = probe.get(i);
+                if (value == '\n' || value == '\r') {
+                    return from + i + 1;
+                }
+            }
+            from += read;
+        }
+        return end;
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Waits for the ranges in the order of the file and emits the lines collected by them. The last line is held
+     * back until all the ranges are read, since a line longer than a range leaves the subsequent ranges empty.
+     */
+    private class OrderedEmitter {
+        private final String[] propertyValues;
+        private final int eofIndex;
+        private String pendingLine;
+
+        OrderedEmitter(String filePath) {
+            this.propertyValues = getPropertyValues(filePath);
+            this.eofIndex = indexOf(EOF);
+        }
+
+        void emit(Future<List<String>> range) throws IOException, InterruptedException {
+            List<String> lines;
+            try {
+                lines = range.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Failed to read the file range.", e.getCause());
+            }
+            if (lines == null) {
+                return;
+            }
+            for (String line : lines) {
+                if (pendingLine != null) {
+                    emit(pendingLine, false);
+                }
+                pendingLine = line;
+            }
+        }
+
+        void complete() {
+            if (pendingLine != null) {
+                emit(pendingLine, true);
+                pendingLine = null;
+            }
+        }
+
+        private void emit(String line, boolean eof) {
+            if (eofIndex >= 0) {
+                propertyValues[eofIndex] = String.valueOf(eof);
+            }
+            sourceEventListener.onEvent(line, propertyValues);
+        }
+    }
+
+    /**
+     * Reads the lines starting within a range. In the ordered mode the lines are collected and returned, otherwise
+     * they are emitted by the worker itself.
+     */
+    private class RangeReader implements Callable<List<String>>, LineSplitter.LineConsumer {
+        private final FileChannel channel;
+        private final long rangeStart;
+        private final long rangeEnd;
+        private final long start;
+        private final long end;
+        private final LineOffsetIndex lineOffsetIndex;
+        private final String filePath;
+        private List<String> lines;
+        private String[] propertyValues;
+        private int eofIndex;
+        private String pendingLine;
+        private boolean skipHeader;
+
+        RangeReader(FileChannel channel, long rangeStart, long rangeEnd, long start, long end,
+                    LineOffsetIndex lineOffsetIndex, String filePath) {
+            this.channel = channel;
+            this.rangeStart = rangeStart;
+            this.rangeEnd = rangeEnd;
+            this.start = start;
+            this.end = end;
+            this.lineOffsetIndex = lineOffsetIndex;
+            this.filePath = filePath;
+            this.skipHeader = headerPresent && rangeStart == 0;
+        }
+
+        @Override
+        public List<String> call() throws IOException {
+            long position = findLineStart(rangeStart);
+            long stop = findLineStart(rangeEnd);
+            if (ordered) {
+                lines = new ArrayList<>();
+            } else {
+                propertyValues = getPropertyValues(filePath);
+                eofIndex = indexOf(EOF);
+            }
+            LineSplitter lineSplitter = new LineSplitter();
+            if (maxRecordLength > 0) {
+                OversizedRecordHandler oversizedRecordHandler = new OversizedRecordHandler(oversizedRecordPolicy,
+                        maxRecordLength, null);
+                oversizedRecordHandler.setFilePath(filePath);
+                lineSplitter.setOversizedRecordHandler(oversizedRecordHandler);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            while (position < stop) {
+                buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + stop - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+                buffer.flip();
+                lineSplitter.split(buffer, position >= stop, this);
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    grown.put(buffer);
+                    buffer = grown;
+                }
+            }
+            if (buffer.position() > 0) {
+                buffer.flip();
+                lineSplitter.split(buffer, true, this);
+            }
+            if (!ordered && pendingLine != null) {
+                /* only the range whose lines run up to the end holds the last line of the file */
+                emit(pendingLine, stop == end);
+            }
+            return lines;
+        }
+
+        /**
+         * Returns the line start at which a range boundary is moved to. The indexed lines are taken as they are,
+         * while the other boundaries are moved to the next line start by reading the file.
+         */
+        private long findLineStart(long position) throws IOException {
+            if (lineOffsetIndex != null && position > start) {
+                long indexedLineStart = lineOffsetIndex.getIndexedLineOffset(position);
+                if (indexedLineStart >= 0) {
+                    return Math.min(indexedLineStart, end);
+                }
+            }
+            return position == start ? position : getLineStart(channel, position, end);
+        }
+
+        @Override
+        public void onLine(String line, int rawLength) {
+            if (skipHeader) {
+                skipHeader = false;
+                return;
+            }
+            if (ordered) {
+                lines.add(line);
+                return;
+            }
+            if (pendingLine != null) {
+                emit(pendingLine, false);
+            }
+            pendingLine = line;
+        }
+
+        private void emit(String line, boolean eof) {
+            if (eofIndex >= 0) {
+                propertyValues[eofIndex] = String.valueOf(eof);
+            }
+            sourceEventListener.onEvent(line, propertyValues);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts records delimited by a begin and/or an end regex from UTF-8 encoded content in a streaming manner.
+ * The content is decoded step by step into a sliding window and the regexes are only matched from the last record
+ * boundary, hence each character is scanned a bounded number of times regardless of the size of the content.
+ * <ul>
+ * <li>begin and end regex: a record starts at a begin match and ends at the first end match after it.</li>
+ * <li>begin regex only: a record starts at a begin match and ends right before the next begin match. The last
+ * record ends at the end of the content.</li>
+ * <li>end regex only: a record starts after the leading whitespaces following the previous record and ends at the
+ * next end match.</li>
+ * </ul>
+ * Delimiter matches are assumed to be shorter than {@link #DELIMITER_LOOK_BACK} characters.
+ * If an {@link OversizedRecordHandler} is set, a record longer than its maximum length in characters is passed to it
+ * part by part instead of being kept in the window until the record is completed.
+ * When the input is never ended, as in tailing, {@link #getPendingByteCount()} tells how many of the fed bytes are
+ * still held for the records which are not completed yet, so that they can be fed again after a restart instead of
+ * being persisted.
+ */
+public class RegexRecordMatcher {
+    static final int DELIMITER_LOOK_BACK = 8192;
+    private static final int DECODE_STEP = 8192;
+
+    private final Pattern beginPattern;
+    private final Pattern endPattern;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private char[] window = new char[DECODE_STEP * 2];
+    private int length = 0;
+    private int recordStart = -1;
+    private int searchFrom = 0;
+    private CharBuffer windowView;
+    private Matcher beginMatcher;
+    private Matcher endMatcher;
+    private OversizedRecordHandler oversizedRecordHandler;
+    private boolean oversized = false;
+    private long consumedByteCount = 0;
+    private long discardedByteCount = 0;
+
+    public RegexRecordMatcher(Pattern beginPattern, Pattern endPattern) {
+        if (beginPattern == null && endPattern == null) {
+            throw new IllegalArgumentException("Either the begin regex or the end regex should be provided.");
+        }
+        this.beginPattern = beginPattern;
+        this.endPattern = endPattern;
+    }
+
+    /**
+     * Sets the handler of the records longer than its maximum length.
+     */
+    public void setOversizedRecordHandler(OversizedRecordHandler oversizedRecordHandler) {
+        this.oversizedRecordHandler = oversizedRecordHandler;
+    }
+
+    /**
+     * Decodes the given bytes and emits every record completed by them. Bytes of an incomplete character at the end
+     * of the buffer are left unconsumed, hence the caller should compact and refill the buffer unless
+     * {@code endOfInput} is true. Once the end of the input is reached the matcher is reset for the next input.
+     *
+     * @param bytes      content to be matched
+     * @param endOfInput whether the buffer holds the last bytes of the input
+     * @param consumer   consumer of the records
+     */
+    public void feed(ByteBuffer bytes, boolean endOfInput, RecordConsumer consumer) {
+        while (true) {
+            compact();
+            CharBuffer out = CharBuffer.wrap(window, length, Math.min(DECODE_STEP, window.length - length));
+            int position = bytes.position();
+            CoderResult result = decoder.decode(bytes, out, endOfInput);
+            consumedByteCount += bytes.position() - position;
+            length = out.position();
+            if (result.isError()) {
+                throw new IllegalStateException("Failed to decode the content: " + result);
+            }
+            if (result.isUnderflow()) {
+                break;
+            }
+            match(false, consumer);
+        }
+        if (endOfInput) {
+            compact();
+            CharBuffer out = CharBuffer.wrap(window, length, window.length - length);
+            decoder.flush(out);
+            length = out.position();
+            match(true, consumer);
+            decoder.reset();
+            length = 0;
+            recordStart = -1;
+            searchFrom = 0;
+            oversized = false;
+            consumedByteCount = 0;
+            discardedByteCount = 0;
+        } else {
+            match(false, consumer);
+        }
+    }
+
+    /**
+     * Returns the number of characters held for the record which is not completed yet.
+     */
+    public int getPendingLength() {
+        return length - (recordStart >= 0 ? recordStart : searchFrom);
+    }
+
+    /**
+     * Returns the number of the fed bytes which are held for the records not completed yet, including the bytes
+     * kept to find a delimiter spanning the next bytes. The count is exact for valid UTF-8 content, since the held
+     * characters are counted by their UTF-8 encoded length.
+     */
+    public long getPendingByteCount() {
+        return consumedByteCount - discardedByteCount - getEncodedLength(window, 0, getKeepFrom());
+    }
+
+    private static long getEncodedLength(char[] chars, int from, int to) {
+        long encodedLength = 0;
+        for (int i = from; i < to; i++) {
+            char value = chars[i];
+            if (value < 0x80) {
+                encodedLength++;
+            } else if (value < 0x800) {
+                encodedLength += 2;
+            } else if (Character.isHighSurrogate(value) && i + 1 < to && Character.isLowSurrogate(chars[i + 1])) {
+                encodedLength += 4;
+                i++;
+            } else {
+                encodedLength += 3;
+            }
+        }
+        return encodedLength;
+    }
+
+    private int getKeepFrom() {
+        return recordStart >= 0 ? Math.min(recordStart, searchFrom) : searchFrom;
+    }
+
+    private void match(boolean endOfInput, RecordConsumer consumer) {
+        windowView = CharBuffer.wrap(window, 0, length);
+        beginMatcher = beginPattern == null ? null : beginPattern.matcher(windowView);
+        endMatcher = endPattern == null ? null : endPattern.matcher(windowView);
+        if (oversized && !matchOversized(endOfInput, consumer)) {
+            return;
+        }
+        if (beginPattern != null && endPattern != null) {
+            matchBeginAndEnd(consumer);
+        } else if (beginPattern != null) {
+            matchBeginOnly(endOfInput, consumer);
+        } else {
+            matchEndOnly(consumer);
+        }
+        if (!endOfInput && recordStart >= 0 && oversizedRecordHandler != null &&
+                searchFrom - recordStart > oversizedRecordHandler.getMaxLength()) {
+            /* the characters already searched for the end of the record are handed over instead of being kept */
+            append(recordStart, searchFrom);
+            recordStart = searchFrom;
+            oversized = true;
+        }
+    }
+
+    /**
+     * Hands the characters of the oversized record over to the handler up to the match closing the record. While
+     * the record is oversized, {@link #recordStart} points to the first character which is not handed over yet.
+     * Returns true if the record is closed and the rest of the window should be matched as usual.
+     */
+    private boolean matchOversized(boolean endOfInput, RecordConsumer consumer) {
+        Matcher matcher = endMatcher != null ? endMatcher : beginMatcher;
+        boolean closed = find(matcher);
+        int end;
+        if (closed) {
+            end = endMatcher != null ? endMatcher.end() : beginMatcher.start();
+        } else if (endOfInput) {
+            end = length;
+        } else {
+            if (searchFrom > recordStart) {
+                append(recordStart, searchFrom);
+                recordStart = searchFrom;
+            }
+            return false;
+        }
+        append(recordStart, end);
+        oversized = false;
+        String record = oversizedRecordHandler.endText();
+        /* as for regular records, a record which is not closed by its end match is dropped */
+        if (record != null && (closed || endPattern == null)) {
+            consumer.onRecord(record);
+        }
+        recordStart = -1;
+        searchFrom = end;
+        return true;
+    }
+
+    private void emit(int start, int end, RecordConsumer consumer) {
+        if (oversizedRecordHandler != null && end - start > oversizedRecordHandler.getMaxLength()) {
+            append(start, end);
+            String record = oversizedRecordHandler.endText();
+            if (record != null) {
+                consumer.onRecord(record);
+            }
+            return;
+        }
+        consumer.onRecord(new String(window, start, end - start));
+    }
+
+    private void append(int start, int end) {
+        oversizedRecordHandler.append(CharBuffer.wrap(window, start, end - start));
+    }
+
+    private void matchBeginAndEnd(RecordConsumer consumer) {
+        while (true) {
+            if (recordStart < 0) {
+                if (!find(beginMatcher)) {
+                    return;
+                }
+                recordStart = beginMatcher.start();
+                searchFrom = beginMatcher.end();
+            }
+            if (!find(endMatcher)) {
+                return;
+            }
+            emit(recordStart, endMatcher.end(), consumer);
+            recordStart = -1;
+            searchFrom = endMatcher.end();
+        }
+    }
+
+    private void matchBeginOnly(boolean endOfInput, RecordConsumer consumer) {
+        while (true) {
+            if (!find(beginMatcher)) {
+                break;
+            }
+            if (recordStart >= 0) {
+                emit(recordStart, beginMatcher.start(), consumer);
+            }
+            recordStart = beginMatcher.start();
+            searchFrom = beginMatcher.end();
+        }
+        if (endOfInput && recordStart >= 0) {
+            emit(recordStart, length, consumer);
+            recordStart = -1;
+        }
+    }
+
+    private void matchEndOnly(RecordConsumer consumer) {
+        while (true) {
+            if (recordStart < 0) {
+                int start = searchFrom;
+                while (start < length && window[start] <= ' ') {
+                    start++;
+                }
+                searchFrom = start;
+                if (start == length) {
+                    return;
+                }
+                recordStart = start;
+            }
+            if (!find(endMatcher)) {
+                return;
+            }
+            emit(recordStart, endMatcher.end(), consumer);
+            recordStart = -1;
+            searchFrom = endMatcher.end();
+        }
+    }
+
+    /**
+     * Finds the next non empty match starting from {@link #searchFrom}. When there is no match, {@link #searchFrom}
+     * is advanced as far as it is safe so that the scanned characters are not scanned again after more content is
+     * decoded.
+     */
+    private boolean find(Matcher matcher) {
+        int from = searchFrom;
+        while (from <= length) {
+            matcher.region(from, length);
+            matcher.useTransparentBounds(true);
+            matcher.useAnchoringBounds(false);
+            if (!matcher.find()) {
+                if (!matcher.hitEnd()) {
+                    searchFrom = length;
+                } else {
+                    searchFrom = Math.max(searchFrom, length - DELIMITER_LOOK_BACK);
+                }
+                return false;
+            }
+            if (matcher.end() > matcher.start()) {
+                return true;
+            }
+            from = matcher.end() + 1;
+        }
+        searchFrom = length;
+        return false;
+    }
+
+    /**
+     * Discards the characters which are not needed anymore and makes room for the next decoding step.
+     */
+    private void compact() {
+        int keepFrom = getKeepFrom();
+        if (keepFrom > 0) {
+            discardedByteCount += getEncodedLength(window, 0, keepFrom);
+            System.arraycopy(window, keepFrom, window, 0, length - keepFrom);
+            length -= keepFrom;
+            searchFrom -= keepFrom;
+            if (recordStart >= 0) {
+                recordStart -= keepFrom;
+            }
+        }
+        if (window.length - length < DECODE_STEP) {
+            char[] grown = new char[Math.max(window.length * 2, length + DECODE_STEP)];
+            System.arraycopy(window, 0, grown, 0, length);
+            window = grown;
+        }
+    }
+
+    /**
+     * Consumer of the records emitted by the {@link RegexRecordMatcher}.
+     */
+    public interface RecordConsumer {
+        /**
+         * Handles a matched record.
+         *
+         * @param record the record
+         */
+        void onRecord(String record);
+    }
+}
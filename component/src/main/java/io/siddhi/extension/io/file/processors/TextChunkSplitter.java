@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits UTF-8 encoded content into chunks of at most the chunk size, each ending right after the last delimiter
+ * within the chunk, so that no record is split across chunks.
+ * A record which is longer than the chunk size is emitted as a chunk of its own, up to the delimiter closing it. The
+ * last chunk of the content holds whatever follows the last cut, whether it ends with a delimiter or not.
+ * As the delimiters are searched on the raw bytes, only the emitted chunks are decoded and a multi-byte character is
+ * never cut.
+ */
+public class TextChunkSplitter {
+    private final int chunkSize;
+    private final byte[] delimiter;
+    private final int[] shifts;
+    private int pendingScanned = 0;
+
+    public TextChunkSplitter(int chunkSize, String delimiter) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size should be a positive integer.");
+        }
+        if (delimiter == null || delimiter.isEmpty()) {
+            throw new IllegalArgumentException("The delimiter cannot be empty.");
+        }
+        this.chunkSize = chunkSize;
+        this.delimiter = delimiter.getBytes(StandardCharsets.UTF_8);
+        this.shifts = DelimitedRecordSplitter.getShifts(this.delimiter);
+    }
+
+    /**
+     * Emits every chunk which can be cut from the content of the given buffer.
+     * The position of the buffer is advanced past the consumed content. If {@code endOfInput} is false, the bytes
+     * which do not fill a chunk yet are left in the buffer so that the caller can compact and refill it. Once the
+     * end of the input is reached the splitter is reset for the next input.
+     *
+     * @param buffer     content to be split
+     * @param endOfInput whether the buffer holds the last bytes of the input
+     * @param consumer   consumer of the chunks
+     */
+    public void split(ByteBuffer buffer, boolean endOfInput, ChunkConsumer consumer) {
+        int limit = buffer.limit();
+        int start = buffer.position();
+        while (start < limit) {
+            int end;
+            if (endOfInput && limit - start <= chunkSize) {
+                end = limit;
+            } else if (limit - start < chunkSize) {
+                break;
+            } else {
+                end = lastIndexOf(buffer, start, start + chunkSize);
+                if (end < 0) {
+                    /* the chunk holds a single record longer than the chunk size */
+                    int searchFrom = Math.max(start + chunkSize - delimiter.length + 1, start + pendingScanned);
+                    int found = DelimitedRecordSplitter.indexOf(buffer, searchFrom, limit, delimiter, shifts);
+                    if (found >= 0) {
+                        end = found + delimiter.length;
+                    } else if (endOfInput) {
+                        end = limit;
+                    } else {
+                        pendingScanned = Math.max(searchFrom, limit - delimiter.length + 1) - start;
+                        break;
+                    }
+                }
+            }
+            consumer.onChunk(decode(buffer, start, end), endOfInput && end == limit);
+            start = end;
+            pendingScanned = 0;
+        }
+        buffer.position(start);
+        if (endOfInput) {
+            pendingScanned = 0;
+        }
+    }
+
+    /**
+     * Returns the index right after the last delimiter which ends within the range, or -1 if there is none.
+     */
+    private int lastIndexOf(ByteBuffer buffer, int from, int to) {
+        int last = delimiter.length - 1;
+        byte lastByte = delimiter[last];
+        for (int index = to - 1; index - last >= from; index--) {
+            if (buffer.get(index) == lastByte) {
+                int i = last - 1;
+                while (i >= 0 && buffer.get(index - last + i) == delimiter[i]) {
+                    i--;
+                }
+                if (i < 0) {
+                    return index + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[end - start];
+        ByteBuffer chunk = buffer.duplicate();
+        chunk.limit(end).position(start);
+        chunk.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Consumer of the chunks emitted by the {@link TextChunkSplitter}.
+     */
+    public interface ChunkConsumer {
+        /**
+         * Handles a chunk.
+         *
+         * @param chunk the chunk
+         * @param last  whether the chunk is the last chunk of the input
+         */
+        void onChunk(String chunk, boolean last);
+    }
+}
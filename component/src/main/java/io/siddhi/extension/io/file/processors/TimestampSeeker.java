@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.processors;
+
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the first line of a time ordered file whose timestamp is not before a given start timestamp, by a binary
+ * search over the byte offsets of the file.
+ * Each probe moves to the start of the next line and reads lines until it finds one with a timestamp, skipping the
+ * lines without one, such as the continuation lines of a multi-line log entry. Hence the start position is found
+ * in a number of reads logarithmic to the size of the file, instead of reading all the lines before it.
+ */
+public class TimestampSeeker {
+    private static final Logger log = Logger.getLogger(TimestampSeeker.class);
+    private static final int BLOCK_SIZE = 8 * 1024;
+
+    private final Pattern timestampPattern;
+    private final DateTimeFormatter timestampFormatter;
+    private final long startTimestamp;
+
+    /**
+     * @param timestampRegex regex to find the timestamp of a line, whose first group is the timestamp if it has
+     *                       groups, or the whole match otherwise
+     * @param timestampFormat pattern of the timestamps, as of {@link DateTimeFormatter}, in which the timestamps
+     *                        without a zone are taken to be in the system zone
+     * @param startTimestamp timestamp, in the timestamp format, of the first line to be read
+     * @throws IllegalArgumentException if the regex, the format or the start timestamp is invalid
+     */
+    public TimestampSeeker(String timestampRegex, String timestampFormat, String startTimestamp) {
+        this.timestampPattern = Pattern.compile(timestampRegex);
+        this.timestampFormatter = DateTimeFormatter.ofPattern(timestampFormat).withZone(ZoneId.systemDefault());
+        try {
+            this.startTimestamp = parseTimestamp(startTimestamp);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Start timestamp '" + startTimestamp + "' does not match the format '" +
+                    timestampFormat + "'.", e);
+        }
+    }
+
+    private long parseTimestamp(String timestamp) {
+        return Instant.from(timestampFormatter.parse(timestamp)).toEpochMilli();
+    }
+
+    /**
+     * Finds the position of the first line whose timestamp is not before the start timestamp.
+     *
+     * @param reader reader of the blocks of the file
+     * @param size   size of the file
+     * @return the position of the line, or the size of the file if there is no such line
+     * @throws IOException if the file cannot be read
+     */
+    long seek(BlockReader reader, long size) throws IOException {
+        long low = 0;
+        long high = size;
+        int probes = 0;
+        /* the lines starting before low are before the start timestamp, and the line is found at or before high */
+        while (low < high) {
+            long middle = low + (high - low) / 2;
+            Probe probe = new Probe(reader, size, middle);
+            long lineStart = probe.findTimestampedLine(high);
+            probes++;
+            if (lineStart < 0 || probe.timestamp >= startTimestamp) {
+                high = middle;
+            } else {
+                low = lineStart + 1;
+            }
+        }
+        Probe probe = new Probe(reader, size, low);
+        long lineStart = probe.findTimestampedLine(size);
+        long position = lineStart < 0 || probe.timestamp < startTimestamp ? size : lineStart;
+        if (log.isDebugEnabled()) {
+            log.debug("Found the start timestamp at position " + position + " in " + probes + " probes.");
+        }
+        return position;
+    }
+
+    /**
+     * Reads the lines of a file sequentially from a given position.
+     */
+    private class Probe {
+        private final BlockReader reader;
+        private final long size;
+        private final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        private long blockStart;
+        private long timestamp;
+
+        Probe(BlockReader reader, long size, long position) {
+            this.reader = reader;
+            this.size = size;
+            this.blockStart = position;
+            block.limit(0);
+        }
+
+        /**
+         * Finds the first line with a timestamp which starts at or after the position of the probe, and before the
+         * given limit.
+         *
+         * @return the position of the line, or -1 if there is no such line
+         */
+        long findTimestampedLine(long limit) throws IOException {
+            long lineStart = blockStart;
+            if (lineStart > 0) {
+                /* the probe may be in the middle of a line, hence the line starts after the previous new line */
+                blockStart = lineStart - 1;
+                if (!skipLine()) {
+                    return -1;
+                }
+                lineStart = position();
+            }
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            while (lineStart < limit) {
+                line.reset();
+                boolean completed = readLine(line);
+                Matcher matcher = timestampPattern.matcher(new String(line.toByteArray(), StandardCharsets.UTF_8));
+                if (matcher.find()) {
+                    try {
+                        timestamp = parseTimestamp(matcher.groupCount() > 0 ? matcher.group(1) : matcher.group());
+                        return lineStart;
+                    } catch (DateTimeException e) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Skipped a line at position " + lineStart + " with an invalid timestamp.");
+                        }
+                    }
+                }
+                if (!completed) {
+                    return -1;
+                }
+                lineStart = position();
+            }
+            return -1;
+        }
+
+        private long position() {
+            return blockStart + block.position();
+        }
+
+        private boolean skipLine() throws IOException {
+            while (fill()) {
+                while (block.hasRemaining()) {
+                    if (block.get() == '\n') {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean readLine(ByteArrayOutputStream line) throws IOException {
+            while (fill()) {
+                while (block.hasRemaining()) {
+                    byte b = block.get();
+                    if (b == '\n') {
+                        return true;
+                    }
+                    line.write(b);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Reads the next block if the current block is consumed.
+         *
+         * @return false if the end of the file is reached
+         */
+        private boolean fill() throws IOException {
+            if (block.hasRemaining()) {
+                return true;
+            }
+            blockStart += block.position();
+            int length = (int) Math.min(BLOCK_SIZE, size - blockStart);
+            if (length <= 0) {
+                return false;
+            }
+            block.clear();
+            block.limit(length);
+            while (block.hasRemaining()) {
+                if (reader.read(block, blockStart + block.position()) <= 0) {
+                    break;
+                }
+            }
+            block.flip();
+            return block.hasRemaining();
+        }
+    }
+}
@@ -38,11 +38,24 @@ public class Constants {
     public static final String TAILING = "tailing";
     public static final String BEGIN_REGEX = "begin.regex";
     public static final String END_REGEX = "end.regex";
+    public static final String BEGIN_DELIMITER = "begin.delimiter";
+    public static final String END_DELIMITER = "end.delimiter";
     public static final String DIR_URI = "dir.uri";
     public static final String FILE_URI = "file.uri";
     public static final String FILE_NAME_LIST = "file.name.list";
     public static final String DIRECTORY_POLLING_INTERVAL = "dir.polling.interval";
     public static final String FILE_POLLING_INTERVAL = "file.polling.interval";
+    public static final String MIN_FILE_POLLING_INTERVAL = "min.file.polling.interval";
+    public static final String MAX_FILE_POLLING_INTERVAL = "max.file.polling.interval";
+    public static final String MAX_LINES_PER_POLL_IN_TAILING = "max.lines.per.poll";
+    public static final String START_POSITION_IN_TAILING = "start.position";
+    public static final String START_TIMESTAMP = "start.timestamp";
+    public static final String TIMESTAMP_REGEX = "timestamp.regex";
+    public static final String TIMESTAMP_FORMAT = "timestamp.format";
+    public static final String START_LINE = "start.line";
+    public static final String LINE_INDEX_ENABLED = "line.index.enabled";
+    public static final String LINE_INDEX_INTERVAL = "line.index.interval";
+    public static final String LINE_INDEX_DIR = "line.index.dir";
     public static final String MONITORING_INTERVAL = "monitoring.interval";
     public static final String TIMEOUT = "timeout";
     public static final String ADD_EVENT_SEPARATOR = "add.line.separator";
@@ -56,21 +69,58 @@ public class Constants {
     public static final String FILE_NAME_PATTERN = "file.name.pattern";
     public static final String FILE_NAME_PATTERN_PROPERTY_NAME = "fileNamePattern";
     public static final String FILE_SYSTEM_OPTIONS = "file.system.options";
+    public static final String READ_PARALLELISM = "read.parallelism";
+    public static final String READ_PARALLELISM_ORDERED = "read.parallelism.ordered";
+    public static final String TAILING_PARALLELISM = "tailing.parallelism";
+    public static final String DIR_PARALLELISM = "dir.parallelism";
+    public static final String DIR_PARALLELISM_ORDERED = "dir.parallelism.ordered";
+    public static final String DIR_PARALLELISM_MAX_BYTES = "dir.parallelism.max.bytes";
+    public static final String TAILING_CHECKPOINT_FILE = "tailing.checkpoint.file";
+    public static final String TAILING_CHECKPOINT_INTERVAL = "tailing.checkpoint.interval";
+    public static final String TAILING_CHECKPOINT_EVENT_COUNT = "tailing.checkpoint.event.count";
+    public static final String NATIVE_READER_ENABLED = "native.reader.enabled";
+    public static final String BATCH_SIZE = "batch.size";
+    public static final String BATCH_LINGER_MS = "batch.linger.ms";
+    public static final String CHUNK_POOL_SIZE = "chunk.pool.size";
+    public static final String COMPRESSION = "compression";
+    public static final String MAX_RECORD_LENGTH = "max.record.length";
+    public static final String MAX_FILE_SIZE_IN_MEMORY = "max.file.size.in.memory";
+    public static final String OVERSIZED_RECORD_POLICY = "oversized.record.policy";
+    public static final String PROCESSED_FILE_REGISTRY_SIZE = "processed.file.registry.size";
+    public static final String PROCESSED_FILE_WATERMARK = "processed.file.watermark";
 
     /* configuration param values*/
     public static final String MOVE = "move";
     public static final String DELETE = "delete";
     public static final String KEEP = "keep";
+    public static final String OVERWRITE = "overwrite";
     public static final String TEXT_FULL = "text.full";
     public static final String BINARY_FULL = "binary.full";
     public static final String BINARY_CHUNKED = "binary.chunked";
+    public static final String TEXT_CHUNKED = "text.chunked";
     public static final String REGEX = "regex";
+    public static final String DELIMITED = "delimited";
     public static final String LINE = "line";
     public static final String TRUE = "true";
     public static final String FALSE = "false";
     public static final String NONE = "none";
+    public static final String AUTO = "auto";
+    public static final String GZIP = "gzip";
+    public static final String BZIP2 = "bzip2";
+    public static final String XZ = "xz";
+    public static final String ZSTD = "zstd";
+    public static final String TRUNCATE = "truncate";
+    public static final String SKIP = "skip";
+    public static final String SPILL = "spill";
+    public static final String BEGINNING = "beginning";
+    public static final String END = "end";
+    public static final String LAST_LINES_PREFIX = "last:";
+    public static final String DEFAULT_TIMESTAMP_REGEX = "^(\\d{4}-\\d{2}-\\d{2}[ T]\\d{2}:\\d{2}:\\d{2})";
+    public static final String DEFAULT_TIMESTAMP_FORMAT = "yyyy-MM-dd HH:mm:ss";
     public static final int BUFFER_SIZE = 4096;
     public static final String BUFFER_SIZE_IN_BINARY_CHUNKED = "buffer.size";
+    public static final String DEFAULT_CHUNK_DELIMITER = "\n";
+    public static final String UNLIMITED_LINES_PER_POLL = "-1";
 
     /*property keys*/
     public static final String ACTION = "action";
@@ -90,7 +140,6 @@ public class Constants {
     public static final String FILE_SORT_ATTRIBUTE = "fileSortAttribute";
     public static final String FILE_SORT_ASCENDING = "fileSortAscending";
     public static final String CREATE_MOVE_DIR = "createMoveDir";
-    public static final String ACK_TIME_OUT = "ackTimeOut";
     public static final String DESTINATION = "destination";
     public static final String FILE_READ_WAIT_TIMEOUT_KEY = "fileReadWaitTimeout";
     public static final String CURRENT_POSITION = "currentPosition";
@@ -18,44 +18,84 @@
 
 package io.siddhi.extension.io.file.util;
 
+import io.siddhi.extension.io.file.processors.ChunkPool;
+import io.siddhi.extension.io.file.processors.FileTailer;
+import io.siddhi.extension.io.file.processors.FileTailerPool;
+import io.siddhi.extension.io.file.processors.TimestampSeeker;
 import org.quartz.Scheduler;
-import org.wso2.transport.file.connector.server.FileServerConnector;
 import org.wso2.transport.remotefilesystem.server.connector.contract.RemoteFileSystemServerConnector;
 
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 /**
  * Class for keep the configurations of a file source instance.
  */
 public class FileSourceConfiguration {
+    private static final int MAX_RETIRED_FILE_POINTERS = 100;
 
     private boolean isTailingEnabled;
     private String mode;
     private String beginRegex = null;
     private String endRegex = null;
-    private String filePointer = "0";
+    private String beginDelimiter = null;
+    private String endDelimiter = null;
+    private Map<String, Long> filePointerMap = new ConcurrentHashMap<>();
+    private final Deque<String> retiredFilePointerKeys = new ArrayDeque<>();
     private String filePollingInterval = null;
+    private long minFilePollingInterval;
+    private long maxFilePollingInterval;
+    private int maxLinesPerPoll = -1;
     private String sourceProtocol = null;
     private String protocolForMoveAfterFailure = null;
     private String protocolForMoveAfterProcess = null;
-    private long timeout = 5000;
     private String headerPresent = "false";
     private String readOnlyHeader = "false";
     private String readOnlyTrailer = "false";
     private String skipTrailer = "false";
     private String bufferSizeInBinaryChunked = "65536";
 
-    private FileServerConnector fileServerConnector;
+    private Map<String, FileTailer> fileTailers = new ConcurrentHashMap<>();
+    private FileTailerPool fileTailerPool;
+    private TailingCheckpointStore tailingCheckpointStore;
+    private TimestampSeeker timestampSeeker;
+    private long startLine = 1;
+    private boolean lineIndexEnabled = false;
+    private int lineIndexInterval = 1000;
+    private Path lineIndexDirectory;
+    private long tailingStartOffset;
+    private int tailingStartLines = -1;
+    private final Set<String> startPositionFileURIs = ConcurrentHashMap.newKeySet();
+    private int tailingParallelism = 1;
+    private int dirParallelism = 1;
+    private boolean dirParallelismOrdered = false;
+    private long dirParallelismMaxBytes = -1;
     private RemoteFileSystemServerConnector fileSystemServerConnector;
-    private List<String> processedFileList = new ArrayList<>();
+    private ProcessedFileRegistry processedFileRegistry = new ProcessedFileRegistry(-1, false);
     private List<String> tailedFileURIMap;
     private ExecutorService executorService = null;
+    private ForkJoinPool readerPool = null;
+    private ChunkPool chunkPool = null;
+    private int readParallelism = 1;
+    private boolean readInOrder = true;
+    private boolean nativeReaderEnabled = true;
+    private String compression = Constants.NONE;
+    private String fileSystemOptions = null;
+    private int maxRecordLength = -1;
+    private long maxFileSizeInMemory = -1;
+    private String oversizedRecordPolicy = Constants.SKIP;
     private String[] requiredProperties = null;
-    private StringBuilder tailingRegexStringBuilder = null;
-    private Pattern pattern;
+    private Pattern beginPattern;
+    private Pattern endPattern;
 
     private String actionAfterProcess = null;
     private String moveIfExistMode = null;
@@ -69,10 +109,6 @@ public class FileSourceConfiguration {
     private String currentlyReadingFileURI;
     // once app is disconnected
 
-    public FileSourceConfiguration() {
-        tailingRegexStringBuilder = new StringBuilder();
-    }
-
     public String getBeginRegex() {
         return beginRegex;
     }
@@ -89,6 +125,22 @@ public class FileSourceConfiguration {
         this.endRegex = endRegex;
     }
 
+    public String getBeginDelimiter() {
+        return beginDelimiter;
+    }
+
+    public void setBeginDelimiter(String beginDelimiter) {
+        this.beginDelimiter = beginDelimiter;
+    }
+
+    public String getEndDelimiter() {
+        return endDelimiter;
+    }
+
+    public void setEndDelimiter(String endDelimiter) {
+        this.endDelimiter = endDelimiter;
+    }
+
     public String getMode() {
         return mode;
     }
@@ -105,24 +157,191 @@ public class FileSourceConfiguration {
         isTailingEnabled = tailingEnabled;
     }
 
-    public String getFilePointer() {
-        return filePointer;
+    public Map<String, Long> getFilePointerMap() {
+        return filePointerMap;
+    }
+
+    public void setFilePointerMap(Map<String, Long> filePointerMap) {
+        synchronized (retiredFilePointerKeys) {
+            retiredFilePointerKeys.clear();
+            this.filePointerMap = new ConcurrentHashMap<>(filePointerMap);
+        }
+    }
+
+    /**
+     * Returns the position up to which a file has been tailed, and keeps its file pointer for as long as it is tailed.
+     * A file pointer kept against the URI of the file, as by the versions which did not key the file pointers by the
+     * identities of the files, is moved to the given key.
+     * @param filePointerKey identity of the tailed file, or its URI if its identity is not known
+     * @param fileURI URI of the tailed file
+     * @return the file pointer, or null if the file has not been tailed yet
+     */
+    public Long adoptFilePointer(String filePointerKey, String fileURI) {
+        synchronized (retiredFilePointerKeys) {
+            retiredFilePointerKeys.remove(filePointerKey);
+            Long filePointer = filePointerMap.get(filePointerKey);
+            if (filePointer == null && !filePointerKey.equals(fileURI)) {
+                filePointer = filePointerMap.remove(fileURI);
+                if (filePointer != null) {
+                    retiredFilePointerKeys.remove(fileURI);
+                    filePointerMap.put(filePointerKey, filePointer);
+                }
+            }
+            return filePointer;
+        }
+    }
+
+    public void updateFilePointer(String filePointerKey, long filePointer) {
+        filePointerMap.put(filePointerKey, filePointer);
+        if (tailingCheckpointStore != null) {
+            tailingCheckpointStore.onUpdate();
+        }
+    }
+
+    /**
+     * Marks the file pointer of a file which is no longer at the path it was tailed at, as it is rotated or deleted.
+     * The file pointer is kept for the file to be tailed from it if it is found at another path, but only the file
+     * pointers of the last {@value #MAX_RETIRED_FILE_POINTERS} such files are kept.
+     * @param filePointerKey identity of the file
+     */
+    public void retireFilePointer(String filePointerKey) {
+        synchronized (retiredFilePointerKeys) {
+            retiredFilePointerKeys.remove(filePointerKey);
+            retiredFilePointerKeys.addLast(filePointerKey);
+            while (retiredFilePointerKeys.size() > MAX_RETIRED_FILE_POINTERS) {
+                filePointerMap.remove(retiredFilePointerKeys.removeFirst());
+            }
+        }
+    }
+
+    public Map<String, FileTailer> getFileTailers() {
+        return fileTailers;
+    }
+
+    public long getTailingStartOffset() {
+        return tailingStartOffset;
+    }
+
+    public void setTailingStartOffset(long tailingStartOffset) {
+        this.tailingStartOffset = tailingStartOffset;
+    }
+
+    /**
+     * @return the number of lines before the end of a file to start tailing it from, or -1 if it is tailed from the
+     * start offset
+     */
+    public int getTailingStartLines() {
+        return tailingStartLines;
+    }
+
+    public void setTailingStartLines(int tailingStartLines) {
+        this.tailingStartLines = tailingStartLines;
+    }
+
+    /**
+     * @return URIs of the files found when the source started tailing, which are tailed from the start position if
+     * they have not been tailed before
+     */
+    public Set<String> getStartPositionFileURIs() {
+        return startPositionFileURIs;
+    }
+
+    /**
+     * @return the seeker of the first line of the start timestamp, or null if the files are read from the start
+     * position
+     */
+    public TimestampSeeker getTimestampSeeker() {
+        return timestampSeeker;
+    }
+
+    public void setTimestampSeeker(TimestampSeeker timestampSeeker) {
+        this.timestampSeeker = timestampSeeker;
+    }
+
+    /**
+     * @return the one based number of the first line to be read from the files which are not tailed
+     */
+    public long getStartLine() {
+        return startLine;
+    }
+
+    public void setStartLine(long startLine) {
+        this.startLine = startLine;
+    }
+
+    public boolean isLineIndexEnabled() {
+        return lineIndexEnabled;
+    }
+
+    public void setLineIndexEnabled(boolean lineIndexEnabled) {
+        this.lineIndexEnabled = lineIndexEnabled;
+    }
+
+    public int getLineIndexInterval() {
+        return lineIndexInterval;
+    }
+
+    public void setLineIndexInterval(int lineIndexInterval) {
+        this.lineIndexInterval = lineIndexInterval;
+    }
+
+    /**
+     * @return the directory of the line offset index files, or null to keep them next to the indexed files
+     */
+    public Path getLineIndexDirectory() {
+        return lineIndexDirectory;
+    }
+
+    public void setLineIndexDirectory(Path lineIndexDirectory) {
+        this.lineIndexDirectory = lineIndexDirectory;
+    }
+
+    public TailingCheckpointStore getTailingCheckpointStore() {
+        return tailingCheckpointStore;
+    }
+
+    public void setTailingCheckpointStore(TailingCheckpointStore tailingCheckpointStore) {
+        this.tailingCheckpointStore = tailingCheckpointStore;
     }
 
-    public void setFilePointer(String filePointer) {
-        this.filePointer = filePointer;
+    public FileTailerPool getFileTailerPool() {
+        return fileTailerPool;
     }
 
-    public void updateFilePointer(long valueToAdd) {
-        this.filePointer = Long.toString(valueToAdd);
+    public void setFileTailerPool(FileTailerPool fileTailerPool) {
+        this.fileTailerPool = fileTailerPool;
     }
 
-    public FileServerConnector getFileServerConnector() {
-        return fileServerConnector;
+    public int getTailingParallelism() {
+        return tailingParallelism;
     }
 
-    public void setFileServerConnector(FileServerConnector fileServerConnector) {
-        this.fileServerConnector = fileServerConnector;
+    public void setTailingParallelism(int tailingParallelism) {
+        this.tailingParallelism = tailingParallelism;
+    }
+
+    public int getDirParallelism() {
+        return dirParallelism;
+    }
+
+    public void setDirParallelism(int dirParallelism) {
+        this.dirParallelism = dirParallelism;
+    }
+
+    public boolean isDirParallelismOrdered() {
+        return dirParallelismOrdered;
+    }
+
+    public void setDirParallelismOrdered(boolean dirParallelismOrdered) {
+        this.dirParallelismOrdered = dirParallelismOrdered;
+    }
+
+    public long getDirParallelismMaxBytes() {
+        return dirParallelismMaxBytes;
+    }
+
+    public void setDirParallelismMaxBytes(long dirParallelismMaxBytes) {
+        this.dirParallelismMaxBytes = dirParallelismMaxBytes;
     }
 
     public RemoteFileSystemServerConnector getFileSystemServerConnector() {
@@ -160,6 +379,86 @@ public class FileSourceConfiguration {
         this.executorService = executorService;
     }
 
+    public ChunkPool getChunkPool() {
+        return chunkPool;
+    }
+
+    public void setChunkPool(ChunkPool chunkPool) {
+        this.chunkPool = chunkPool;
+    }
+
+    public ForkJoinPool getReaderPool() {
+        return readerPool;
+    }
+
+    public void setReaderPool(ForkJoinPool readerPool) {
+        this.readerPool = readerPool;
+    }
+
+    public int getReadParallelism() {
+        return readParallelism;
+    }
+
+    public void setReadParallelism(int readParallelism) {
+        this.readParallelism = readParallelism;
+    }
+
+    public boolean isReadInOrder() {
+        return readInOrder;
+    }
+
+    public void setReadInOrder(boolean readInOrder) {
+        this.readInOrder = readInOrder;
+    }
+
+    public boolean isNativeReaderEnabled() {
+        return nativeReaderEnabled;
+    }
+
+    public void setNativeReaderEnabled(boolean nativeReaderEnabled) {
+        this.nativeReaderEnabled = nativeReaderEnabled;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public String getFileSystemOptions() {
+        return fileSystemOptions;
+    }
+
+    public void setFileSystemOptions(String fileSystemOptions) {
+        this.fileSystemOptions = fileSystemOptions;
+    }
+
+    public int getMaxRecordLength() {
+        return maxRecordLength;
+    }
+
+    public void setMaxRecordLength(int maxRecordLength) {
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    public long getMaxFileSizeInMemory() {
+        return maxFileSizeInMemory;
+    }
+
+    public void setMaxFileSizeInMemory(long maxFileSizeInMemory) {
+        this.maxFileSizeInMemory = maxFileSizeInMemory;
+    }
+
+    public String getOversizedRecordPolicy() {
+        return oversizedRecordPolicy;
+    }
+
+    public void setOversizedRecordPolicy(String oversizedRecordPolicy) {
+        this.oversizedRecordPolicy = oversizedRecordPolicy;
+    }
+
     public String[] getRequiredProperties() {
         return requiredProperties.clone();
     }
@@ -176,20 +475,44 @@ public class FileSourceConfiguration {
         this.filePollingInterval = filePollingInterval;
     }
 
-    public StringBuilder getTailingRegexStringBuilder() {
-        return tailingRegexStringBuilder;
+    public long getMinFilePollingInterval() {
+        return minFilePollingInterval;
+    }
+
+    public void setMinFilePollingInterval(long minFilePollingInterval) {
+        this.minFilePollingInterval = minFilePollingInterval;
+    }
+
+    public long getMaxFilePollingInterval() {
+        return maxFilePollingInterval;
+    }
+
+    public void setMaxFilePollingInterval(long maxFilePollingInterval) {
+        this.maxFilePollingInterval = maxFilePollingInterval;
+    }
+
+    public int getMaxLinesPerPoll() {
+        return maxLinesPerPoll;
+    }
+
+    public void setMaxLinesPerPoll(int maxLinesPerPoll) {
+        this.maxLinesPerPoll = maxLinesPerPoll;
+    }
+
+    public Pattern getBeginPattern() {
+        return beginPattern;
     }
 
-    public void updateTailingRegexStringBuilder(StringBuilder tailingRegexStringBuilder) {
-        this.tailingRegexStringBuilder = tailingRegexStringBuilder;
+    public void setBeginPattern(Pattern beginPattern) {
+        this.beginPattern = beginPattern;
     }
 
-    public Pattern getPattern() {
-        return pattern;
+    public Pattern getEndPattern() {
+        return endPattern;
     }
 
-    public void setPattern(Pattern pattern) {
-        this.pattern = pattern;
+    public void setEndPattern(Pattern endPattern) {
+        this.endPattern = endPattern;
     }
 
     public String getActionAfterProcess() {
@@ -232,14 +555,6 @@ public class FileSourceConfiguration {
         this.protocolForMoveAfterProcess = protocolForMoveAfterProcess;
     }
 
-    public long getTimeout() {
-        return timeout;
-    }
-
-    public void setTimeout(long timeout) {
-        this.timeout = timeout;
-    }
-
     public String getFileReadWaitTimeout() {
         return fileReadWaitTimeout;
     }
@@ -312,25 +627,12 @@ public class FileSourceConfiguration {
         return scheduler;
     }
 
-    public List<String> getProcessedFileList() {
-        return processedFileList;
+    public ProcessedFileRegistry getProcessedFileRegistry() {
+        return processedFileRegistry;
     }
 
-    public void setProcessedFileList(List<String> processedFileList) {
-        this.processedFileList = processedFileList;
-    }
-
-    /**
-     * Maintains the processedFileList. Adds a file URL to the list if it has not being added already.
-     * @param fileURI the file URI which needs to be added to the list
-     * @return true if the fileURI is absent in the current list and adds to it; false if the URI is already present.
-     */
-    public boolean addFileToListIfAbsent(String fileURI) {
-        if (processedFileList.contains(fileURI)) {
-            return false;
-        }
-        processedFileList.add(fileURI);
-        return true;
+    public void setProcessedFileRegistry(ProcessedFileRegistry processedFileRegistry) {
+        this.processedFileRegistry = processedFileRegistry;
     }
 
     public String getMoveIfExistMode() {
@@ -18,7 +18,6 @@
 
 package io.siddhi.extension.io.file.util;
 
-import org.wso2.transport.file.connector.server.FileServerConnectorProvider;
 import org.wso2.transport.remotefilesystem.RemoteFileSystemConnectorFactory;
 import org.wso2.transport.remotefilesystem.impl.RemoteFileSystemConnectorFactoryImpl;
 
@@ -28,8 +27,6 @@ import org.wso2.transport.remotefilesystem.impl.RemoteFileSystemConnectorFactory
 public class FileSourceServiceProvider {
     private static RemoteFileSystemConnectorFactory fileSystemConnectorFactory =
             new RemoteFileSystemConnectorFactoryImpl();
-    private static FileServerConnectorProvider fileServerConnectorProvider =
-            new FileServerConnectorProvider();
     private static FileSourceServiceProvider fileSourceServiceProvider = new FileSourceServiceProvider();
 
     private FileSourceServiceProvider() {
@@ -42,8 +39,4 @@ public class FileSourceServiceProvider {
     public RemoteFileSystemConnectorFactory getFileSystemConnectorFactory() {
         return fileSystemConnectorFactory;
     }
-
-    public FileServerConnectorProvider getFileServerConnectorProvider() {
-        return fileServerConnectorProvider;
-    }
 }
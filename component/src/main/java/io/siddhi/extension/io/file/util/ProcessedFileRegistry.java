@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.util;
+
+import io.siddhi.core.util.snapshot.SnapshotRequest;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the files of a directory which are already processed by a source, so that the files kept in the
+ * directory are not processed again on the next polls.
+ * A file is held as its name and the URI of its directory, which is shared by all the files of the directory, and
+ * is looked up by its hash. The registry can be bounded to a number of files, beyond which the files processed first
+ * are forgotten. Otherwise, with a watermark, it holds only the greatest file name processed in each directory, below
+ * which all the files are taken to be processed, as the files of a directory are listed in the ascending order of
+ * their names.
+ * A snapshot of the registry holds only the files added and removed since the previous snapshot, unless a full
+ * snapshot is requested or the changes outnumber the files of the registry.
+ */
+public class ProcessedFileRegistry {
+
+    private final int maxSize;
+    private final boolean watermarkEnabled;
+    private final Map<String, String> directories = new HashMap<>();
+    private final LinkedHashSet<ProcessedFile> files = new LinkedHashSet<>();
+    private final Map<String, String> watermarks = new HashMap<>();
+    private ArrayList<Change> changes = new ArrayList<>();
+    private boolean fullSnapshotRequired = true;
+
+    /**
+     * @param maxSize          number of files beyond which the files processed first are forgotten, or -1 to hold
+     *                         all the files
+     * @param watermarkEnabled whether only the greatest file name processed in each directory is held
+     */
+    public ProcessedFileRegistry(int maxSize, boolean watermarkEnabled) {
+        this.maxSize = maxSize;
+        this.watermarkEnabled = watermarkEnabled;
+    }
+
+    /**
+     * Adds a file to the registry if it is not processed yet.
+     *
+     * @param fileURI URI of the file
+     * @return true if the file is added; false if it is already processed
+     */
+    public synchronized boolean addIfAbsent(String fileURI) {
+        ProcessedFile file = toProcessedFile(fileURI);
+        if (!add(file)) {
+            return false;
+        }
+        recordChange(new Change(file, true));
+        return true;
+    }
+
+    /**
+     * Forgets a file, so that it is processed again if it is found in the directory later.
+     * A file below the watermark of its directory cannot be forgotten.
+     *
+     * @param fileURI URI of the file
+     */
+    public synchronized void remove(String fileURI) {
+        ProcessedFile file = toProcessedFile(fileURI);
+        if (!watermarkEnabled && files.remove(file)) {
+            recordChange(new Change(file, false));
+        }
+    }
+
+    public synchronized int size() {
+        return watermarkEnabled ? watermarks.size() : files.size();
+    }
+
+    /**
+     * Takes a snapshot of the registry, which holds the changes since the previous snapshot if it is incremental,
+     * or the processed files otherwise.
+     *
+     * @return the snapshot
+     */
+    public synchronized Snapshot snapshot() {
+        Snapshot snapshot;
+        if (fullSnapshotRequired || SnapshotRequest.isRequestForFullSnapshot()) {
+            fullSnapshotRequired = false;
+            snapshot = new Snapshot(getProcessedFiles(), false);
+        } else {
+            snapshot = new Snapshot(changes, true);
+        }
+        changes = new ArrayList<>();
+        return snapshot;
+    }
+
+    /**
+     * Restores the registry from its snapshots, or from the list of the URIs of the processed files persisted by the
+     * versions before the registry.
+     *
+     * @param state the snapshots of the registry or the list of URIs, which may be null
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void restore(Object state) {
+        clear();
+        if (state instanceof SnapshotStateList) {
+            for (Snapshot snapshot : ((SnapshotStateList) state).getSnapshotStates().values()) {
+                if (snapshot.isIncrementalSnapshot()) {
+                    for (Change change : (List<Change>) snapshot.getState()) {
+                        ProcessedFile file = intern(change.file);
+                        if (change.added) {
+                            add(file);
+                        } else {
+                            files.remove(file);
+                        }
+                    }
+                } else {
+                    clear();
+                    for (ProcessedFile file : (List<ProcessedFile>) snapshot.getState()) {
+                        add(intern(file));
+                    }
+                }
+            }
+        } else if (state instanceof List) {
+            for (String fileURI : (List<String>) state) {
+                add(toProcessedFile(fileURI));
+            }
+        }
+        changes = new ArrayList<>();
+        fullSnapshotRequired = true;
+    }
+
+    private boolean add(ProcessedFile file) {
+        if (watermarkEnabled) {
+            String watermark = watermarks.get(file.directory);
+            if (watermark != null && file.name.compareTo(watermark) <= 0) {
+                return false;
+            }
+            watermarks.put(file.directory, file.name);
+            return true;
+        }
+        if (!files.add(file)) {
+            return false;
+        }
+        if (maxSize > 0 && files.size() > maxSize) {
+            Iterator<ProcessedFile> iterator = files.iterator();
+            iterator.next();
+            iterator.remove();
+        }
+        return true;
+    }
+
+    /**
+     * Records a change for the next snapshot. Once the changes outnumber the files, the next snapshot is taken in
+     * full instead, and hence the changes are not held any longer.
+     */
+    private void recordChange(Change change) {
+        if (fullSnapshotRequired) {
+            return;
+        }
+        changes.add(change);
+        if (changes.size() > size()) {
+            changes = new ArrayList<>();
+            fullSnapshotRequired = true;
+        }
+    }
+
+    private ArrayList<ProcessedFile> getProcessedFiles() {
+        ArrayList<ProcessedFile> processedFiles = new ArrayList<>(size());
+        if (watermarkEnabled) {
+            watermarks.forEach((directory, name) -> processedFiles.add(new ProcessedFile(directory, name)));
+        } else {
+            processedFiles.addAll(files);
+        }
+        return processedFiles;
+    }
+
+    private void clear() {
+        files.clear();
+        watermarks.clear();
+        directories.clear();
+    }
+
+    private ProcessedFile toProcessedFile(String fileURI) {
+        int separator = fileURI.lastIndexOf('/') + 1;
+        return new ProcessedFile(directories.computeIfAbsent(fileURI.substring(0, separator), directory -> directory),
+                fileURI.substring(separator));
+    }
+
+    private ProcessedFile intern(ProcessedFile file) {
+        return new ProcessedFile(directories.computeIfAbsent(file.directory, directory -> directory), file.name);
+    }
+
+    /**
+     * A processed file, as the URI of its directory and its name.
+     */
+    private static final class ProcessedFile implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String directory;
+        private final String name;
+
+        private ProcessedFile(String directory, String name) {
+            this.directory = directory;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof ProcessedFile)) {
+                return false;
+            }
+            ProcessedFile file = (ProcessedFile) object;
+            return name.equals(file.name) && directory.equals(file.directory);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * directory.hashCode() + name.hashCode();
+        }
+    }
+
+    /**
+     * A file added to or removed from the registry since the previous snapshot.
+     */
+    private static final class Change implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final ProcessedFile file;
+        private final boolean added;
+
+        private Change(ProcessedFile file, boolean added) {
+            this.file = file;
+            this.added = added;
+        }
+    }
+}
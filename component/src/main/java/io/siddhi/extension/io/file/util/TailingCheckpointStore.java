@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file.util;
+
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Local store of the file pointers of the tailed files, from which a source continues tailing after a restart without
+ * depending on the persistence of the Siddhi app.
+ * The file pointers are written on every flush, which is done on a fixed interval by the source and, optionally,
+ * after every given number of lines. A flush writes a temporary file, forces it to the disk and moves it over the
+ * checkpoint file atomically, so that the checkpoint file is never seen half written.
+ * Each line of the checkpoint file holds a file pointer followed by a tab and the key of the file pointer.
+ */
+public class TailingCheckpointStore {
+    private static final Logger log = Logger.getLogger(TailingCheckpointStore.class);
+
+    private final Path checkpointFile;
+    private final Path temporaryFile;
+    private final int flushEventCount;
+    private final Supplier<Map<String, Long>> filePointers;
+    private final ExecutorService executorService;
+    private final AtomicInteger updates = new AtomicInteger();
+    private final AtomicBoolean flushQueued = new AtomicBoolean(false);
+    private final Runnable queuedFlush = this::queuedFlush;
+    private volatile boolean dirty;
+
+    /**
+     * @param checkpointFile  path of the checkpoint file
+     * @param flushEventCount number of file pointer updates after which the file pointers are flushed, or -1 to flush
+     *                        them on the interval only
+     * @param filePointers    supplier of the file pointers to flush
+     * @param executorService executor service to run the flushes triggered by the updates on
+     */
+    public TailingCheckpointStore(Path checkpointFile, int flushEventCount, Supplier<Map<String, Long>> filePointers,
+                                  ExecutorService executorService) {
+        this.checkpointFile = checkpointFile.toAbsolutePath();
+        this.temporaryFile = this.checkpointFile.resolveSibling(this.checkpointFile.getFileName() + ".tmp");
+        this.flushEventCount = flushEventCount;
+        this.filePointers = filePointers;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Reads the file pointers of the checkpoint file.
+     *
+     * @return the file pointers, which are empty if nothing has been checkpointed yet
+     * @throws IOException if the checkpoint file cannot be read or is corrupted
+     */
+    public Map<String, Long> load() throws IOException {
+        Map<String, Long> filePointerMap = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('\t');
+                if (separator < 0) {
+                    throw new IOException("Invalid entry '" + line + "' in checkpoint file '" + checkpointFile + "'.");
+                }
+                try {
+                    filePointerMap.put(line.substring(separator + 1), Long.parseLong(line.substring(0, separator)));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid entry '" + line + "' in checkpoint file '" + checkpointFile +
+                            "'.", e);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Checkpoint file '" + checkpointFile + "' does not exist yet.");
+            }
+        }
+        return filePointerMap;
+    }
+
+    /**
+     * Notes that a file pointer is updated, and queues a flush once the given number of updates is reached.
+     */
+    public void onUpdate() {
+        dirty = true;
+        if (flushEventCount > 0 && updates.incrementAndGet() >= flushEventCount &&
+                flushQueued.compareAndSet(false, true)) {
+            try {
+                executorService.execute(queuedFlush);
+            } catch (RejectedExecutionException e) {
+                flushQueued.set(false);
+            }
+        }
+    }
+
+    private void queuedFlush() {
+        flushQueued.set(false);
+        flush();
+    }
+
+    /**
+     * Writes the file pointers to the checkpoint file, unless none of them is updated since the last flush.
+     * A failure is logged, and the file pointers are written again on the next flush.
+     */
+    public synchronized void flush() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        updates.set(0);
+        StringBuilder content = new StringBuilder();
+        filePointers.get().forEach((key, filePointer) -> content.append(filePointer).append('\t').append(key)
+                .append('\n'));
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporaryFile, checkpointFile, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory();
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Failed to checkpoint the file pointers of the tailed files to '" + checkpointFile + "'.", e);
+        }
+    }
+
+    /**
+     * Forces the move of the checkpoint file to the disk, on the platforms which allow the directory to be opened.
+     */
+    private void forceDirectory() {
+        try (FileChannel directory = FileChannel.open(checkpointFile.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Could not force the directory of checkpoint file '" + checkpointFile + "'.", e);
+            }
+        }
+    }
+}
@@ -90,7 +90,7 @@ public class Util {
                                                          String fileURI) {
         Map<String, String> properties;
         String mode = fileSourceConfiguration.getMode();
-        if (Constants.TEXT_FULL.equalsIgnoreCase(mode)) {
+        if (Constants.TEXT_FULL.equalsIgnoreCase(mode) || Constants.DELIMITED.equalsIgnoreCase(mode)) {
             properties = new HashMap<>();
             properties.put(Constants.URI, fileURI);
             properties.put(Constants.READ_FILE_FROM_BEGINNING, Constants.TRUE);
@@ -100,7 +100,8 @@ public class Util {
                     fileSourceConfiguration.getFileReadWaitTimeout());
             properties.put(Constants.MODE, mode);
             properties.put(Constants.CRON_EXPRESSION, fileSourceConfiguration.getCronExpression());
-        } else if (Constants.BINARY_FULL.equalsIgnoreCase(mode) || Constants.BINARY_CHUNKED.equalsIgnoreCase(mode)) {
+        } else if (Constants.BINARY_FULL.equalsIgnoreCase(mode) || Constants.BINARY_CHUNKED.equalsIgnoreCase(mode) ||
+                Constants.TEXT_CHUNKED.equalsIgnoreCase(mode)) {
             properties = new HashMap<>();
             properties.put(Constants.URI, fileURI);
             properties.put(Constants.READ_FILE_FROM_BEGINNING, Constants.TRUE);
@@ -108,13 +109,13 @@ public class Util {
             properties.put(Constants.POLLING_INTERVAL, fileSourceConfiguration.getFilePollingInterval());
             properties.put(Constants.FILE_READ_WAIT_TIMEOUT_KEY,
                     fileSourceConfiguration.getFileReadWaitTimeout());
-            properties.put(Constants.MODE, mode);
+            properties.put(Constants.MODE, getClientConnectorMode(mode));
             properties.put(Constants.CRON_EXPRESSION, fileSourceConfiguration.getCronExpression());
             properties.put(Constants.BUFFER_SIZE_IN_BINARY_CHUNKED, fileSourceConfiguration.getBufferSize());
         } else {
             properties = new HashMap<>();
             properties.put(Constants.ACTION, Constants.READ);
-            properties.put(Constants.MAX_LINES_PER_POLL, "10");
+            properties.put(Constants.MAX_LINES_PER_POLL, Constants.UNLIMITED_LINES_PER_POLL);
             properties.put(Constants.POLLING_INTERVAL, fileSourceConfiguration.getFilePollingInterval());
             properties.put(Constants.FILE_READ_WAIT_TIMEOUT_KEY,
                     fileSourceConfiguration.getFileReadWaitTimeout());
@@ -129,15 +130,11 @@ public class Util {
         return properties;
     }
 
-    public static Map<String, String> reProcessFileGenerateProperties(FileSourceConfiguration fileSourceConfiguration,
-                                                                      String fileURI, Map<String, String> properties) {
-        String actionAfterProcess = fileSourceConfiguration.getActionAfterProcess();
-        properties.put(Constants.URI, fileURI);
-        properties.put(Constants.ACK_TIME_OUT, "1000");
-        properties.put(Constants.ACTION, actionAfterProcess);
-        if (actionAfterProcess.equalsIgnoreCase(Constants.MOVE)) {
-            properties.put(Constants.MOVE_IF_EXIST_MODE, fileSourceConfiguration.getMoveIfExistMode());
-        }
-        return properties;
+    /**
+     * Returns the mode in which the VFS client should read the file. The VFS client does not know 'text.chunked'
+     * mode, hence such files are read in 'binary.chunked' mode and the chunks are re-aligned by the file processor.
+     */
+    public static String getClientConnectorMode(String mode) {
+        return Constants.TEXT_CHUNKED.equalsIgnoreCase(mode) ? Constants.BINARY_CHUNKED : mode;
     }
 }
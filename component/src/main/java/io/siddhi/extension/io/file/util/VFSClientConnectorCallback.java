@@ -18,36 +18,63 @@
 
 package io.siddhi.extension.io.file.util;
 
+import io.siddhi.extension.util.Utils;
+import org.apache.commons.vfs2.FileSystemException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.messaging.CarbonCallback;
 import org.wso2.carbon.messaging.CarbonMessage;
+import org.wso2.carbon.messaging.exceptions.ClientConnectorException;
 import org.wso2.transport.file.connector.server.util.FileTransportUtils;
 
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
-
 /**
  * Class for CarbonCall back to be used in VFSClientConnector.
+ * The VFS client reads, moves and deletes a file on the thread which sends the message to it, hence a file is
+ * processed once the message is sent, and the acknowledgement of the message processor need not be waited for.
  */
 public class VFSClientConnectorCallback implements CarbonCallback {
     private static final Logger log = LoggerFactory.getLogger(VFSClientConnectorCallback.class);
-    private CountDownLatch latch = new CountDownLatch(1);
+
+    private volatile boolean done;
 
     public void done(CarbonMessage carbonMessage) {
+        done = true;
         if (log.isDebugEnabled()) {
             log.debug("Message processor acknowledgement received.");
         }
-        this.latch.countDown();
     }
 
-    public void waitTillDone(long timeOutInterval, String fileURI) throws InterruptedException {
-        boolean isCallbackReceived = this.latch.await(timeOutInterval, TimeUnit.MILLISECONDS);
-        if (!isCallbackReceived) {
-            log.warn("The time for waiting for the acknowledgement exceeded " + timeOutInterval +
-                    "ms. Proceeding to post processing the file: " +
-                    FileTransportUtils.maskURLPassword(fileURI));
-        }
+    /**
+     * Returns whether the message processor has acknowledged a message.
+     */
+    public boolean isDone() {
+        return done;
+    }
 
+    /**
+     * Checks that the file sent along with this callback is read by the time the VFS client returns, as the file is
+     * moved or deleted after that. The VFS client does not pass the messages of an empty file on in every mode,
+     * hence a file which is not acknowledged is checked to be empty.
+     *
+     * @param fileURI           URI of the file
+     * @param fileSystemOptions file system options of the file
+     * @throws ClientConnectorException if the file is not read by the time the VFS client returns
+     */
+    public void checkRead(String fileURI, String fileSystemOptions) throws ClientConnectorException {
+        if (done) {
+            return;
+        }
+        long size;
+        try {
+            size = Utils.getFileObject(fileURI, fileSystemOptions).getContent().getSize();
+        } catch (FileSystemException e) {
+            throw new ClientConnectorException("Failed to check whether file '" +
+                    FileTransportUtils.maskURLPassword(fileURI) + "' is read.", e);
+        }
+        if (size > 0) {
+            throw new ClientConnectorException("File '" + FileTransportUtils.maskURLPassword(fileURI) +
+                    "' is not read by the time the VFS client returns, hence it cannot be moved or deleted after " +
+                    "it is read.");
+        }
     }
 }
@@ -31,4 +31,6 @@ public class Constant {
     public static final String VFS_SCHEME_KEY = "VFS_SCHEME";
     public static final String PROTOCOL = "PROTOCOL";
     public static final String FTP_SCHEME_FILE_OPTION = "ftp";
+    public static final String LOCAL_FILE_SCHEME = "file";
+    public static final int LINE_COUNT_SAMPLE_SIZE = 64 * 1024;
 }
@@ -30,23 +30,19 @@ import org.apache.commons.vfs2.provider.UriParser;
 import org.wso2.transport.remotefilesystem.exception.RemoteFileSystemConnectorException;
 import org.wso2.transport.remotefilesystem.server.util.FileTransportUtils;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.Reader;
-import java.net.URI;
-import java.nio.channels.Channels;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CodingErrorAction;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import static io.siddhi.extension.util.Constant.LINE_COUNT_SAMPLE_SIZE;
 import static io.siddhi.extension.util.Constant.VFS_SCHEME_KEY;
 
 /**
@@ -143,6 +139,24 @@ public class Utils {
         return file.length();
     }
 
+    /**
+     * Returns the local path of the given file uri, or null if the uri does not point to the local file system.
+     *
+     * @param fileURI file uri
+     * @return local path of the file
+     */
+    public static Path getLocalFilePath(String fileURI) {
+        String scheme = UriParser.extractScheme(fileURI);
+        if (scheme != null && !Constant.LOCAL_FILE_SCHEME.equalsIgnoreCase(scheme)) {
+            return null;
+        }
+        try {
+            return Paths.get(VFS.getManager().resolveFile(fileURI).getName().getPath());
+        } catch (FileSystemException e) {
+            throw new SiddhiAppRuntimeException("Exception occurred when resolving the file '" + fileURI + "'.", e);
+        }
+    }
+
     private static String getFilePath(String uri) {
         if (uri.startsWith("file:")) {
             uri = uri.replaceFirst("file:", "");
@@ -151,16 +165,42 @@ public class Utils {
         return FilenameUtils.separatorsToSystem(uri).replace("\\", "/");
     }
 
-    public static long getLinesCount(String uri) throws IOException {
-        if (uri.startsWith("file:")) {
-            uri = uri.replaceFirst("file:", "");
+    /**
+     * Estimates the number of non empty lines of a local file from the lines at the start of the file, so that the
+     * file does not need to be read just to count its lines. Files which are not local are not estimated.
+     *
+     * @param uri file uri
+     * @return estimated number of lines, or 0 if the file is not local
+     * @throws IOException if the file cannot be read
+     */
+    public static long estimateLinesCount(String uri) throws IOException {
+        Path path = getLocalFilePath(uri);
+        if (path == null) {
+            return 0;
         }
-        CharsetDecoder dec = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.IGNORE);
-        Path path = Paths.get(URI.create("file:///" + uri).normalize());
-        try (Reader r = Channels.newReader(FileChannel.open(path), dec, -1);
-             BufferedReader br = new BufferedReader(r)) {
-            return br.lines()
-                    .filter(line -> line.length() != 0).count();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer sample = ByteBuffer.allocate((int) Math.min(size, LINE_COUNT_SAMPLE_SIZE));
+            while (sample.hasRemaining() && channel.read(sample) >= 0) {
+                // read until the sample is filled
+            }
+            long lines = 0;
+            boolean emptyLine = true;
+            for (int i = 0; i < sample.position(); i++) {
+                byte value = sample.get(i);
+                if (value == '\n' || value == '\r') {
+                    if (!emptyLine) {
+                        lines++;
+                    }
+                    emptyLine = true;
+                } else {
+                    emptyLine = false;
+                }
+            }
+            if (sample.position() >= size) {
+                return emptyLine ? lines : lines + 1;
+            }
+            return Math.round((double) lines * size / sample.position());
         }
     }
 
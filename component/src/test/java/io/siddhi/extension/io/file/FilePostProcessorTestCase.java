@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file;
+
+import io.siddhi.extension.io.file.processors.FilePostProcessor;
+import io.siddhi.extension.io.file.util.Constants;
+import io.siddhi.extension.io.file.util.FileSourceConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.TestException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test cases for moving and deleting the processed files in batches.
+ */
+public class FilePostProcessorTestCase {
+    private static final Logger log = Logger.getLogger(FilePostProcessorTestCase.class);
+
+    private File sourceDir, destinationDir;
+    private ExecutorService executorService;
+
+    @BeforeClass
+    public void init() {
+        ClassLoader classLoader = FilePostProcessorTestCase.class.getClassLoader();
+        String rootPath = classLoader.getResource("files").getFile();
+        sourceDir = new File(rootPath + "/post_process/source");
+        destinationDir = new File(rootPath + "/post_process/destination");
+    }
+
+    @BeforeMethod
+    public void doBeforeMethod() {
+        executorService = Executors.newSingleThreadExecutor();
+        try {
+            FileUtils.deleteDirectory(sourceDir.getParentFile());
+            for (String name : new String[]{"apache.txt", "google.txt", "wso2.txt"}) {
+                FileUtils.write(new File(sourceDir, name), name, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new TestException("Failed to write the files required for tests to " +
+                    sourceDir.getAbsolutePath() + ". Hence aborting tests.", e);
+        }
+    }
+
+    @AfterMethod
+    public void doAfterMethod() {
+        executorService.shutdownNow();
+        try {
+            FileUtils.deleteDirectory(sourceDir.getParentFile());
+        } catch (IOException e) {
+            throw new TestException("Failed to delete files in due to " + e.getMessage(), e);
+        }
+    }
+
+    @Test
+    public void testMoveFiles() throws IOException {
+        log.info("test FilePostProcessor moving files to a folder which does not exist");
+        FilePostProcessor filePostProcessor = new FilePostProcessor(createConfiguration(null));
+        List<CompletableFuture<Boolean>> moved = new ArrayList<>();
+        for (String name : new String[]{"apache.txt", "google.txt", "wso2.txt"}) {
+            moved.add(filePostProcessor.move(uri(sourceDir, name), uri(destinationDir, name)));
+        }
+        for (CompletableFuture<Boolean> done : moved) {
+            AssertJUnit.assertTrue(done.join());
+        }
+        AssertJUnit.assertEquals(0, sourceDir.list().length);
+        for (String name : new String[]{"apache.txt", "google.txt", "wso2.txt"}) {
+            AssertJUnit.assertEquals(name, FileUtils.readFileToString(new File(destinationDir, name),
+                    StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testDeleteFiles() {
+        log.info("test FilePostProcessor deleting files");
+        FilePostProcessor filePostProcessor = new FilePostProcessor(createConfiguration(null));
+        AssertJUnit.assertTrue(filePostProcessor.delete(uri(sourceDir, "apache.txt")).join());
+        AssertJUnit.assertTrue(filePostProcessor.delete(uri(sourceDir, "google.txt")).join());
+        AssertJUnit.assertEquals(Arrays.asList("wso2.txt"), Arrays.asList(sourceDir.list()));
+    }
+
+    @Test
+    public void testMoveFileToExistingFileInKeepMode() throws IOException {
+        log.info("test FilePostProcessor moving a file to an existing file when move.if.exist.mode is 'keep'");
+        FileUtils.write(new File(destinationDir, "apache.txt"), "existing", StandardCharsets.UTF_8);
+        FilePostProcessor filePostProcessor = new FilePostProcessor(createConfiguration(Constants.KEEP));
+        AssertJUnit.assertTrue(filePostProcessor.move(uri(sourceDir, "apache.txt"),
+                uri(destinationDir, "apache.txt")).join());
+        AssertJUnit.assertFalse(new File(sourceDir, "apache.txt").exists());
+        AssertJUnit.assertEquals("existing", FileUtils.readFileToString(new File(destinationDir, "apache.txt"),
+                StandardCharsets.UTF_8));
+        File[] keptFiles = destinationDir.listFiles((dir, name) -> name.startsWith("apache.txt_"));
+        AssertJUnit.assertNotNull(keptFiles);
+        AssertJUnit.assertEquals(1, keptFiles.length);
+        AssertJUnit.assertEquals("apache.txt", FileUtils.readFileToString(keptFiles[0], StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testMoveFileToExistingFileInOverwriteMode() throws IOException {
+        log.info("test FilePostProcessor moving a file to an existing file when move.if.exist.mode is 'overwrite'");
+        FileUtils.write(new File(destinationDir, "apache.txt"), "existing", StandardCharsets.UTF_8);
+        FilePostProcessor filePostProcessor = new FilePostProcessor(createConfiguration(Constants.OVERWRITE));
+        AssertJUnit.assertTrue(filePostProcessor.move(uri(sourceDir, "apache.txt"),
+                uri(destinationDir, "apache.txt")).join());
+        AssertJUnit.assertFalse(new File(sourceDir, "apache.txt").exists());
+        AssertJUnit.assertEquals(Arrays.asList("apache.txt"), Arrays.asList(destinationDir.list()));
+        AssertJUnit.assertEquals("apache.txt", FileUtils.readFileToString(new File(destinationDir, "apache.txt"),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFailingFileInBatch() throws IOException {
+        log.info("test FilePostProcessor moving and deleting a batch of files in which a file fails to be moved");
+        FilePostProcessor filePostProcessor = new FilePostProcessor(createConfiguration(null));
+        /* the executor is held until all the files are submitted, so that the files are taken as one batch */
+        CountDownLatch submitted = new CountDownLatch(1);
+        executorService.execute(() -> {
+            try {
+                submitted.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<Boolean> apacheMoved = filePostProcessor.move(uri(sourceDir, "apache.txt"),
+                uri(destinationDir, "apache.txt"));
+        CompletableFuture<Boolean> missingMoved = filePostProcessor.move(uri(sourceDir, "missing.txt"),
+                uri(destinationDir, "missing.txt"));
+        CompletableFuture<Boolean> missingDeleted = filePostProcessor.delete(uri(sourceDir, "missing.txt"));
+        CompletableFuture<Boolean> googleDeleted = filePostProcessor.delete(uri(sourceDir, "google.txt"));
+        CompletableFuture<Boolean> wso2Moved = filePostProcessor.move(uri(sourceDir, "wso2.txt"),
+                uri(destinationDir, "wso2.txt"));
+        submitted.countDown();
+        AssertJUnit.assertTrue(apacheMoved.join());
+        AssertJUnit.assertFalse(missingMoved.join());
+        AssertJUnit.assertFalse(missingDeleted.join());
+        AssertJUnit.assertTrue(googleDeleted.join());
+        AssertJUnit.assertTrue(wso2Moved.join());
+        AssertJUnit.assertEquals(0, sourceDir.list().length);
+        List<String> movedFiles = Arrays.asList(destinationDir.list());
+        AssertJUnit.assertEquals(2, movedFiles.size());
+        AssertJUnit.assertTrue(movedFiles.containsAll(Arrays.asList("apache.txt", "wso2.txt")));
+        AssertJUnit.assertEquals("wso2.txt", FileUtils.readFileToString(new File(destinationDir, "wso2.txt"),
+                StandardCharsets.UTF_8));
+    }
+
+    private FileSourceConfiguration createConfiguration(String moveIfExistMode) {
+        FileSourceConfiguration fileSourceConfiguration = new FileSourceConfiguration();
+        fileSourceConfiguration.setExecutorService(executorService);
+        fileSourceConfiguration.setMoveIfExistMode(moveIfExistMode);
+        return fileSourceConfiguration;
+    }
+
+    private String uri(File folder, String name) {
+        return "file:" + new File(folder, name).getAbsolutePath();
+    }
+}
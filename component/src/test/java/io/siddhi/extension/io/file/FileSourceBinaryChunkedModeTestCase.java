@@ -7,6 +7,7 @@ import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.extension.io.file.util.BatchCountingSourceMapper;
 import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
 import org.testng.AssertJUnit;
@@ -18,8 +19,14 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class FileSourceBinaryChunkedModeTestCase {
@@ -220,4 +227,310 @@ public class FileSourceBinaryChunkedModeTestCase {
         SiddhiTestHelper.waitForEvents(waitTime, 0, count, timeout);
         siddhiAppRuntime.shutdown();
     }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForChunkPoolWithLineMode() throws InterruptedException {
+        log.info("Chunk pool can only be given with Binary.Chunked Mode");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + dirUri + "/line/json', " +
+                "chunk.pool.size='4', " +
+                "@map(type='json'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 0, count, timeout);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForBinaryChunkedEofOfEachChunk() throws InterruptedException {
+        log.info("Siddhi IO File Test with binary.chunked mode for the trp:eof of each chunk read by the native " +
+                "reader");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='binary.chunked'," +
+                "file.uri='file:/" + dirUri + "/binary/apache.bin', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "buffer.size='16', " +
+                "@map(type='binaryPassThrough', " +
+                "@attributes(buffer='0', eof = 'trp:eof', fileName = 'trp:file.name', " +
+                "sequenceNumber = 'trp:sequence.number', length = 'trp:content.length')))\n" +
+                "define stream FooStream (buffer object, eof bool, fileName string, sequenceNumber int, " +
+                "length int);\n" +
+                "define stream BarStream (eof bool, fileName string, sequenceNumber int, length int); ";
+        String query = "" +
+                "from FooStream " +
+                "select eof, fileName, sequenceNumber, length " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        List<Object> eofValues = new ArrayList<>();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    eofValues.add(event.getData(0));
+                    AssertJUnit.assertEquals(count.incrementAndGet(), event.getData(2));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 4, count, timeout);
+        Thread.sleep(1000);
+        /* the 61 bytes of the file are read in chunks of 16 bytes, flagged as the VFS client flags them */
+        AssertJUnit.assertEquals(Arrays.asList(false, false, false, true), eofValues);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForBatchedChunksThroughVFSClient() throws InterruptedException {
+        log.info("Siddhi IO File Test with binary.chunked mode passing the chunks read by the VFS client to the " +
+                "mapper in batches");
+        BatchCountingSourceMapper.reset();
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='binary.chunked'," +
+                "file.uri='file:/" + dirUri + "/binary/apache.bin', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "buffer.size='16', " +
+                "native.reader.enabled='false', " +
+                "batch.size='3', " +
+                "batch.linger.ms='0', " +
+                "@map(type='batchCounting'))\n" +
+                "define stream FooStream (chunk string);\n" +
+                "define stream BarStream (chunk string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 4, count, timeout);
+        Thread.sleep(1000);
+        /* the last chunk is passed on at the end of the file, as there is no linger time */
+        AssertJUnit.assertEquals(4, count.get());
+        AssertJUnit.assertEquals(Arrays.asList(3, 1), BatchCountingSourceMapper.getBatchSizes());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForChunkPoolWithoutBatches() {
+        log.info("Chunk pool can only be given when the chunks are passed to the mapper in batches");
+        createChunkPoolSiddhiAppRuntime("1");
+    }
+
+    @Test
+    public void siddhiIoFileTestForBatchedChunksFromChunkPool() throws InterruptedException, IOException {
+        log.info("Siddhi IO File Test with binary.chunked mode passing the pooled chunks to the mapper in batches");
+        BatchCountingSourceMapper.reset();
+        byte[] content = FileUtils.readFileToByteArray(new File(dirUri + "/binary/apache.bin"));
+        SiddhiAppRuntime siddhiAppRuntime = createChunkPoolSiddhiAppRuntime("3");
+        List<Object> chunks = new ArrayList<>();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    chunks.add(event.getData(0));
+                    count.incrementAndGet();
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 4, count, timeout);
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        /* the chunks of the pool are reused only once the batches holding them are passed on */
+        AssertJUnit.assertEquals(toChunks(content), chunks);
+        AssertJUnit.assertEquals(Arrays.asList(3, 1), BatchCountingSourceMapper.getBatchSizes());
+    }
+
+    @Test
+    public void siddhiIoFileTestForChunksFromChunkPoolWithOrderedDirParallelism() throws InterruptedException,
+            IOException {
+        log.info("Siddhi IO File Test with binary.chunked mode holding the pooled chunks to process the files of a " +
+                "directory in parallel in order");
+        Map<String, byte[]> contents = new HashMap<>();
+        for (File file : Objects.requireNonNull(new File(dirUri + "/binary").listFiles())) {
+            contents.put(file.getName(), FileUtils.readFileToByteArray(file));
+        }
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='binary.chunked'," +
+                "dir.uri='file:/" + dirUri + "/binary', " +
+                "action.after.process='keep', " +
+                "tailing='false', " +
+                "buffer.size='16', " +
+                "chunk.pool.size='2', " +
+                "batch.size='2', " +
+                "dir.parallelism='4', " +
+                "dir.parallelism.ordered='true', " +
+                "@map(type='batchCounting', @attributes(chunk = 'chunk', fileName = 'trp:file.name')))\n" +
+                "define stream FooStream (chunk string, fileName string);\n" +
+                "define stream BarStream (chunk string, fileName string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        Map<String, List<Object>> chunks = new LinkedHashMap<>();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    chunks.computeIfAbsent((String) event.getData(1), name -> new ArrayList<>())
+                            .add(event.getData(0));
+                    count.incrementAndGet();
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 32, count, timeout);
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(32, count.get());
+        AssertJUnit.assertEquals(contents.keySet(), chunks.keySet());
+        /* the chunks held until the files before are passed on are not reused in the meantime */
+        for (Map.Entry<String, List<Object>> entry : chunks.entrySet()) {
+            AssertJUnit.assertEquals(toChunks(contents.get(entry.getKey())), entry.getValue());
+        }
+    }
+
+    @Test
+    public void siddhiIoFileTestForEmptyFileThroughVFSClient() throws InterruptedException, IOException {
+        log.info("Siddhi IO File Test with binary.chunked mode deleting an empty file read by the VFS client, which " +
+                "does not pass any chunk of it on");
+        File emptyFile = new File(dirUri + "/binary/empty.bin");
+        AssertJUnit.assertTrue(emptyFile.createNewFile());
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='binary.chunked'," +
+                "dir.uri='file:/" + dirUri + "/binary', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "buffer.size='16', " +
+                "native.reader.enabled='false', " +
+                "@map(type='batchCounting'))\n" +
+                "define stream FooStream (chunk string);\n" +
+                "define stream BarStream (chunk string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 32, count, timeout);
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(32, count.get());
+        AssertJUnit.assertEquals(0, new File(dirUri + "/binary").list().length);
+    }
+
+    @Test
+    public void siddhiIoFileTestForFileLargerThanAWindow() throws InterruptedException, IOException {
+        log.info("Siddhi IO File Test with binary.chunked mode deleting a file read by the native reader through " +
+                "more than one mapped window");
+        int chunkSize = 1024 * 1024;
+        byte[] content = new byte[64 * chunkSize + 1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        File largeFile = new File(dirUri + "/large.bin");
+        FileUtils.writeByteArrayToFile(largeFile, content);
+        BatchCountingSourceMapper.reset();
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='binary.chunked'," +
+                "file.uri='file:/" + largeFile.getAbsolutePath() + "', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "buffer.size='" + chunkSize + "', " +
+                "@map(type='batchCounting'))\n" +
+                "define stream FooStream (chunk string);\n" +
+                "define stream BarStream (chunk string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 65, count, timeout);
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(65, count.get());
+        List<Object> payloads = BatchCountingSourceMapper.getPayloads();
+        AssertJUnit.assertEquals(65, payloads.size());
+        for (int i = 0; i < payloads.size(); i++) {
+            /* the chunks are copied out of the windows, hence unmapping the windows does not affect them */
+            AssertJUnit.assertTrue(Arrays.equals(Arrays.copyOfRange(content, i * chunkSize,
+                    Math.min((i + 1) * chunkSize, content.length)), (byte[]) payloads.get(i)));
+        }
+        AssertJUnit.assertFalse(largeFile.exists());
+    }
+
+    private List<Object> toChunks(byte[] content) {
+        List<Object> chunks = new ArrayList<>();
+        for (int i = 0; i < content.length; i += 16) {
+            chunks.add(new String(Arrays.copyOfRange(content, i, Math.min(i + 16, content.length)),
+                    StandardCharsets.UTF_8));
+        }
+        return chunks;
+    }
+
+    private SiddhiAppRuntime createChunkPoolSiddhiAppRuntime(String batchSize) {
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='binary.chunked'," +
+                "file.uri='file:/" + dirUri + "/binary/apache.bin', " +
+                "action.after.process='keep', " +
+                "tailing='false', " +
+                "buffer.size='16', " +
+                "chunk.pool.size='2', " +
+                "batch.size='" + batchSize + "', " +
+                "batch.linger.ms='0', " +
+                "@map(type='batchCounting'))\n" +
+                "define stream FooStream (chunk string);\n" +
+                "define stream BarStream (chunk string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        return siddhiManager.createSiddhiAppRuntime(streams + query);
+    }
 }
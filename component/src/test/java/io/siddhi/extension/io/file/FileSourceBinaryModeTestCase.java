@@ -25,6 +25,7 @@ import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.extension.io.file.util.BatchCountingSourceMapper;
 import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
 import org.testng.AssertJUnit;
@@ -34,9 +35,11 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -658,4 +661,73 @@ public class FileSourceBinaryModeTestCase {
         SiddhiTestHelper.waitForEvents(waitTime, 0, 0, timeout);
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void siddhiIoFileTestForRawBytesThroughNativeReader() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode = binary.full] passing the bytes which are not UTF-8 as they are read " +
+                "by the native reader");
+        assertRawBytesPassedToMapper("binary.full", true);
+    }
+
+    @Test
+    public void siddhiIoFileTestForRawBytesThroughVFSClient() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode = binary.full] passing the bytes which are not UTF-8 as they are read " +
+                "by the VFS client");
+        assertRawBytesPassedToMapper("binary.full", false);
+    }
+
+    @Test
+    public void siddhiIoFileTestForRawBytesOfChunksThroughVFSClient() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode = binary.chunked] passing the bytes which are not UTF-8 as they are read " +
+                "by the VFS client");
+        assertRawBytesPassedToMapper("binary.chunked", false);
+    }
+
+    /**
+     * Asserts that the bytes are passed to the mapper as they are in the file, which they would not be if they were
+     * decoded as UTF-8 text on the way, as the malformed sequences would be replaced.
+     */
+    private void assertRawBytesPassedToMapper(String mode, boolean nativeReaderEnabled)
+            throws InterruptedException, IOException {
+        byte[] content = new byte[]{'W', 'S', 'O', '2', (byte) 0xff, (byte) 0xfe, (byte) 0xc3, '(', 0,
+                (byte) 0x80, (byte) 0xe2, (byte) 0x82, '\n', (byte) 0xf0, (byte) 0x9f, (byte) 0x98, (byte) 0x80,
+                (byte) 0xe2, (byte) 0x82};
+        File file = new File(dirUri + "/raw/capture.bin");
+        FileUtils.writeByteArrayToFile(file, content);
+        BatchCountingSourceMapper.reset();
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file',mode='" + mode + "'," +
+                "file.uri='file:/" + file.getAbsolutePath() + "', " +
+                "action.after.process='keep', " +
+                "buffer.size='8', " +
+                "native.reader.enabled='" + nativeReaderEnabled + "', " +
+                "@map(type='batchCounting'))" +
+                "define stream FooStream (content string); " +
+                "define stream BarStream (content string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        int expectedPayloads = "binary.full".equals(mode) ? 1 : (content.length + 7) / 8;
+        SiddhiTestHelper.waitForEvents(waitTime, expectedPayloads, count, timeout);
+        siddhiAppRuntime.shutdown();
+        List<Object> payloads = BatchCountingSourceMapper.getPayloads();
+        AssertJUnit.assertEquals(expectedPayloads, payloads.size());
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        for (Object payload : payloads) {
+            AssertJUnit.assertTrue(payload instanceof byte[]);
+            received.write((byte[]) payload);
+        }
+        AssertJUnit.assertTrue(Arrays.equals(content, received.toByteArray()));
+    }
 }
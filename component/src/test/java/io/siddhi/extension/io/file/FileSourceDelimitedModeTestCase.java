@@ -0,0 +1,262 @@
+/*
+ * Copyright (c)  2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.stream.output.StreamCallback;
+import io.siddhi.core.util.EventPrinter;
+import io.siddhi.core.util.SiddhiTestHelper;
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.TestException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for siddhi-io-file source in 'delimited' mode.
+ * */
+public class FileSourceDelimitedModeTestCase {
+    private static final Logger log = Logger.getLogger(FileSourceDelimitedModeTestCase.class);
+    private AtomicInteger count = new AtomicInteger();
+    private int waitTime = 2000;
+    private int timeout = 30000;
+
+    private String dirUri;
+    private File sourceRoot, newRoot;
+
+    @BeforeClass
+    public void init() {
+        ClassLoader classLoader = FileSourceDelimitedModeTestCase.class.getClassLoader();
+        String rootPath = classLoader.getResource("files").getFile();
+        sourceRoot = new File(rootPath + "/repo");
+        dirUri = rootPath + "/new";
+        newRoot = new File(dirUri);
+    }
+
+    @BeforeMethod
+    public void doBeforeMethod() {
+        count.set(0);
+        try {
+            FileUtils.copyDirectory(sourceRoot, newRoot);
+        } catch (IOException e) {
+            throw new TestException("Failed to copy files from " +
+                    sourceRoot.getAbsolutePath() +
+                    " to " +
+                    newRoot.getAbsolutePath() +
+                    " which are required for tests. Hence aborting tests.", e);
+        }
+    }
+
+    @AfterMethod
+    public void doAfterMethod() {
+        try {
+            FileUtils.deleteDirectory(newRoot);
+        } catch (IOException e) {
+            throw new TestException("Failed to delete files in due to " + e.getMessage(), e);
+        }
+    }
+
+    @Test
+    public void siddhiIoFileTest1() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode = delimited] 1");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='delimited'," +
+                "dir.uri='file:/" + dirUri + "/regex/xml', " +
+                "begin.delimiter='<events>', " +
+                "end.delimiter='</events>', " +
+                "action.after.process='delete', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    int n = count.getAndIncrement();
+                    if (n < 5) {
+                        AssertJUnit.assertEquals(10000L + n, event.getData(2));
+                    } else {
+                        AssertJUnit.fail("More events received than expected.");
+                    }
+                }
+            }
+        });
+
+        siddhiAppRuntime.start();
+
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+
+        File file = new File(dirUri + "/regex/xml");
+        AssertJUnit.assertEquals(0, file.list().length);
+
+        //assert event count
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTest2() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode = delimited] 2");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='delimited'," +
+                "dir.uri='file:/" + dirUri + "/regex/xml', " +
+                "begin.delimiter='<events>', " +
+                "action.after.process='delete', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    int n = count.getAndIncrement();
+                    if (n < 5) {
+                        AssertJUnit.assertEquals(10000L + n, event.getData(2));
+                    } else {
+                        AssertJUnit.fail("More events received than expected.");
+                    }
+                }
+            }
+        });
+
+        siddhiAppRuntime.start();
+
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+
+        //assert event count
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForEOFAndFileNameForDelimited() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode = delimited] Test for EOF and File Path");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='delimited'," +
+                "file.uri='file:/" + dirUri + "/regex/json/logs.txt', " +
+                "end.delimiter='}}', " +
+                "action.after.process='delete', " +
+                "@map(type='json', enclosing.element=\"$.event\", " +
+                    "@attributes(symbol = \"symbol\", price = \"price\", volume = \"volume\", " +
+                        "eof = 'trp:eof', fp = 'trp:file.path')))\n" +
+                "define stream FooStream (symbol string, price float, volume long, eof String, fp String); " +
+                "define stream BarStream (symbol string, price float, volume long, eof String, fp String); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                int n = count.incrementAndGet();
+                for (Event event : events) {
+                    if (n < 5) {
+                        AssertJUnit.assertEquals("false", event.getData(3));
+                        AssertJUnit.assertTrue(((String) event.getData(4)).
+                                contains("test-classes/files/new/regex/json/logs.txt"));
+                    } else if (n == 5) {
+                        AssertJUnit.assertEquals("true", event.getData(3));
+                        AssertJUnit.assertTrue(((String) event.getData(4)).
+                                contains("test-classes/files/new/regex/json/logs.txt"));
+                    } else {
+                        AssertJUnit.fail();
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        //assert event count
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTest3() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode = delimited] 3");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='delimited'," +
+                "dir.uri='file:/" + dirUri + "/regex/xml', " +
+                "begin.delimiter='<events>', " +
+                "tailing='true', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTest4() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode = delimited] 4");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='regex'," +
+                "dir.uri='file:/" + dirUri + "/regex/xml', " +
+                "begin.delimiter='<events>', " +
+                "tailing='false', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams);
+        siddhiAppRuntime.shutdown();
+    }
+}
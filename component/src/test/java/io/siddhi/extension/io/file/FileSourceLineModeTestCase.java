@@ -26,6 +26,8 @@ import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.extension.io.file.util.BatchCountingSourceMapper;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
 import org.testng.AssertJUnit;
@@ -37,9 +39,18 @@ import org.testng.annotations.Test;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Test cases for siddhi-io-file source.
@@ -1046,6 +1057,48 @@ public class FileSourceLineModeTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+    @Test
+    public void siddhiIoFileTestForEOFAndFileNameThroughVFSClient() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] Test for EOF and File Name of the lines read by the VFS client");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/json/logs.txt', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "native.reader.enabled='false', " +
+                "@map(type='json', enclosing.element=\"$.event\", " +
+                "@attributes(symbol = \"symbol\", price = \"price\", volume = \"volume\", " +
+                "eof = 'trp:eof', fp = 'trp:file.path')))\n" +
+                "define stream FooStream (symbol string, price float, volume long, eof String, fp String); " +
+                "define stream BarStream (symbol string, price float, volume long, eof String, fp String); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        List<String> eofValues = new ArrayList<>();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    eofValues.add((String) event.getData(3));
+                    AssertJUnit.assertTrue(((String) event.getData(4)).
+                            contains("test-classes/files/new/line/json/logs.txt"));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        Thread.sleep(1000);
+        /* the property values of each event are those of its own line, though they are resolved once per file */
+        AssertJUnit.assertEquals(Arrays.asList("false", "false", "false", "false", "true"), eofValues);
+        siddhiAppRuntime.shutdown();
+    }
+
     @Test
     public void siddhiIoFileTestForSkipHeader() throws InterruptedException {
         log.info("test SiddhiIoFile header.present parameter Test");
@@ -1447,4 +1500,1180 @@ public class FileSourceLineModeTestCase {
         SiddhiTestHelper.waitForEvents(100, 6, count.get(), 6000);
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void siddhiIoFileTestForParallelRead() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] read.parallelism parameter Test");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/json/logs.txt', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "read.parallelism='4', " +
+                "@map(type='json', enclosing.element=\"$.event\", " +
+                "@attributes(symbol = \"symbol\", price = \"price\", volume = \"volume\", " +
+                "eof = 'trp:eof', fp = 'trp:file.path')))\n" +
+                "define stream FooStream (symbol string, price float, volume long, eof String, fp String); " +
+                "define stream BarStream (symbol string, price float, volume long, eof String, fp String); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    int n = count.incrementAndGet();
+                    AssertJUnit.assertEquals(10000L + n - 1, event.getData(2));
+                    AssertJUnit.assertEquals(String.valueOf(n == 5), event.getData(3));
+                    AssertJUnit.assertTrue(((String) event.getData(4)).
+                            contains("test-classes/files/new/line/json/logs.txt"));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForParallelReadWithSkipHeader() throws InterruptedException {
+        log.info("test SiddhiIoFile read.parallelism with header.present parameter Test");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:" + newRoot + "/line/header', " +
+                "header.present='true'," +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "read.parallelism='2', " +
+                "read.parallelism.ordered='false', " +
+                "@map( type='csv', delimiter='|'))\n" +
+                "define stream FileReaderStream (code string, serialNo string, amount double); " +
+                "define stream FileResultStream (code string, serialNo string, amount double); ";
+        String query = "" +
+                "from FileReaderStream " +
+                "select * " +
+                "insert into FileResultStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("FileResultStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 6, count, timeout);
+        AssertJUnit.assertEquals("Number of events", 6, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForParallelReadWithSkipTrailer() {
+        log.info("test SiddhiIoFile read.parallelism with skip.trailer parameter Test");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:" + newRoot + "/line/trailer/test.txt', " +
+                "skip.trailer='true'," +
+                "tailing='false', " +
+                "read.parallelism='2', " +
+                "@map( type='csv', delimiter='|'))\n" +
+                "define stream FileReaderStream (code string, serialNo string, amount double); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestWithoutNativeReader() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] native.reader.enabled parameter Test");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/json/logs.txt', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "native.reader.enabled='false', " +
+                "@map(type='json', enclosing.element=\"$.event\", " +
+                "@attributes(symbol = \"symbol\", price = \"price\", volume = \"volume\", " +
+                "eof = 'trp:eof', fp = 'trp:file.path')))\n" +
+                "define stream FooStream (symbol string, price float, volume long, eof String, fp String); " +
+                "define stream BarStream (symbol string, price float, volume long, eof String, fp String); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    int n = count.incrementAndGet();
+                    AssertJUnit.assertEquals(10000L + n - 1, event.getData(2));
+                    AssertJUnit.assertEquals(String.valueOf(n == 5), event.getData(3));
+                    AssertJUnit.assertTrue(((String) event.getData(4)).
+                            contains("test-classes/files/new/line/json/logs.txt"));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForInvalidBatchSize() {
+        log.info("test SiddhiIoFile invalid batch.size parameter Test");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:" + newRoot + "/line/trailer/test.txt', " +
+                "tailing='false', " +
+                "batch.size='0', " +
+                "@map( type='csv', delimiter='|'))\n" +
+                "define stream FileReaderStream (code string, serialNo string, amount double); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestForGzipCompression() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] compression parameter Test");
+        File file = new File(dirUri + "/line/json/logs.txt");
+        File compressedFile = new File(dirUri + "/line/compressed/logs.txt.gz");
+        compressedFile.getParentFile().mkdirs();
+        try (OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(compressedFile))) {
+            Files.copy(file.toPath(), outputStream);
+        }
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/compressed/logs.txt.gz', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "compression='gzip', " +
+                "@map(type='json', enclosing.element=\"$.event\", " +
+                "@attributes(symbol = \"symbol\", price = \"price\", volume = \"volume\", " +
+                "eof = 'trp:eof', fp = 'trp:file.path')))\n" +
+                "define stream FooStream (symbol string, price float, volume long, eof String, fp String); " +
+                "define stream BarStream (symbol string, price float, volume long, eof String, fp String); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    int n = count.incrementAndGet();
+                    AssertJUnit.assertEquals(10000L + n - 1, event.getData(2));
+                    AssertJUnit.assertEquals(String.valueOf(n == 5), event.getData(3));
+                    AssertJUnit.assertTrue(((String) event.getData(4)).
+                            contains("test-classes/files/new/line/compressed/logs.txt.gz"));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+        Thread.sleep(1000);
+        AssertJUnit.assertFalse(compressedFile.exists());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForAutoCompression() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] compression='auto' parameter Test");
+        File file = new File(dirUri + "/line/json/logs.txt");
+        File compressedDir = new File(dirUri + "/line/compressed");
+        compressedDir.mkdirs();
+        try (OutputStream outputStream = new BZip2CompressorOutputStream(
+                new FileOutputStream(new File(compressedDir, "logs.txt.bz2")))) {
+            Files.copy(file.toPath(), outputStream);
+        }
+        try (OutputStream outputStream = new GZIPOutputStream(
+                new FileOutputStream(new File(compressedDir, "logs")))) {
+            Files.copy(file.toPath(), outputStream);
+        }
+        FileUtils.copyFileToDirectory(file, compressedDir);
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + dirUri + "/line/compressed', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "compression='auto', " +
+                "@map(type='json'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    AssertJUnit.assertEquals("WSO2", event.getData(0));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 15, count, timeout);
+        AssertJUnit.assertEquals("Number of events", 15, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForCompressionWithTailing() {
+        log.info("test SiddhiIoFile compression parameter with tailing Test");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:" + newRoot + "/line/trailer/test.txt', " +
+                "tailing='true', " +
+                "compression='gzip', " +
+                "@map( type='csv', delimiter='|'))\n" +
+                "define stream FileReaderStream (code string, serialNo string, amount double); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestForMaxRecordLength() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] max.record.length parameter Test");
+        File file = new File(dirUri + "/line/oversized/logs.txt");
+        file.getParentFile().mkdirs();
+        StringBuilder oversizedLine = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            oversizedLine.append("WSO2,");
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("WSO2,55.6,100\n");
+            writer.write(oversizedLine.toString() + "\n");
+            writer.write("IBM,75.6,200\n");
+        }
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/oversized/logs.txt', " +
+                "tailing='false', " +
+                "max.record.length='1024', " +
+                "oversized.record.policy='skip', " +
+                "@map(type='csv'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    int n = count.incrementAndGet();
+                    AssertJUnit.assertEquals(n == 1 ? "WSO2" : "IBM", event.getData(0));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 2, count, timeout);
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals("Number of events", 2, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForInvalidOversizedRecordPolicy() {
+        log.info("test SiddhiIoFile invalid oversized.record.policy parameter Test");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:" + newRoot + "/line/trailer/test.txt', " +
+                "tailing='false', " +
+                "max.record.length='1024', " +
+                "oversized.record.policy='drop', " +
+                "@map( type='csv', delimiter='|'))\n" +
+                "define stream FileReaderStream (code string, serialNo string, amount double); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestForTailingWithPolling() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] tailing a file polled at an adaptive interval");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/xml/xml_line.txt', " +
+                "tailing='true', " +
+                "native.reader.enabled='false', " +
+                "min.file.polling.interval='100', " +
+                "max.file.polling.interval='2000', " +
+                "max.lines.per.poll='2', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    int n = count.incrementAndGet();
+                    AssertJUnit.assertEquals(n <= 5 ? 10000L + n - 1 : 1000L, event.getData(2));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(dirUri + "/line/xml/xml_line.txt", true))) {
+            writer.write("<events><event><symbol>GOOGLE</symbol><price>100</price><volume>1000</volume></event>" +
+                    "</events>\n");
+        }
+        SiddhiTestHelper.waitForEvents(waitTime, 6, count, timeout);
+        AssertJUnit.assertEquals("Number of events", 6, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForInvalidPollingIntervalBounds() {
+        log.info("test SiddhiIoFile [mode=line] with a minimum polling interval above the maximum");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/xml/xml_line.txt', " +
+                "tailing='true', " +
+                "min.file.polling.interval='2000', " +
+                "max.file.polling.interval='100', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestForTailingMultipleFiles() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] tailing the files of a directory with a shared pool");
+        File secondFile = new File(dirUri + "/line/xml/xml_line_2.txt");
+        FileUtils.copyFile(new File(dirUri + "/line/xml/xml_line.txt"), secondFile);
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + dirUri + "/line/xml', " +
+                "tailing='true', " +
+                "tailing.parallelism='2', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        AtomicInteger appendedCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    if ((Long) event.getData(2) == 1000L) {
+                        appendedCount.incrementAndGet();
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 10, count, timeout);
+        for (String fileName : new String[]{"xml_line.txt", "xml_line_2.txt"}) {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(dirUri + "/line/xml/" + fileName,
+                    true))) {
+                writer.write("<events><event><symbol>GOOGLE</symbol><price>100</price><volume>1000</volume>" +
+                        "</event></events>\n");
+            }
+        }
+        SiddhiTestHelper.waitForEvents(waitTime, 12, count, timeout);
+        AssertJUnit.assertEquals("Number of events", 12, count.get());
+        AssertJUnit.assertEquals("Number of appended events", 2, appendedCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForTailingRotatedFile() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] tailing a file which is rotated");
+        String fileUri = dirUri + "/line/xml/xml_line.txt";
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + fileUri + "', " +
+                "tailing='true', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        AtomicInteger rotatedCount = new AtomicInteger();
+        AtomicInteger newFileCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    if ((Long) event.getData(2) == 1000L) {
+                        rotatedCount.incrementAndGet();
+                    } else if ((Long) event.getData(2) == 2000L) {
+                        newFileCount.incrementAndGet();
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        File rotatedFile = new File(fileUri + ".1");
+        Files.move(new File(fileUri).toPath(), rotatedFile.toPath());
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(rotatedFile, true))) {
+            writer.write("<events><event><symbol>GOOGLE</symbol><price>100</price><volume>1000</volume>" +
+                    "</event></events>\n");
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileUri))) {
+            writer.write("<events><event><symbol>GOOGLE</symbol><price>100</price><volume>2000</volume>" +
+                    "</event></events>\n");
+        }
+        SiddhiTestHelper.waitForEvents(waitTime, 7, count, timeout);
+        AssertJUnit.assertEquals("Number of events", 7, count.get());
+        AssertJUnit.assertEquals("Number of events appended to the rotated file", 1, rotatedCount.get());
+        AssertJUnit.assertEquals("Number of events of the new file", 1, newFileCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForTailingWithCheckpoint() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] tailing a file from the file pointer of a checkpoint file");
+        String fileUri = dirUri + "/line/xml/xml_line.txt";
+        File checkpointFile = new File(dirUri + "/tailing.checkpoint");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + fileUri + "', " +
+                "tailing='true', " +
+                "tailing.checkpoint.file='" + checkpointFile.getAbsolutePath() + "', " +
+                "tailing.checkpoint.event.count='1', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                count.addAndGet(events.length);
+            }
+        };
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", streamCallback);
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+        AssertJUnit.assertTrue("Checkpoint file is written", checkpointFile.exists());
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileUri, true))) {
+            writer.write("<events><event><symbol>GOOGLE</symbol><price>100</price><volume>1000</volume>" +
+                    "</event></events>\n");
+        }
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", streamCallback);
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 6, count, timeout);
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals("Number of events after the restart", 6, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForCheckpointWithoutTailing() {
+        log.info("test SiddhiIoFile [mode=line] with a tailing checkpoint file while tailing is disabled");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/xml/xml_line.txt', " +
+                "tailing='false', " +
+                "tailing.checkpoint.file='" + dirUri + "/tailing.checkpoint', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestForTailingFromEnd() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] tailing a file from its end");
+        String fileUri = dirUri + "/line/xml/xml_line.txt";
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + fileUri + "', " +
+                "tailing='true', " +
+                "start.position='end', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    AssertJUnit.assertEquals(1000L, event.getData(2));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        Thread.sleep(2000);
+        AssertJUnit.assertEquals("Number of events before appending", 0, count.get());
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileUri, true))) {
+            writer.write("<events><event><symbol>GOOGLE</symbol><price>100</price><volume>1000</volume>" +
+                    "</event></events>\n");
+        }
+        SiddhiTestHelper.waitForEvents(waitTime, 1, count, timeout);
+        AssertJUnit.assertEquals("Number of events", 1, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForTailingFromLastLines() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] tailing the files of a directory from their last lines");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + dirUri + "/line/xml', " +
+                "tailing='true', " +
+                "start.position='last:2', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 2, count, timeout);
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals("Number of events", 2, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForInvalidStartPosition() {
+        log.info("test SiddhiIoFile [mode=line] with an invalid start position");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/xml/xml_line.txt', " +
+                "tailing='true', " +
+                "start.position='last:-5', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestForReadingFromStartTimestamp() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] reading a time ordered file from a start timestamp");
+        String fileUri = dirUri + "/line/timestamped.txt";
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileUri))) {
+            for (int i = 0; i < 10; i++) {
+                writer.write("<events><event><symbol>2020-01-01 00:00:0" + i + "</symbol><price>100</price>" +
+                        "<volume>" + i + "</volume></event></events>\n");
+            }
+        }
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + fileUri + "', " +
+                "tailing='false', " +
+                "start.timestamp='2020-01-01 00:00:06', " +
+                "timestamp.regex='<symbol>([^<]+)</symbol>', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        AtomicInteger earlyCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    if ((Long) event.getData(2) < 6L) {
+                        earlyCount.incrementAndGet();
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 4, count, timeout);
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals("Number of events", 4, count.get());
+        AssertJUnit.assertEquals("Number of events before the start timestamp", 0, earlyCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForInvalidStartTimestamp() {
+        log.info("test SiddhiIoFile [mode=line] with a start timestamp not matching the timestamp format");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/xml/xml_line.txt', " +
+                "start.timestamp='01/01/2020', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestForReadingFromStartLineWithIndex() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] reading a file from a start line through the line offset index");
+        String fileUri = dirUri + "/line/indexed.txt";
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileUri))) {
+            for (int i = 0; i < 10; i++) {
+                writer.write("<events><event><symbol>WSO2</symbol><price>100</price><volume>" + i +
+                        "</volume></event></events>\n");
+            }
+        }
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + fileUri + "', " +
+                "tailing='false', " +
+                "start.line='7', " +
+                "line.index.enabled='true', " +
+                "line.index.interval='3', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        AtomicInteger earlyCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    if ((Long) event.getData(2) < 6L) {
+                        earlyCount.incrementAndGet();
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 4, count, timeout);
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals("Number of events", 4, count.get());
+        AssertJUnit.assertEquals("Number of events before the start line", 0, earlyCount.get());
+        AssertJUnit.assertTrue("Line offset index is persisted",
+                new File(dirUri + "/line/.indexed.txt.lineidx").exists());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForStartLineWithTailing() {
+        log.info("test SiddhiIoFile [mode=line] with a start line when tailing is enabled");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/xml/xml_line.txt', " +
+                "tailing='true', " +
+                "start.line='3', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestForProcessedFileWatermark() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] skipping the kept files below the processed file watermark");
+        File directory = new File(dirUri + "/watermark");
+        AssertJUnit.assertTrue(directory.mkdirs());
+        writeVolumeLine(new File(directory, "events-2.txt"), 2);
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + directory.getAbsolutePath() + "', " +
+                "action.after.process='keep', " +
+                "tailing='false', " +
+                "processed.file.watermark='true', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        AtomicInteger skippedCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    if ((Long) event.getData(2) == 1L) {
+                        skippedCount.incrementAndGet();
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 1, count, timeout);
+        writeVolumeLine(new File(directory, "events-1.txt"), 1);
+        writeVolumeLine(new File(directory, "events-3.txt"), 3);
+        SiddhiTestHelper.waitForEvents(waitTime, 2, count, timeout);
+        Thread.sleep(3000);
+        AssertJUnit.assertEquals("Number of events", 2, count.get());
+        AssertJUnit.assertEquals("Number of events of the file below the watermark", 0, skippedCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForProcessedFileWatermarkWithTailing() {
+        log.info("test SiddhiIoFile [mode=line] with the processed file watermark when tailing is enabled");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + dirUri + "/line/xml', " +
+                "tailing='true', " +
+                "processed.file.watermark='true', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestForOrderedDirParallelism() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] processing the files of a directory in parallel in order");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + dirUri + "/line/json', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "dir.parallelism='4', " +
+                "dir.parallelism.ordered='true', " +
+                "dir.parallelism.max.bytes='2048', " +
+                "@map(type='json'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        AtomicInteger outOfOrderCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    /* the events of each file are delivered together, with the volumes 10000 to 10004 */
+                    if ((Long) event.getData(2) != 10000L + count.getAndIncrement() % 5) {
+                        outOfOrderCount.incrementAndGet();
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 40, count, timeout);
+        Thread.sleep(1000);
+        File file = new File(dirUri + "/line/json");
+        AssertJUnit.assertEquals(0, file.list().length);
+        AssertJUnit.assertEquals("Number of events", 40, count.get());
+        AssertJUnit.assertEquals("Number of events out of the order of the files", 0, outOfOrderCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForEOFOfEachEventWithOrderedDirParallelism() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] for the trp:eof and trp:file.name of each event held to process the " +
+                "files of a directory in parallel in order");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + dirUri + "/line/json', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "dir.parallelism='4', " +
+                "dir.parallelism.ordered='true', " +
+                "@map(type='batchCounting', @attributes(line = 'line', eof = 'trp:eof', " +
+                "fileName = 'trp:file.name')))" +
+                "define stream FooStream (line string, eof string, fileName string); " +
+                "define stream BarStream (line string, eof string, fileName string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        List<Object[]> received = new ArrayList<>();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    received.add(event.getData());
+                    count.incrementAndGet();
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 40, count, timeout);
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals("Number of events", 40, received.size());
+        /* the events of each file are held with their own transport properties, only the last one flagged */
+        List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < received.size(); i++) {
+            Object[] data = received.get(i);
+            AssertJUnit.assertEquals(String.valueOf(i % 5 == 4), data[1]);
+            AssertJUnit.assertTrue(((String) data[0]).contains("\"volume\":" + (10000 + i % 5)));
+            if (i % 5 == 0) {
+                AssertJUnit.assertFalse(fileNames.contains(data[2]));
+                fileNames.add((String) data[2]);
+            } else {
+                AssertJUnit.assertEquals(fileNames.get(fileNames.size() - 1), data[2]);
+            }
+        }
+    }
+
+    @Test
+    public void siddhiIoFileTestForFilesMovedAfterEmissionWithDirParallelism() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] moving the files processed in parallel after their events are " +
+                "passed on");
+        assertFilesMovedAfterEmission(false);
+    }
+
+    @Test
+    public void siddhiIoFileTestForFilesMovedAfterEmissionWithOrderedDirParallelism() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] moving the files processed in parallel in order after their events " +
+                "are passed on");
+        assertFilesMovedAfterEmission(true);
+    }
+
+    private void assertFilesMovedAfterEmission(boolean ordered) throws InterruptedException {
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + dirUri + "/line/json', " +
+                "action.after.process='move', " +
+                "move.after.process='file:/" + moveAfterProcessDir + "', " +
+                "tailing='false', " +
+                "dir.parallelism='4', " +
+                "dir.parallelism.ordered='" + ordered + "', " +
+                "@map(type='batchCounting', @attributes(line = 'line', filePath = 'trp:file.path')))" +
+                "define stream FooStream (line string, filePath string); " +
+                "define stream BarStream (line string, filePath string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        AtomicInteger movedBeforeEmissionCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if (!new File((String) event.getData(1)).exists()) {
+                        movedBeforeEmissionCount.incrementAndGet();
+                    }
+                    count.incrementAndGet();
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 40, count, timeout);
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals("Number of events", 40, count.get());
+        AssertJUnit.assertEquals("Number of events of files moved before the events are passed on", 0,
+                movedBeforeEmissionCount.get());
+        AssertJUnit.assertEquals(0, new File(dirUri + "/line/json").list().length);
+        AssertJUnit.assertEquals(8, movedFiles.list().length);
+    }
+
+    @Test
+    public void siddhiIoFileTestForFailedFileKeptWithDirParallelism() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] keeping a file which fails to be read in parallel, while moving the " +
+                "other files");
+        FileUtils.write(new File(dirUri + "/line/json/failing.txt"), "fail\n", StandardCharsets.UTF_8);
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + dirUri + "/line/json', " +
+                "action.after.process='move', " +
+                "move.after.process='file:/" + moveAfterProcessDir + "', " +
+                "tailing='false', " +
+                "dir.parallelism='4', " +
+                "@map(type='failing'))" +
+                "define stream FooStream (line string); " +
+                "define stream BarStream (line string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 40, count, timeout);
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals("Number of events", 40, count.get());
+        /* the failure of reading the file is handled by the stage reading it, hence only that file is kept */
+        AssertJUnit.assertEquals(Collections.singletonList("failing.txt"),
+                Arrays.asList(new File(dirUri + "/line/json").list()));
+        AssertJUnit.assertEquals(8, movedFiles.list().length);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForDirParallelismWithTailing() {
+        log.info("test SiddhiIoFile [mode=line] with directory parallelism when tailing is enabled");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "dir.uri='file:/" + dirUri + "/line/json', " +
+                "tailing='true', " +
+                "dir.parallelism='4', " +
+                "@map(type='json'))" +
+                "define stream FooStream (symbol string, price float, volume long); ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.createSiddhiAppRuntime(streams);
+    }
+
+    @Test
+    public void siddhiIoFileTestForBatchedEventsFlushedAtEndOfFile() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] passing the lines to the mapper in batches without a linger time");
+        assertBatchesFlushedAtEndOfFile("0");
+    }
+
+    @Test
+    public void siddhiIoFileTestForBatchedEventsFlushedBeforeLingerTime() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] passing the last batch of a file to the mapper before the linger " +
+                "time");
+        assertBatchesFlushedAtEndOfFile("60000");
+    }
+
+    @Test
+    public void siddhiIoFileTestForBatchedEventsFlushedAfterLingerTime() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode=line] passing the tailed lines to the mapper in batches after the linger " +
+                "time");
+        BatchCountingSourceMapper.reset();
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/json/logs.txt', " +
+                "tailing='true', " +
+                "batch.size='100', " +
+                "batch.linger.ms='500', " +
+                "@map(type='batchCounting'))" +
+                "define stream FooStream (line string); " +
+                "define stream BarStream (line string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        Thread.sleep(1000);
+        /* a tailed file has no end, hence the incomplete batch is only passed on once it is held for the linger
+        time */
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+        List<Integer> batchSizes = BatchCountingSourceMapper.getBatchSizes();
+        AssertJUnit.assertEquals(5, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        AssertJUnit.assertTrue("Lines passed on one by one: " + batchSizes, batchSizes.size() < 5);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForTailedOversizedLine() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode=line] truncating a tailed line which exceeds max.record.length while it " +
+                "is appended");
+        BatchCountingSourceMapper.reset();
+        File file = new File(dirUri + "/line/oversized/logs.txt");
+        file.getParentFile().mkdirs();
+        StringBuilder oversizedLine = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            oversizedLine.append("WSO2,");
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("WSO2,55.6,100\n");
+            writer.write(oversizedLine.toString());
+        }
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/oversized/logs.txt', " +
+                "tailing='true', " +
+                "max.record.length='1024', " +
+                "oversized.record.policy='truncate', " +
+                "@map(type='batchCounting'))" +
+                "define stream FooStream (line string); " +
+                "define stream BarStream (line string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 1, count, timeout);
+        Thread.sleep(1000);
+        /* the oversized line is completed only after the tailer has read its first part */
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
+            writer.write(oversizedLine.toString() + "\n");
+            writer.write("IBM,75.6,200\n");
+        }
+        SiddhiTestHelper.waitForEvents(waitTime, 3, count, timeout);
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals("Number of events", 3, count.get());
+        AssertJUnit.assertEquals(Arrays.asList("WSO2,55.6,100", oversizedLine.substring(0, 1024), "IBM,75.6,200"),
+                BatchCountingSourceMapper.getPayloads());
+    }
+
+    private void assertBatchesFlushedAtEndOfFile(String lingerTime) throws InterruptedException {
+        BatchCountingSourceMapper.reset();
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + dirUri + "/line/json/logs.txt', " +
+                "action.after.process='delete', " +
+                "tailing='false', " +
+                "batch.size='4', " +
+                "batch.linger.ms='" + lingerTime + "', " +
+                "@map(type='batchCounting'))" +
+                "define stream FooStream (line string); " +
+                "define stream BarStream (line string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        List<String> lines = new ArrayList<>();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    lines.add((String) event.getData(0));
+                    count.incrementAndGet();
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+        for (int i = 0; i < lines.size(); i++) {
+            AssertJUnit.assertTrue(lines.get(i).contains("\"volume\":" + (10000 + i)));
+        }
+        /* the four lines of a full batch are passed on as an array, and the last line at the end of the file */
+        AssertJUnit.assertEquals(Arrays.asList(4, 1), BatchCountingSourceMapper.getBatchSizes());
+        siddhiAppRuntime.shutdown();
+    }
+
+    private void writeVolumeLine(File file, long volume) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("<events><event><symbol>WSO2</symbol><price>100</price><volume>" + volume +
+                    "</volume></event></events>\n");
+        }
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c)  2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.config.StatisticsConfiguration;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.output.StreamCallback;
+import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.extension.io.file.metrics.SourceMetrics;
+import io.siddhi.extension.io.file.util.TestUtils;
+import io.siddhi.extension.util.Utils;
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.testng.Assert;
+import org.testng.TestException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.metrics.core.Level;
+import org.wso2.carbon.metrics.core.MetricManagementService;
+import org.wso2.carbon.metrics.core.MetricNotFoundException;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.metrics.core.Metrics;
+import org.wso2.carbon.si.metrics.core.MetricsFactory;
+import org.wso2.carbon.si.metrics.core.internal.MetricsDataHolder;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for siddhi-io-file source to test source level metrics.
+ */
+public class FileSourceMetricsTestCase {
+    private static final Logger log = Logger.getLogger(FileSourceMetricsTestCase.class);
+    private final AtomicInteger count = new AtomicInteger();
+    private final int waitTime = 2000;
+    private final int timeout = 30000;
+
+    private String dirUri;
+    private File sourceRoot, newRoot;
+    private Metrics metrics;
+    private MetricService metricService;
+    private final String siddhiAppName = "TestSiddhiApp";
+
+    @BeforeClass
+    public void init() {
+        ClassLoader classLoader = FileSourceMetricsTestCase.class.getClassLoader();
+        String rootPath = Objects.requireNonNull(classLoader.getResource("files")).getFile();
+        sourceRoot = new File(rootPath + "/repo");
+        dirUri = rootPath + "/new";
+        newRoot = new File(dirUri);
+    }
+
+    @BeforeMethod
+    public void doBeforeMethod() throws ConfigurationException {
+        metrics = new Metrics(TestUtils.getConfigProvider("conf/metrics-prometheus.yaml"));
+        metrics.activate();
+        metricService = metrics.getMetricService();
+        MetricManagementService metricManagementService = metrics.getMetricManagementService();
+        metricManagementService.setRootLevel(Level.ALL);
+        metricManagementService.stopReporters();
+        MetricsDataHolder.getInstance().setMetricService(metricService);
+        MetricsDataHolder.getInstance().setMetricManagementService(metricManagementService);
+        count.set(0);
+        try {
+            FileUtils.copyDirectory(sourceRoot, newRoot);
+        } catch (IOException e) {
+            throw new TestException("Failed to copy files from " +
+                    sourceRoot.getAbsolutePath() +
+                    " to " +
+                    newRoot.getAbsolutePath() +
+                    " which are required for tests. Hence aborting tests.", e);
+        }
+    }
+
+    @AfterMethod
+    public void doAfterMethod() {
+        try {
+            FileUtils.deleteDirectory(newRoot);
+            log.info("Deactivating Metrics");
+            metrics.deactivate();
+        } catch (IOException e) {
+            throw new TestException("Failed to delete files in due to " + e.getMessage(), e);
+        }
+    }
+
+    @Test
+    public void testLineCountAndReadByteMetrics() throws InterruptedException, MetricNotFoundException {
+        String fileUri = dirUri + "/line/json/logs.txt";
+        SiddhiAppRuntime siddhiAppRuntime = createSiddhiAppRuntime(fileUri, true);
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        Thread.sleep(1000);
+        Assert.assertEquals(count.get(), 5);
+        String shortenedFilePath = Utils.getShortFilePath(fileUri);
+        String lineCountMetric = String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
+                siddhiAppName, "lines_count", shortenedFilePath);
+        String readByteMetric = String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
+                siddhiAppName, "total_read_byte", shortenedFilePath);
+        Assert.assertEquals(metricService.counter(lineCountMetric).getCount(), 5);
+        /* the bytes are counted as they are read, including the line separators */
+        Assert.assertEquals(metricService.counter(readByteMetric).getCount(), new File(fileUri).length());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testLineCountMetricBeyondEstimate() throws InterruptedException, IOException,
+            MetricNotFoundException {
+        /* the line count is estimated from the start of the file, where the lines are shorter than the rest */
+        File file = new File(dirUri + "/line/estimate/logs.txt");
+        Assert.assertTrue(file.getParentFile().mkdirs());
+        int lineCount = 5000;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            for (int i = 0; i < lineCount; i++) {
+                StringBuilder symbol = new StringBuilder("WSO2");
+                for (int j = 0; j < i / 100; j++) {
+                    symbol.append('X');
+                }
+                writer.write("{\"event\":{\"symbol\":\"" + symbol + "\",\"price\":" + i + ",\"volume\":" + i +
+                        "}}\n");
+            }
+        }
+        SiddhiAppRuntime siddhiAppRuntime = createSiddhiAppRuntime(file.getAbsolutePath(), false);
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, lineCount, count, timeout);
+        Thread.sleep(1000);
+        Assert.assertEquals(count.get(), lineCount);
+        String lineCountMetric = String.format("io.siddhi.SiddhiApps.%s.Siddhi.File.Source.%s.%s",
+                siddhiAppName, "lines_count", Utils.getShortFilePath(file.getAbsolutePath()));
+        /* the estimate is corrected to the number of lines read once the whole file is read */
+        Assert.assertEquals(metricService.counter(lineCountMetric).getCount(), lineCount);
+        siddhiAppRuntime.shutdown();
+    }
+
+    private SiddhiAppRuntime createSiddhiAppRuntime(String fileUri, boolean nativeReaderEnabled) {
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='line'," +
+                "file.uri='file:/" + fileUri + "', " +
+                "action.after.process='keep', " +
+                "tailing='false', " +
+                "native.reader.enabled='" + nativeReaderEnabled + "', " +
+                "@map(type='json'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        StatisticsConfiguration statisticsConfiguration = new StatisticsConfiguration(new MetricsFactory());
+        siddhiManager.setStatisticsConfiguration(statisticsConfiguration);
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.getSources().forEach(sources -> {
+            try {
+                SourceMetrics sourceMetrics = new SourceMetrics(siddhiAppName, "Line", "FooStream");
+                Field metrics = sources.get(0).getClass().getDeclaredField("metrics");
+                metrics.setAccessible(true);
+                metrics.set(sources.get(0), sourceMetrics);
+
+            } catch (NoSuchFieldException | IllegalAccessException ignored) {
+
+            }
+        });
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+        return siddhiAppRuntime;
+    }
+}
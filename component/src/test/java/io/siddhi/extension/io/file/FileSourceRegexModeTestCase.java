@@ -38,6 +38,12 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -1202,4 +1208,228 @@ public class FileSourceRegexModeTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+    @Test
+    public void siddhiIoFileTestForTailingPendingRecordAfterRestart() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode = regex] completing a tailed record which is pending at a restart");
+        String fileUri = dirUri + "/regex/xml/xml_logs.txt";
+        File checkpointFile = new File(dirUri + "/tailing.checkpoint");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='regex'," +
+                "file.uri='file:/" + fileUri + "', " +
+                "begin.regex='(<events>)', " +
+                "end.regex='(</events>)', " +
+                "tailing='true', " +
+                "tailing.checkpoint.file='" + checkpointFile.getAbsolutePath() + "', " +
+                "tailing.checkpoint.event.count='1', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        AtomicInteger pendingRecordCount = new AtomicInteger();
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    if ((Long) event.getData(2) == 1000L) {
+                        pendingRecordCount.incrementAndGet();
+                    }
+                }
+            }
+        };
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", streamCallback);
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileUri, true))) {
+            writer.write("<events>\n<event>\n<symbol>GOOGLE</symbol>\n");
+        }
+        Thread.sleep(2000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileUri, true))) {
+            writer.write("<price>100</price>\n<volume>1000</volume>\n</event>\n</events>\n");
+        }
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", streamCallback);
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 6, count, timeout);
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals("Number of events after the restart", 6, count.get());
+        AssertJUnit.assertEquals("Number of pending records completed", 1, pendingRecordCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForRecordSpanningDecodeSteps() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode = regex] with a record longer than the decoded window");
+        File file = new File(dirUri + "/regex/long/long_logs.txt");
+        AssertJUnit.assertTrue(file.getParentFile().mkdirs());
+        /* the end of the second record is more than 8192 characters, the decoding step and the delimiter look back,
+        away from its beginning */
+        appendToFile(file, xmlRecord(1, 10) + xmlRecord(2, 20000) + xmlRecord(3, 10));
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='regex'," +
+                "file.uri='file:/" + file.getAbsolutePath() + "', " +
+                "begin.regex='(<events>)', " +
+                "end.regex='(</events>)', " +
+                "tailing='false', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        List<Long> volumes = new ArrayList<>();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    volumes.add((Long) event.getData(2));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 3, count, timeout);
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals(Arrays.asList(1L, 2L, 3L), volumes);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForBeginRegexBeyondLookBack() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode = regex] with a begin regex matched beyond the delimiter look back");
+        File file = new File(dirUri + "/regex/long/long_logs.txt");
+        AssertJUnit.assertTrue(file.getParentFile().mkdirs());
+        /* the second begin match is more than 8192 characters, the delimiter look back, after the first one, and
+        spans the 16384th character, where the second decoding step of 8192 characters ends */
+        appendToFile(file, xmlRecord(1, 16380 - xmlRecord(1, 0).length()) + xmlRecord(2, 0) + xmlRecord(3, 0));
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='regex'," +
+                "file.uri='file:/" + file.getAbsolutePath() + "', " +
+                "begin.regex='(<events>)', " +
+                "tailing='false', " +
+                "native.reader.enabled='false', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        List<Long> volumes = new ArrayList<>();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    volumes.add((Long) event.getData(2));
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 3, count, timeout);
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals(Arrays.asList(1L, 2L, 3L), volumes);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForTailingLongPendingRecordAfterRestart() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode = regex] completing a long tailed record of multi-byte characters which " +
+                "is pending at a restart");
+        String fileUri = dirUri + "/regex/xml/xml_logs.txt";
+        File checkpointFile = new File(dirUri + "/tailing.checkpoint");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='regex'," +
+                "file.uri='file:/" + fileUri + "', " +
+                "begin.regex='(<events>)', " +
+                "end.regex='(</events>)', " +
+                "tailing='true', " +
+                "tailing.checkpoint.file='" + checkpointFile.getAbsolutePath() + "', " +
+                "tailing.checkpoint.event.count='1', " +
+                "@map(type='xml'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String symbol = "G\u00f6\u20acgle";
+        AtomicInteger pendingRecordCount = new AtomicInteger();
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    count.incrementAndGet();
+                    if ((Long) event.getData(2) == 1000L) {
+                        AssertJUnit.assertEquals(symbol, event.getData(0));
+                        pendingRecordCount.incrementAndGet();
+                    }
+                }
+            }
+        };
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", streamCallback);
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 5, count, timeout);
+        /* the pending record is longer than the decoding step, and its multi-byte characters make the number of its
+        pending bytes differ from the number of its characters */
+        StringBuilder pendingRecord = new StringBuilder("<events>\n<event>\n<symbol>" + symbol + "</symbol>\n");
+        for (int i = 0; i < 200; i++) {
+            pendingRecord.append("<!--");
+            for (int j = 0; j < 50; j++) {
+                pendingRecord.append('\u00e9');
+            }
+            pendingRecord.append("-->\n");
+        }
+        appendToFile(new File(fileUri), pendingRecord.toString());
+        Thread.sleep(2000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals("Number of events", 5, count.get());
+
+        appendToFile(new File(fileUri), "<price>100</price>\n<volume>1000</volume>\n</event>\n</events>\n");
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", streamCallback);
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 6, count, timeout);
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals("Number of events after the restart", 6, count.get());
+        AssertJUnit.assertEquals("Number of pending records completed", 1, pendingRecordCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    private String xmlRecord(long volume, int padding) {
+        StringBuilder record = new StringBuilder("<events><event><symbol>WSO2</symbol><price>100</price><volume>" +
+                volume + "</volume></event>");
+        for (int i = 0; i < padding; i++) {
+            record.append(i % 80 == 79 ? '\n' : ' ');
+        }
+        return record.append("</events>\n").toString();
+    }
+
+    private void appendToFile(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c)  2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.extension.io.file;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.stream.output.StreamCallback;
+import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.extension.io.file.util.BatchCountingSourceMapper;
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.TestException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for siddhi-io-file source in 'text.chunked' mode.
+ * */
+public class FileSourceTextChunkedModeTestCase {
+    private static final Logger log = Logger.getLogger(FileSourceTextChunkedModeTestCase.class);
+    private AtomicInteger count = new AtomicInteger();
+    private int waitTime = 2000;
+    private int timeout = 30000;
+
+    private String dirUri;
+    private File newRoot;
+    private String content;
+
+    @BeforeClass
+    public void init() {
+        ClassLoader classLoader = FileSourceTextChunkedModeTestCase.class.getClassLoader();
+        String rootPath = classLoader.getResource("files").getFile();
+        dirUri = rootPath + "/new";
+        newRoot = new File(dirUri);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("wso2,").append(i).append(',').append(i * 10).append('\n');
+        }
+        content = sb.toString();
+    }
+
+    @BeforeMethod
+    public void doBeforeMethod() {
+        count.set(0);
+        try {
+            FileUtils.write(new File(dirUri + "/text_chunked/records.txt"), content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new TestException("Failed to write the file required for tests to " +
+                    newRoot.getAbsolutePath() + ". Hence aborting tests.", e);
+        }
+    }
+
+    @AfterMethod
+    public void doAfterMethod() {
+        try {
+            FileUtils.deleteDirectory(newRoot);
+        } catch (IOException e) {
+            throw new TestException("Failed to delete files in due to " + e.getMessage(), e);
+        }
+    }
+
+    @Test
+    public void siddhiIoFileTest1() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode = text.chunked] 1");
+        assertChunks("");
+    }
+
+    @Test
+    public void siddhiIoFileTest2() throws InterruptedException {
+        log.info("test SiddhiIoFile [mode = text.chunked] 2, read through the VFS client");
+        assertChunks("native.reader.enabled='false', ");
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void siddhiIoFileTestForBeginDelimiter() throws InterruptedException {
+        log.info("Begin delimiter can't be given with Text.Chunked Mode");
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='text.chunked'," +
+                "dir.uri='file:/" + dirUri + "/text_chunked', " +
+                "begin.delimiter='wso2', " +
+                "@map(type='json'))" +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 0, count, timeout);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void siddhiIoFileTestForLastPartialChunkThroughVFSClient() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode = text.chunked] passing the content after the last line separator at the " +
+                "end of a file read through the VFS client");
+        /* the file neither ends on a chunk boundary nor with a line separator */
+        String text = content + "wso2,1000,10000";
+        File file = new File(dirUri + "/text_chunked/records.txt");
+        FileUtils.write(file, text, StandardCharsets.UTF_8);
+        BatchCountingSourceMapper.reset();
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='text.chunked'," +
+                "file.uri='file:/" + file.getAbsolutePath() + "', " +
+                "buffer.size='100', " +
+                "native.reader.enabled='false', " +
+                "action.after.process='delete', " +
+                "@map(type='batchCounting'))" +
+                "define stream FooStream (chunk string); " +
+                "define stream BarStream (chunk string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        StringBuilder received = new StringBuilder();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    received.append(event.getData(0));
+                    count.incrementAndGet();
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, text.length() / 100 + 1, count, timeout);
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(text, received.toString());
+        /* the file is deleted only once its end is read */
+        AssertJUnit.assertFalse(file.exists());
+    }
+
+    private void assertChunks(String options) throws InterruptedException {
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='text.chunked'," +
+                "dir.uri='file:/" + dirUri + "/text_chunked', " +
+                "buffer.size='100', " + options +
+                "action.after.process='delete', " +
+                "@map(type='text', fail.on.missing.attribute='false', regex.A='((?s).+)', " +
+                "event.grouping.enabled='false', " +
+                "@attributes(chunk = 'A[1]', sequenceNumber = 'trp:sequence.number')))" +
+                "define stream FooStream (chunk string, sequenceNumber int); " +
+                "define stream BarStream (chunk string, sequenceNumber int); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        StringBuilder received = new StringBuilder();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    String chunk = (String) event.getData(0);
+                    AssertJUnit.assertEquals(count.incrementAndGet(), event.getData(1));
+                    AssertJUnit.assertTrue(chunk.length() <= 100);
+                    AssertJUnit.assertTrue(chunk.endsWith("\n"));
+                    received.append(chunk);
+                }
+            }
+        });
+
+        siddhiAppRuntime.start();
+
+        SiddhiTestHelper.waitForEvents(waitTime, content.length() / 100 + 1, count, timeout);
+        Thread.sleep(1000);
+
+        AssertJUnit.assertTrue(count.get() > content.length() / 100);
+        AssertJUnit.assertEquals(content, received.toString());
+        siddhiAppRuntime.shutdown();
+    }
+}
@@ -25,6 +25,7 @@ import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.extension.io.file.util.BatchCountingSourceMapper;
 import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
 import org.testng.AssertJUnit;
@@ -36,7 +37,9 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
@@ -751,4 +754,84 @@ public class FileSourceTextFullModeTestCase {
         SiddhiTestHelper.waitForEvents(100, 0, count.get(), 1000);
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void siddhiIoFileTestForMultiByteTextThroughVFSClient() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode = text.full] passing the multi-byte text as it is in the file, read by " +
+                "the VFS client");
+        String text = "{\"event\":{\"symbol\":\"G\u00f6\u20acgle \ud83d\ude00\",\"price\":55.6}}\n";
+        File file = new File(dirUri + "/multi_byte/google.json");
+        FileUtils.writeStringToFile(file, text, StandardCharsets.UTF_8);
+        BatchCountingSourceMapper.reset();
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='text.full'," +
+                "file.uri='file:/" + file.getAbsolutePath() + "', " +
+                "action.after.process='keep', " +
+                "native.reader.enabled='false', " +
+                "@map(type='batchCounting'))" +
+                "define stream FooStream (content string); " +
+                "define stream BarStream (content string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 1, count, timeout);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(Collections.singletonList(text), BatchCountingSourceMapper.getPayloads());
+    }
+
+    @Test
+    public void siddhiIoFileTestForFileMovedAfterReadThroughVFSClient() throws InterruptedException, IOException {
+        log.info("test SiddhiIoFile [mode = text.full] moving a file read by the VFS client onto an existing file " +
+                "once it is read");
+        File file = new File(dirUri + "/text_full/google.json");
+        File destination = new File(moveAfterProcessDir + "/google.json");
+        FileUtils.write(destination, "existing", StandardCharsets.UTF_8);
+        String content = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+        String streams = "" +
+                "@App:name('TestSiddhiApp')" +
+                "@source(type='file', mode='text.full'," +
+                "file.uri='file:/" + file.getAbsolutePath() + "', " +
+                "action.after.process='move', " +
+                "move.after.process='file:/" + destination.getAbsolutePath() + "', " +
+                "move.if.exist.mode='overwrite', " +
+                "native.reader.enabled='false', " +
+                "@map(type='batchCounting'))" +
+                "define stream FooStream (content string); " +
+                "define stream BarStream (content string); ";
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        AtomicInteger movedBeforeEmissionCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                if (!file.exists()) {
+                    movedBeforeEmissionCount.incrementAndGet();
+                }
+                count.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+        SiddhiTestHelper.waitForEvents(waitTime, 1, count, timeout);
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(1, count.get());
+        AssertJUnit.assertEquals(0, movedBeforeEmissionCount.get());
+        AssertJUnit.assertFalse(file.exists());
+        AssertJUnit.assertEquals(content, FileUtils.readFileToString(destination, StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.extension.io.file.util;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.source.AttributeMapping;
+import io.siddhi.core.stream.input.source.InputEventHandler;
+import io.siddhi.core.stream.input.source.SourceMapper;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.transport.OptionHolder;
+import io.siddhi.query.api.definition.StreamDefinition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This mapper converts each payload, or each payload of an array of payloads, to an event holding the payload as
+ * text in its first attribute, and records the number of payloads received at once along with the payloads.
+ * This is only for testing purposes.
+ */
+@Extension(
+        name = "batchCounting",
+        namespace = "sourceMapper",
+        description = "TBD",
+        parameters = {},
+        examples = {
+                @Example(
+                        syntax = "TBD",
+                        description =  "TBD"
+                )
+        }
+)
+public class BatchCountingSourceMapper extends SourceMapper {
+    private static final List<Integer> BATCH_SIZES = Collections.synchronizedList(new ArrayList<>());
+    private static final List<Object> PAYLOADS = Collections.synchronizedList(new ArrayList<>());
+
+    private int attributesSize;
+
+    /**
+     * Returns the number of payloads of each batch received so far, in the order they were received.
+     */
+    public static List<Integer> getBatchSizes() {
+        synchronized (BATCH_SIZES) {
+            return new ArrayList<>(BATCH_SIZES);
+        }
+    }
+
+    /**
+     * Returns the payloads received so far, as they were received, in the order they were received.
+     */
+    public static List<Object> getPayloads() {
+        synchronized (PAYLOADS) {
+            return new ArrayList<>(PAYLOADS);
+        }
+    }
+
+    public static void reset() {
+        BATCH_SIZES.clear();
+        PAYLOADS.clear();
+    }
+
+    @Override
+    public void init(StreamDefinition streamDefinition, OptionHolder optionHolder, List<AttributeMapping> list,
+                     ConfigReader configReader, SiddhiAppContext siddhiAppContext) {
+        attributesSize = streamDefinition.getAttributeList().size();
+    }
+
+    @Override
+    protected void mapAndProcess(Object eventObject, InputEventHandler inputEventHandler) throws InterruptedException {
+        Object[] payloads = eventObject instanceof Object[] ? (Object[]) eventObject : new Object[]{eventObject};
+        BATCH_SIZES.add(payloads.length);
+        PAYLOADS.addAll(Arrays.asList(payloads));
+        Event[] events = new Event[payloads.length];
+        for (int i = 0; i < payloads.length; i++) {
+            Object[] data = new Object[attributesSize];
+            data[0] = payloads[i] instanceof byte[] ?
+                    new String((byte[]) payloads[i], StandardCharsets.UTF_8) : payloads[i];
+            events[i] = new Event(System.currentTimeMillis(), data);
+        }
+        inputEventHandler.sendEvents(events);
+    }
+
+    @Override
+    protected boolean allowNullInTransportProperties() {
+        return false;
+    }
+
+    @Override
+    public Class[] getSupportedInputEventClasses() {
+        return new Class[]{String.class, byte[].class, Object[].class};
+    }
+}
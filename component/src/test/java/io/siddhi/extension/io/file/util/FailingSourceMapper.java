@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.extension.io.file.util;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.source.AttributeMapping;
+import io.siddhi.core.stream.input.source.InputEventHandler;
+import io.siddhi.core.stream.input.source.SourceMapper;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.transport.OptionHolder;
+import io.siddhi.query.api.definition.StreamDefinition;
+
+import java.util.List;
+
+/**
+ * This mapper converts each text payload to an event holding the text in its first attribute, and fails with an
+ * error on a payload containing 'fail'. Siddhi logs the exceptions thrown by mappers, hence the error reaches the
+ * source as a failure of reading the file.
+ * This is only for testing purposes.
+ */
+@Extension(
+        name = "failing",
+        namespace = "sourceMapper",
+        description = "TBD",
+        parameters = {},
+        examples = {
+                @Example(
+                        syntax = "TBD",
+                        description =  "TBD"
+                )
+        }
+)
+public class FailingSourceMapper extends SourceMapper {
+    private int attributesSize;
+
+    @Override
+    public void init(StreamDefinition streamDefinition, OptionHolder optionHolder, List<AttributeMapping> list,
+                     ConfigReader configReader, SiddhiAppContext siddhiAppContext) {
+        attributesSize = streamDefinition.getAttributeList().size();
+    }
+
+    @Override
+    protected void mapAndProcess(Object eventObject, InputEventHandler inputEventHandler) throws InterruptedException {
+        if (((String) eventObject).contains("fail")) {
+            throw new Error("Failed to map '" + eventObject + "'.");
+        }
+        Object[] data = new Object[attributesSize];
+        data[0] = eventObject;
+        inputEventHandler.sendEvent(new Event(System.currentTimeMillis(), data));
+    }
+
+    @Override
+    protected boolean allowNullInTransportProperties() {
+        return false;
+    }
+
+    @Override
+    public Class[] getSupportedInputEventClasses() {
+        return new Class[]{String.class};
+    }
+}